@@ -1,18 +1,16 @@
 package com.bobocode;
 
-import com.bobocode.util.FileReader;
+import com.bobocode.util.migration.MigrationException;
+import com.bobocode.util.migration.Migrator;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 /**
  * {@link UserProfileDbInitializer} is an API that has only one method. It allows to create a database tables to store
  * information about users and their profiles.
  */
 public class UserProfileDbInitializer {
-    private final static String TABLE_INITIALIZATION_SQL_FILE = "db/migration/table_initialization.sql"; // todo: see the file
     private DataSource dataSource;
 
     public UserProfileDbInitializer(DataSource dataSource) {
@@ -20,17 +18,15 @@ public class UserProfileDbInitializer {
     }
 
     /**
-     * Reads the SQL script form the file and executes it
+     * Applies pending SQL migrations from {@code db/migration}, so the tables are created only once. The tables are
+     * created by {@code db/migration/V1__table_initialization.sql}
      *
      * @throws SQLException
      */
     public void init() throws SQLException {
-        String createTablesSql = FileReader.readWholeFileFromResources(TABLE_INITIALIZATION_SQL_FILE);
-
-        try (Connection connection = dataSource.getConnection()) {
-            Statement statement = connection.createStatement();
-            statement.execute(createTablesSql);
-        } catch (SQLException e) {
+        try {
+            new Migrator().migrate(dataSource);
+        } catch (MigrationException e) {
             throw new SQLException("INIT ERROR", e);
         }
     }
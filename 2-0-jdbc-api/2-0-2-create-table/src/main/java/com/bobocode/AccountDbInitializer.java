@@ -1,9 +1,10 @@
 package com.bobocode;
 
+import com.bobocode.util.migration.MigrationException;
+import com.bobocode.util.migration.Migrator;
+
 import javax.sql.DataSource;
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 /**
  * {@link AccountDbInitializer} provides an API that allow to initialize (create) an Account table in the database
@@ -25,25 +26,16 @@ public class AccountDbInitializer {
      * and {@code scale = 4}. A column {@code creation_time} stores a {@code TIMESTAMP}, is mandatory, and has a default
      * value that is set to the current timestamp using database function {@code now()}. Table primary key
      * is an {@code id}, and corresponding constraint is named {@code "account_pk"}. A unique constraint that
-     * is created for {@code email column} is called "account_email_uq"
+     * is created for {@code email column} is called "account_email_uq". The table is created by the
+     * {@code db/migration/V1__create_account_table.sql} migration, so it is created only once.
      *
      * @throws SQLException
      */
     public void init() throws SQLException {
-        try (Connection connection = dataSource.getConnection()) {
-            Statement statement = connection.createStatement();
-            statement.execute("CREATE TABLE account (\n" +
-                    "    id BIGINT PRIMARY KEY,\n" +
-                    "    email VARCHAR(255) NOT NULL UNIQUE,\n" +
-                    "    first_name VARCHAR(255) NOT NULL,\n" +
-                    "    last_name VARCHAR(255) NOT NULL,\n" +
-                    "    gender VARCHAR(255) NOT NULL,\n" +
-                    "    birthday DATE NOT NULL,\n" +
-                    "    balance DECIMAL(19, 4),\n" +
-                    "    creation_time TIMESTAMP NOT NULL DEFAULT now(),\n" +
-                    "    CONSTRAINT account_pk PRIMARY KEY (id),\n" +
-                    "    CONSTRAINT account_email_uq UNIQUE (email)\n" +
-                    ");");
+        try {
+            new Migrator().migrate(dataSource);
+        } catch (MigrationException e) {
+            throw new SQLException("INIT ERROR", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.bobocode;
 
 import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.snapshot.ClonedDatabase;
+import com.bobocode.util.snapshot.SchemaSnapshot;
 import org.junit.jupiter.api.*;
 
 import javax.sql.DataSource;
@@ -17,13 +19,32 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class AccountDbInitializerTest {
 
+    private static SchemaSnapshot snapshot;
+    private static ClonedDatabase database;
     private static DataSource dataSource;
 
     @BeforeAll
     static void init() throws SQLException {
-        dataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
-        AccountDbInitializer dbInitializer = new AccountDbInitializer(dataSource);
+        DataSource sourceDataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
+        AccountDbInitializer dbInitializer = new AccountDbInitializer(sourceDataSource);
         dbInitializer.init();
+        snapshot = SchemaSnapshot.take(sourceDataSource);
+    }
+
+    @BeforeEach
+    void createDatabase() throws SQLException {
+        database = snapshot.createClone();
+        dataSource = database.getDataSource();
+    }
+
+    @AfterEach
+    void dropDatabase() throws SQLException {
+        database.close();
+    }
+
+    @AfterAll
+    static void destroy() throws SQLException {
+        snapshot.close();
     }
 
     @Test
@@ -3,7 +3,10 @@ package com.bobocode.dao;
 import com.bobocode.exception.DaoOperationException;
 import com.bobocode.model.Product;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * {@link ProductDao} is a Data Access Object pattern (DAO) that encapsulates all database access and manipulation logic.
@@ -18,6 +21,39 @@ public interface ProductDao {
      */
     void save(Product product);
 
+    /**
+     * Stores all provided products into the database using JDBC statement batching. All products are stored within
+     * a single connection and transaction using a default batch size. Sets the database-generated IDs to every
+     * {@link Product} instance
+     *
+     * @param products new products
+     * @throws DaoOperationException in case of database errors
+     */
+    void saveAll(Collection<Product> products);
+
+    /**
+     * Stores all provided products into the database using JDBC statement batching. All products are stored within
+     * a single connection and transaction, and the batch is sent to the database every {@code batchSize} products.
+     * Sets the database-generated IDs to every {@link Product} instance
+     *
+     * @param products  new products
+     * @param batchSize number of products sent to the database in a single batch
+     * @throws DaoOperationException in case of database errors
+     */
+    void saveAll(Collection<Product> products, int batchSize);
+
+    /**
+     * Loads products into the database within a single transaction without assigning their IDs. On PostgreSQL
+     * the products are streamed with {@code COPY}, and on other databases they are inserted in batches, see
+     * {@link com.bobocode.util.copy.BulkLoader}. Products are read from the stream while they are sent, so the stream
+     * does not have to fit into memory. Creation time is set by the database
+     *
+     * @param products products to load
+     * @return number of loaded products
+     * @throws DaoOperationException in case of database errors
+     */
+    long loadAll(Stream<Product> products);
+
     /**
      * Retrieves and returns all products from the database
      *
@@ -26,6 +62,36 @@ public interface ProductDao {
      */
     List<Product> findAll();
 
+    /**
+     * Returns a lazy stream of all products that is backed by a database cursor using a default fetch size. Rows are
+     * fetched from the database while the stream is consumed, so only the current fetch is held in memory.
+     * The underlying connection is released when the stream is closed, so it must be used within try-with-resources
+     *
+     * @return lazy stream of all products
+     * @throws DaoOperationException in case of database errors
+     */
+    Stream<Product> streamAll();
+
+    /**
+     * Returns a lazy stream of all products that is backed by a database cursor. Rows are fetched from the database
+     * by {@code fetchSize} while the stream is consumed. The underlying connection is released when the stream
+     * is closed, so it must be used within try-with-resources
+     *
+     * @param fetchSize number of rows fetched from the database per round trip
+     * @return lazy stream of all products
+     * @throws DaoOperationException in case of database errors
+     */
+    Stream<Product> streamAll(int fetchSize);
+
+    /**
+     * Passes every stored product to the provided consumer, reading products with a database cursor. The connection
+     * is released when all products are processed or the consumer throws an exception
+     *
+     * @param productConsumer logic that is applied to each product
+     * @throws DaoOperationException in case of database errors
+     */
+    void forEachProduct(Consumer<Product> productConsumer);
+
     /**
      * Returns a product object by provided id
      *
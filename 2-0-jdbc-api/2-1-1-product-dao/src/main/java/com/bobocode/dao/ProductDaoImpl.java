@@ -2,6 +2,11 @@ package com.bobocode.dao;
 
 import com.bobocode.exception.DaoOperationException;
 import com.bobocode.model.Product;
+import com.bobocode.util.copy.BulkLoader;
+import com.bobocode.util.copy.BulkLoaderException;
+import com.bobocode.util.copy.CopyTable;
+import com.bobocode.util.mapper.BeanRowMapper;
+import com.bobocode.util.mapper.RowMapper;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
@@ -11,10 +16,42 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * {@link ProductDaoImpl} prepares the same fixed set of SQL statements with
+ * {@link Connection#prepareStatement(String)} and {@link Connection#prepareStatement(String, int)}. Created with
+ * a pooled {@link DataSource} (see {@link com.bobocode.util.JdbcUtil#createPooledDataSource}), these calls are served
+ * by the per-connection {@link com.bobocode.util.statement.StatementCache}, so each statement is parsed and planned
+ * once per physical connection. Rows are mapped by a shared {@link BeanRowMapper} that resolves column indices once
+ * per result set.
+ */
 public class ProductDaoImpl implements ProductDao {
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, producer, price, expiration_date, creation_time) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_ALL_SQL = "SELECT * FROM products";
+    private static final String SELECT_BY_ID_SQL = "SELECT * FROM products WHERE id = ?";
+    private static final String UPDATE_SQL =
+            "UPDATE products SET name = ?, producer = ?, price = ?, expiration_date = ?, creation_time = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM products WHERE id = ?";
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+    static final int DEFAULT_FETCH_SIZE = 500;
+
+    private static final BeanRowMapper<Product> PRODUCT_MAPPER = BeanRowMapper.of(Product.class);
+    private static final CopyTable<Product> PRODUCT_TABLE = CopyTable.<Product>builder("products")
+            .column("name", Product::getName)
+            .column("producer", Product::getProducer)
+            .column("price", Product::getPrice)
+            .column("expiration_date", Product::getExpirationDate)
+            .build();
 
     private final DataSource dataSource;
 
@@ -24,10 +61,8 @@ public class ProductDaoImpl implements ProductDao {
 
     @Override
     public void save(Product product) {
-        String sql = "INSERT INTO products (name, producer, price, expiration_date, creation_time) VALUES (?, ?, ?, ?, ?)";
-
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             statement.setString(1, product.getName());
             statement.setString(2, product.getProducer());
             statement.setBigDecimal(3, product.getPrice());
@@ -47,38 +82,159 @@ public class ProductDaoImpl implements ProductDao {
         }
     }
 
+    @Override
+    public void saveAll(Collection<Product> products) {
+        saveAll(products, DEFAULT_BATCH_SIZE);
+    }
 
     @Override
-    public List<Product> findAll() {
-        String sql = "SELECT * FROM products";
-        List<Product> products = new ArrayList<>();
+    public void saveAll(Collection<Product> products, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                insertInBatches(products, batchSize, statement);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                products.forEach(product -> product.setId(null));
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new DaoOperationException(String.format("Error saving %d products", products.size()), e);
+        }
+    }
+
+    private void insertInBatches(Collection<Product> products, int batchSize, PreparedStatement statement)
+            throws SQLException {
+        Timestamp creationTime = Timestamp.valueOf(LocalDateTime.now());
+        Iterator<Product> productsWithoutId = products.iterator();
+        int batchedCount = 0;
+        for (Product product : products) {
+            statement.setString(1, product.getName());
+            statement.setString(2, product.getProducer());
+            statement.setBigDecimal(3, product.getPrice());
+            statement.setTimestamp(4, Timestamp.valueOf(product.getExpirationDate().atStartOfDay()));
+            statement.setTimestamp(5, creationTime);
+            statement.addBatch();
+            if (++batchedCount == batchSize) {
+                executeBatchAndAssignIds(statement, productsWithoutId, batchedCount);
+                batchedCount = 0;
+            }
+        }
+        if (batchedCount > 0) {
+            executeBatchAndAssignIds(statement, productsWithoutId, batchedCount);
+        }
+    }
+
+    private void executeBatchAndAssignIds(PreparedStatement statement, Iterator<Product> productsWithoutId,
+                                          int batchedCount) throws SQLException {
+        statement.executeBatch();
+        try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+            for (int i = 0; i < batchedCount; i++) {
+                if (generatedKeys.next()) {
+                    productsWithoutId.next().setId(generatedKeys.getLong(1));
+                } else {
+                    throw new DaoOperationException("Failed to obtain product IDs for the batch.");
+                }
+            }
+        }
+    }
 
+    @Override
+    public long loadAll(Stream<Product> products) {
+        try {
+            return BulkLoader.load(dataSource, PRODUCT_TABLE, products);
+        } catch (BulkLoaderException e) {
+            throw new DaoOperationException("Error loading products", e);
+        }
+    }
+
+
+    @Override
+    public List<Product> findAll() {
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
+             PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL);
              ResultSet resultSet = statement.executeQuery()) {
+            return PRODUCT_MAPPER.mapAll(resultSet);
+        } catch (SQLException e) {
+            throw new DaoOperationException("Error finding all products", e);
+        }
+    }
 
-            while (resultSet.next()) {
-                products.add(mapRowToProduct(resultSet));
+    @Override
+    public Stream<Product> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
+    @Override
+    public Stream<Product> streamAll(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be positive, but was " + fetchSize);
+        }
+        try {
+            Connection connection = dataSource.getConnection();
+            try {
+                return openProductCursor(connection, fetchSize);
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
             }
         } catch (SQLException e) {
-            throw new DaoOperationException("Error finding all products", e);
+            throw new DaoOperationException("Error streaming all products", e);
+        }
+    }
+
+    private Stream<Product> openProductCursor(Connection connection, int fetchSize) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        // PostgreSQL driver uses a server-side cursor and honors the fetch size only outside of auto-commit mode
+        connection.setAutoCommit(false);
+        PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        ResultSet resultSet = statement.executeQuery();
+        return StreamSupport.stream(new ProductCursorSpliterator(resultSet), false)
+                .onClose(() -> closeProductCursor(connection, statement, resultSet, autoCommit));
+    }
+
+    private void closeProductCursor(Connection connection, PreparedStatement statement, ResultSet resultSet,
+                                    boolean autoCommit) {
+        try (connection; statement; resultSet) {
+            connection.commit();
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            throw new DaoOperationException("Error closing products cursor", e);
+        }
+    }
+
+    @Override
+    public void forEachProduct(Consumer<Product> productConsumer) {
+        try (Stream<Product> products = streamAll()) {
+            products.forEach(productConsumer);
         }
-        return products;
     }
 
     @Override
     public Product findOne(Long id) {
-        String sql = "SELECT * FROM products WHERE id = ?";
         Product product = null;
 
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID_SQL)) {
 
             statement.setLong(1, id);
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    product = mapRowToProduct(resultSet);
+                    product = PRODUCT_MAPPER.mapRow(resultSet);
                 } else {
                     throw new DaoOperationException("");
 
@@ -95,10 +251,9 @@ public class ProductDaoImpl implements ProductDao {
         if (product.getId() == null) {
             throw new DaoOperationException("");
         }
-        String sql = "UPDATE products SET name = ?, producer = ?, price = ?, expiration_date = ?, creation_time = ? WHERE id = ?";
 
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
 
             statement.setString(1, product.getName());
             statement.setString(2, product.getProducer());
@@ -119,10 +274,8 @@ public class ProductDaoImpl implements ProductDao {
             throw new DaoOperationException("");
         }
 
-        String sql = "DELETE FROM products WHERE id = ?";
-
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
 
             statement.setLong(1, product.getId());
             statement.executeUpdate();
@@ -131,14 +284,27 @@ public class ProductDaoImpl implements ProductDao {
         }
     }
 
-    private Product mapRowToProduct(ResultSet resultSet) throws SQLException {
-        return Product.builder()
-                .id(resultSet.getLong("id"))
-                .name(resultSet.getString("name"))
-                .producer(resultSet.getString("producer"))
-                .price(resultSet.getBigDecimal("price"))
-                .expirationDate(resultSet.getTimestamp("expiration_date").toLocalDateTime().toLocalDate())
-                .creationTime(resultSet.getTimestamp("creation_time").toLocalDateTime())
-                .build();
+    private class ProductCursorSpliterator extends Spliterators.AbstractSpliterator<Product> {
+        private final ResultSet resultSet;
+        private final RowMapper<Product> rowMapper;
+
+        ProductCursorSpliterator(ResultSet resultSet) throws SQLException {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.resultSet = resultSet;
+            this.rowMapper = PRODUCT_MAPPER.compile(resultSet.getMetaData());
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Product> action) {
+            try {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                action.accept(rowMapper.mapRow(resultSet));
+                return true;
+            } catch (SQLException e) {
+                throw new DaoOperationException("Error reading products from cursor", e);
+            }
+        }
     }
 }
@@ -5,6 +5,10 @@ import com.bobocode.dao.ProductDaoImpl;
 import com.bobocode.exception.DaoOperationException;
 import com.bobocode.model.Product;
 import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.pool.PoolConfig;
+import com.bobocode.util.pool.PooledDataSource;
+import com.bobocode.util.snapshot.ClonedDatabase;
+import com.bobocode.util.snapshot.SchemaSnapshot;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
@@ -20,8 +24,11 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
@@ -31,6 +38,8 @@ import static org.mockito.Mockito.doThrow;
 @TestMethodOrder(OrderAnnotation.class)
 class ProductDaoTest extends AbstractDaoTest {
 
+    private static SchemaSnapshot snapshot;
+    private static ClonedDatabase database;
     private static ProductDao productDao;
     private static DataSource spyDataSource;
     private static DataSource originalDataSource;
@@ -38,21 +47,30 @@ class ProductDaoTest extends AbstractDaoTest {
     @BeforeAll
     @SneakyThrows
     static void init() {
-        originalDataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
+        DataSource sourceDataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
+        createTable(sourceDataSource);
+        snapshot = SchemaSnapshot.take(sourceDataSource);
+    }
+
+    @BeforeEach
+    @SneakyThrows
+    void createDatabase() {
+        database = snapshot.createClone();
+        originalDataSource = database.getDataSource();
         spyDataSource = Mockito.spy(originalDataSource);
         productDao = new ProductDaoImpl(spyDataSource);
-        createTable(originalDataSource);
     }
 
     @SneakyThrows
     @AfterEach
-    void reset() {
-        try (var connection = originalDataSource.getConnection()) {
-            try (var statement = connection.createStatement()) {
-                statement.executeUpdate("TRUNCATE TABLE products;");
-            }
-        }
-        Mockito.reset(spyDataSource);
+    void dropDatabase() {
+        database.close();
+    }
+
+    @SneakyThrows
+    @AfterAll
+    static void destroy() {
+        snapshot.close();
     }
 
     @Test
@@ -230,6 +248,147 @@ class ProductDaoTest extends AbstractDaoTest {
                 .isThrownBy(() -> productDao.remove(new Product()));
     }
 
+    @Test
+    @Order(15)
+    @DisplayName("saveAll stores all products to the DB")
+    void saveAll() {
+        List<Product> products = generateTestProductList(25);
+
+        productDao.saveAll(products, 10);
+        var foundProducts = findAllFromDataBase();
+
+        assertThat(foundProducts)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("creationTime", "price")
+                .containsExactlyInAnyOrderElementsOf(products);
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("saveAll generates ids for every product")
+    void saveAllGeneratesIds() {
+        List<Product> products = generateTestProductList(7);
+
+        productDao.saveAll(products, 3);
+
+        assertThat(products).extracting(Product::getId).doesNotContainNull().doesNotHaveDuplicates();
+        products.forEach(product -> assertThat(findOneFromDatabase(product.getId()).getName())
+                .isEqualTo(product.getName()));
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("saveAll uses a single connection")
+    @SneakyThrows
+    void saveAllUsesSingleConnection() {
+        productDao.saveAll(generateTestProductList(12), 5);
+
+        Mockito.verify(spyDataSource, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("saveAll rolls back the whole batch when a product is invalid")
+    void saveAllRollsBackOnError() {
+        List<Product> products = generateTestProductList(5);
+        products.get(3).setName(null);
+
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> productDao.saveAll(products, 2));
+        assertThat(findAllFromDataBase()).isEmpty();
+        assertThat(products).extracting(Product::getId).containsOnlyNulls();
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("saveAll wraps DB errors with a custom exception")
+    @SneakyThrows
+    void saveAllWrapsSqlException() {
+        mockDataSourceToThrowError();
+
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> productDao.saveAll(generateTestProductList(3)));
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("streamAll streams all products from the DB")
+    void streamAll() {
+        List<Product> products = generateTestProductList(30);
+        products.forEach(this::saveToDB);
+
+        List<Product> streamedProducts;
+        try (Stream<Product> productStream = productDao.streamAll(7)) {
+            streamedProducts = productStream.collect(Collectors.toList());
+        }
+
+        assertThat(streamedProducts).containsExactlyInAnyOrderElementsOf(products);
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("streamAll releases the connection only when the stream is closed")
+    @SneakyThrows
+    void streamAllClosesConnectionOnStreamClose() {
+        givenStoredProductsFromDB();
+        var connectionSpy = new Connection[1];
+        Mockito.doAnswer(invocation -> connectionSpy[0] = Mockito.spy((Connection) invocation.callRealMethod()))
+                .when(spyDataSource).getConnection();
+
+        Stream<Product> productStream = productDao.streamAll(1);
+        assertThat(productStream.findFirst()).isPresent();
+        Mockito.verify(connectionSpy[0], Mockito.never()).close();
+
+        productStream.close();
+        Mockito.verify(connectionSpy[0]).close();
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("forEachProduct passes every product to the consumer")
+    void forEachProduct() {
+        List<Product> products = givenStoredProductsFromDB();
+
+        List<Product> consumedProducts = new ArrayList<>();
+        productDao.forEachProduct(consumedProducts::add);
+
+        assertThat(consumedProducts).isEqualTo(products);
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("streamAll wraps DB errors with a custom exception")
+    @SneakyThrows
+    void streamAllWrapsSqlException() {
+        mockDataSourceToThrowError();
+
+        assertThatExceptionOfType(DaoOperationException.class).isThrownBy(() -> productDao.streamAll());
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("Statements are served from the pool statement cache")
+    void statementsAreCachedWithPooledDataSource() {
+        try (PooledDataSource pooledDataSource = JdbcUtil.createPooledDataSource(originalDataSource,
+                PoolConfig.builder().maximumPoolSize(1).build())) {
+            ProductDao pooledProductDao = new ProductDaoImpl(pooledDataSource);
+            Product product = generateTestProduct();
+            pooledProductDao.save(product);
+
+            for (int i = 0; i < 3; i++) {
+                pooledProductDao.findOne(product.getId());
+            }
+
+            assertThat(pooledDataSource.getStatementCacheStats().getHits()).isEqualTo(2);
+            assertThat(pooledDataSource.getStatementCacheStats().getMisses()).isEqualTo(2);
+        }
+    }
+
+    private List<Product> generateTestProductList(int size) {
+        return Stream.generate(this::generateTestProduct)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
     private Product givenStoredProductFromDB() {
         Product product = generateTestProduct();
         saveToDB(product);
@@ -248,6 +407,29 @@ class ProductDaoTest extends AbstractDaoTest {
                 .build();
     }
 
+    @Test
+    @Order(25)
+    @DisplayName("loadAll stores all products from a lazy stream")
+    void loadAll() {
+        long loadedCount = productDao.loadAll(Stream.generate(this::generateTestProduct).limit(2500));
+
+        assertThat(loadedCount).isEqualTo(2500);
+        assertThat(findAllFromDataBase()).hasSize(2500)
+                .allSatisfy(product -> assertThat(product.getCreationTime()).isNotNull());
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("loadAll rolls back all products when a product is invalid")
+    void loadAllRollsBackOnError() {
+        List<Product> products = generateTestProductList(5);
+        products.get(3).setName(null);
+
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> productDao.loadAll(products.stream()));
+        assertThat(findAllFromDataBase()).isEmpty();
+    }
+
     private void mockDataSourceToThrowError() throws SQLException {
         doThrow(new SQLException("Mock testing Exception")).when(spyDataSource).getConnection();
     }
@@ -1,23 +1,52 @@
 package com.bobocode;
 
+import com.bobocode.cache.QueryCacheConfig;
+import com.bobocode.cache.QueryKey;
+import com.bobocode.cache.QueryResultCache;
 import com.bobocode.exception.QueryHelperException;
+import com.bobocode.session.SessionTracker;
+import com.bobocode.session.SessionTrackerConfig;
 import com.bobocode.util.ExerciseNotCompletedException;
-import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.TransactionException;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.function.Function;
 
 /**
  * {@link QueryHelper} provides an util method that allows to perform read operations in the scope of transaction
  */
+@Slf4j
 public class QueryHelper {
+    /**
+     * SQLState of a statement that was canceled, e.g. because its timeout expired
+     */
+    private static final String QUERY_CANCELED_SQL_STATE = "57014";
+
     private EntityManagerFactory entityManagerFactory;
+    private QueryResultCache resultCache;
+    private SessionTracker sessionTracker;
 
     public QueryHelper(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, QueryCacheConfig.defaultConfig());
+    }
+
+    public QueryHelper(EntityManagerFactory entityManagerFactory, QueryCacheConfig cacheConfig) {
+        this(entityManagerFactory, cacheConfig, SessionTrackerConfig.defaultConfig());
+    }
+
+    public QueryHelper(EntityManagerFactory entityManagerFactory, QueryCacheConfig cacheConfig,
+                       SessionTrackerConfig sessionTrackerConfig) {
         this.entityManagerFactory = entityManagerFactory;
+        this.resultCache = new QueryResultCache(cacheConfig);
+        this.sessionTracker = new SessionTracker(sessionTrackerConfig);
     }
 
     /**
@@ -33,21 +62,118 @@ public class QueryHelper {
      * @return query result specified by type T
      */
     public <T> T readWithinTx(Function<EntityManager, T> entityManagerConsumer) {
-        EntityTransaction transaction = null;
+        return readWithinTx(ReadOptions.defaultOptions(), entityManagerConsumer);
+    }
+
+    /**
+     * Same as {@link QueryHelper#readWithinTx(Function)}, but with the given {@link ReadOptions}. They are applied to
+     * the session and to every query created by the received entity manager. The unit of work is aborted when it
+     * runs longer than {@link ReadOptions#getTimeout()}, and a {@link QueryHelperException} that tells about the
+     * timeout is thrown. JDBC statement timeouts have a precision of whole seconds, so the timeout is rounded up.
+     * <p>
+     * The entity manager is always closed before the method returns, so its JDBC connection goes back to the pool.
+     * Entities of the result are detached.
+     *
+     * @param options               session and query settings
+     * @param entityManagerConsumer query logic encapsulated as function that receives entity manager and returns result
+     * @param <T>                   generic type that allows to specify single entity class of some collection
+     * @return query result specified by type T
+     */
+    public <T> T readWithinTx(ReadOptions options, Function<EntityManager, T> entityManagerConsumer) {
+        options.validate();
+        Session session = sessionTracker.open(entityManagerFactory.createEntityManager().unwrap(Session.class));
+        Transaction transaction = null;
+        long startNanos = System.nanoTime();
         try {
-            EntityManager unwrap = entityManagerFactory.createEntityManager();
-            Session session = unwrap.unwrap(Session.class);
-            session.setDefaultReadOnly(true);
-            transaction = unwrap.getTransaction();
+            session.setDefaultReadOnly(options.isReadOnly());
+            transaction = session.getTransaction();
+            // every statement gets the time left of the transaction, so a unit of work of many queries is limited too.
+            // Hibernate truncates the time left to whole seconds and fails once it is 0, hence the extra second
+            transaction.setTimeout(options.getTimeoutSeconds() + 1);
             transaction.begin();
-            T apply = entityManagerConsumer.apply(session);
+            T apply = entityManagerConsumer.apply(ReadOptionsSession.wrap(session, options));
             transaction.commit();
             return apply;
         } catch (Exception exception) {
-            if (transaction != null) {
+            if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
+            if (isTimeout(exception, Duration.ofNanos(System.nanoTime() - startNanos), options.getTimeout())) {
+                log.warn("Query timed out after {}", options.getTimeout());
+                throw new QueryHelperException(String.format(
+                        "Error performing query. Query timed out after %s. Transaction is rolled back",
+                        options.getTimeout()), exception);
+            }
             throw new QueryHelperException("Error performing query. Transaction is rolled back", exception);
+        } finally {
+            sessionTracker.close(session);
+        }
+    }
+
+    /**
+     * Cached version of {@link QueryHelper#readWithinTx(Function)}. The result is looked up by the key, and the
+     * function is performed only when there is no cached result yet. Concurrent calls with the same key perform
+     * the function once and share its result. Cached results must not be modified by callers, since they are shared
+     * <p>
+     * Results are kept until they expire, are evicted, or one of the key entity types is written through an
+     * {@link com.bobocode.util.EntityManagerUtil} that the cache is registered with, see
+     * {@link QueryHelper#getResultCache()}.
+     *
+     * @param key                   query name and parameters, and the entity types the query reads
+     * @param entityManagerConsumer query logic encapsulated as function that receives entity manager and returns result
+     * @param <T>                   generic type that allows to specify single entity class of some collection
+     * @return query result specified by type T
+     */
+    public <T> T readWithinTxCached(QueryKey key, Function<EntityManager, T> entityManagerConsumer) {
+        return readWithinTxCached(key, ReadOptions.defaultOptions(), entityManagerConsumer);
+    }
+
+    /**
+     * Same as {@link QueryHelper#readWithinTxCached(QueryKey, Function)}, but misses are read with the given
+     * {@link ReadOptions}, see {@link QueryHelper#readWithinTx(ReadOptions, Function)}.
+     *
+     * @param key                   query name and parameters, and the entity types the query reads
+     * @param options               session and query settings
+     * @param entityManagerConsumer query logic encapsulated as function that receives entity manager and returns result
+     * @param <T>                   generic type that allows to specify single entity class of some collection
+     * @return query result specified by type T
+     */
+    public <T> T readWithinTxCached(QueryKey key, ReadOptions options,
+                                    Function<EntityManager, T> entityManagerConsumer) {
+        return resultCache.get(key, () -> readWithinTx(options, entityManagerConsumer));
+    }
+
+    /**
+     * @return cache of {@link QueryHelper#readWithinTxCached(QueryKey, Function)} results, that provides the stats
+     * and can be registered as an {@link com.bobocode.util.EntityChangeListener}
+     */
+    public QueryResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @return tracker of the sessions opened by {@link QueryHelper#readWithinTx(Function)}, that provides the counts
+     * of open sessions and connections and reports sessions that stay open for too long
+     */
+    public SessionTracker getSessionTracker() {
+        return sessionTracker;
+    }
+
+    /**
+     * A statement that times out is reported by its exception type or SQLState. A statement that is not started because
+     * the transaction timeout has expired fails with a plain {@link TransactionException}, so it is told apart from
+     * other transaction failures by the time the unit of work has taken.
+     */
+    private static boolean isTimeout(Throwable exception, Duration elapsed, Duration timeout) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof jakarta.persistence.QueryTimeoutException
+                    || cause instanceof org.hibernate.QueryTimeoutException
+                    || cause instanceof SQLTimeoutException
+                    || cause instanceof SQLException sqlException && QUERY_CANCELED_SQL_STATE.equals(sqlException.getSQLState())
+                    || cause instanceof TransactionException && elapsed.compareTo(timeout) >= 0) {
+                return true;
+            }
         }
+        return false;
     }
-}
\ No newline at end of file
+}
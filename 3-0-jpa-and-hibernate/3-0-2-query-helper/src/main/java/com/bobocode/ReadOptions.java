@@ -0,0 +1,62 @@
+package com.bobocode;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * {@link ReadOptions} holds the settings that {@link QueryHelper} applies to the session of a read unit of work and
+ * to every query created within it. Use {@link ReadOptions#builder()} to override the defaults.
+ */
+@Getter
+@Builder
+@ToString
+public class ReadOptions {
+    /**
+     * Maximum time of the whole unit of work. Every query gets it as {@code jakarta.persistence.query.timeout}, and
+     * every JDBC statement, including the ones of {@code find}, gets the time that is left of it.
+     */
+    @Builder.Default
+    private final Duration timeout = Duration.ofSeconds(30);
+
+    /**
+     * Number of rows the JDBC driver fetches per round trip, {@code 0} leaves the driver default.
+     */
+    @Builder.Default
+    private final int fetchSize = 0;
+
+    /**
+     * Whether loaded entities are read-only, so no snapshots are kept for dirty checking and nothing is flushed.
+     */
+    @Builder.Default
+    private final boolean readOnly = true;
+
+    /**
+     * Whether query results are put to and looked up in the Hibernate query cache. It works only when
+     * {@code hibernate.cache.use_query_cache} is enabled.
+     */
+    @Builder.Default
+    private final boolean cacheable = false;
+
+    public static ReadOptions defaultOptions() {
+        return ReadOptions.builder().build();
+    }
+
+    /**
+     * @return timeout rounded up to whole seconds, the precision of JDBC statement timeouts
+     */
+    int getTimeoutSeconds() {
+        return (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+    }
+
+    void validate() {
+        if (timeout.isZero() || timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must be positive, but was " + timeout);
+        }
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Fetch size must not be negative, but was " + fetchSize);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bobocode;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.CommonQueryContract;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link ReadOptionsSession} wraps a {@link Session} and applies {@link ReadOptions} as hints to every query the
+ * session creates, no matter which {@code create*Query} method is used.
+ */
+class ReadOptionsSession implements InvocationHandler {
+    private final Session session;
+    private final ReadOptions options;
+
+    private ReadOptionsSession(Session session, ReadOptions options) {
+        this.session = session;
+        this.options = options;
+    }
+
+    static Session wrap(Session session, ReadOptions options) {
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[]{Session.class},
+                new ReadOptionsSession(session, options));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("unwrap") && args[0] instanceof Class<?> type && type.isInstance(proxy)) {
+            return proxy;
+        }
+        Object result;
+        try {
+            result = method.invoke(session, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        if (result instanceof CommonQueryContract query) {
+            applyHints(query::setHint);
+        } else if (result instanceof jakarta.persistence.Query query) {
+            applyHints(query::setHint);
+        }
+        return result;
+    }
+
+    private void applyHints(BiConsumer<String, Object> hints) {
+        hints.accept(SpecHints.HINT_SPEC_QUERY_TIMEOUT, options.getTimeoutSeconds() * 1000);
+        if (options.getFetchSize() > 0) {
+            hints.accept(HibernateHints.HINT_FETCH_SIZE, options.getFetchSize());
+        }
+        hints.accept(HibernateHints.HINT_READ_ONLY, options.isReadOnly());
+        hints.accept(HibernateHints.HINT_CACHEABLE, options.isCacheable());
+    }
+}
@@ -0,0 +1,41 @@
+package com.bobocode.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * {@link QueryCacheConfig} holds the settings of a {@link QueryResultCache}. Use {@link QueryCacheConfig#builder()}
+ * to override the defaults.
+ */
+@Getter
+@Builder
+@ToString
+public class QueryCacheConfig {
+    /**
+     * Maximum number of cached results. When it is reached, results that are unlikely to be read again are evicted.
+     */
+    @Builder.Default
+    private final long maximumSize = 10_000;
+
+    /**
+     * Time after which a cached result is dropped, even if none of its entity types was written.
+     */
+    @Builder.Default
+    private final Duration timeToLive = Duration.ofMinutes(5);
+
+    public static QueryCacheConfig defaultConfig() {
+        return QueryCacheConfig.builder().build();
+    }
+
+    void validate() {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative, but was " + maximumSize);
+        }
+        if (timeToLive.isZero() || timeToLive.isNegative()) {
+            throw new IllegalArgumentException("Time to live must be positive, but was " + timeToLive);
+        }
+    }
+}
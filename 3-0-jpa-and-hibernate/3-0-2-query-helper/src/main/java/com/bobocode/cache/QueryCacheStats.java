@@ -0,0 +1,42 @@
+package com.bobocode.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * {@link QueryCacheStats} is a snapshot of the counters of a {@link QueryResultCache}.
+ */
+@Value
+public class QueryCacheStats {
+    long hitCount;
+    long missCount;
+    long loadSuccessCount;
+    long loadFailureCount;
+    Duration totalLoadTime;
+    long evictionCount;
+    long invalidationCount;
+
+    static QueryCacheStats of(CacheStats stats, long invalidationCount) {
+        return new QueryCacheStats(stats.hitCount(), stats.missCount(), stats.loadSuccessCount(),
+                stats.loadFailureCount(), Duration.ofNanos(stats.totalLoadTime()), stats.evictionCount(),
+                invalidationCount);
+    }
+
+    /**
+     * @return share of reads served from the cache, including reads that waited for a load of another caller
+     */
+    public double getHitRatio() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return average time of the queries that were run to fill the cache
+     */
+    public Duration getAverageLoadTime() {
+        long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? Duration.ZERO : totalLoadTime.dividedBy(loadCount);
+    }
+}
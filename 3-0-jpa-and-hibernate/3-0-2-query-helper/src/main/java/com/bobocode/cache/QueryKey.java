@@ -0,0 +1,48 @@
+package com.bobocode.cache;
+
+import lombok.Value;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link QueryKey} identifies a cached query result. Two keys are equal when they have the same query name,
+ * parameters and entity types. The entity types are the types the query reads, a write of any of them invalidates
+ * the result. Parameters are compared with {@code equals}, array parameters are compared by their elements.
+ */
+@Value
+public class QueryKey {
+    String name;
+    List<Object> parameters;
+    Set<Class<?>> entityTypes;
+
+    public static QueryKey of(String name, Class<?> entityType, Object... parameters) {
+        return of(name, Set.of(entityType), parameters);
+    }
+
+    public static QueryKey of(String name, Set<Class<?>> entityTypes, Object... parameters) {
+        List<Object> parameterValues = new ArrayList<>(parameters.length);
+        for (Object parameter : parameters) {
+            parameterValues.add(valueOf(parameter));
+        }
+        return new QueryKey(name, Collections.unmodifiableList(parameterValues), Set.copyOf(entityTypes));
+    }
+
+    /**
+     * Arrays are equal only to themselves, so array parameters are copied into lists that are compared by content
+     */
+    private static Object valueOf(Object parameter) {
+        if (parameter == null || !parameter.getClass().isArray()) {
+            return parameter;
+        }
+        int length = Array.getLength(parameter);
+        List<Object> elements = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            elements.add(valueOf(Array.get(parameter, i)));
+        }
+        return Collections.unmodifiableList(elements);
+    }
+}
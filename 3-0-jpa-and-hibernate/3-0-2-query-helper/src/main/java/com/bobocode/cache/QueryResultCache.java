@@ -0,0 +1,163 @@
+package com.bobocode.cache;
+
+import com.bobocode.util.EntityChangeListener;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link QueryResultCache} keeps query results in a Caffeine cache that is bounded by size (W-TinyLFU eviction) and
+ * by time to live.
+ * <p>
+ * Loads are single-flight: the first caller that misses a key runs the query on its own thread, and concurrent
+ * callers of the same key wait for that result instead of running the query again. {@code null} results and
+ * failures are not cached.
+ * <p>
+ * Register the cache with {@link com.bobocode.util.EntityManagerUtil#addEntityChangeListener(EntityChangeListener)}
+ * to drop the results that depend on written entity types. Loads that are in progress are dropped too, so a result
+ * read before the write is never cached after it. Keys are indexed by their entity types, so an invalidation looks up
+ * only the keys of the written types and their supertypes instead of scanning the whole cache.
+ */
+public class QueryResultCache implements EntityChangeListener {
+    private static final ClassValue<Set<Class<?>>> SUPERTYPES = new ClassValue<>() {
+        @Override
+        protected Set<Class<?>> computeValue(Class<?> type) {
+            Set<Class<?>> supertypes = new HashSet<>();
+            collectSupertypes(type, supertypes);
+            return Set.copyOf(supertypes);
+        }
+    };
+
+    private final AsyncCache<QueryKey, Object> cache;
+    private final ConcurrentMap<Class<?>, Set<QueryKey>> keysByEntityType = new ConcurrentHashMap<>();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    public QueryResultCache() {
+        this(QueryCacheConfig.defaultConfig());
+    }
+
+    public QueryResultCache(QueryCacheConfig config) {
+        config.validate();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTimeToLive())
+                .recordStats()
+                .removalListener((QueryKey key, Object value, RemovalCause cause) -> unindex(key))
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached result of the key, or loads it with the given loader.
+     *
+     * @param key    query key
+     * @param loader runs the query, it is called only on a miss
+     * @param <T>    result type
+     * @return query result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(QueryKey key, Supplier<T> loader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> result = cache.get(key, (k, executor) -> load);
+        if (result == load) {
+            // indexed after the load is in the cache and before it reads, so a write that misses the key in the
+            // index committed before the read started
+            index(key);
+            try {
+                load.complete(loader.get());
+            } catch (Throwable e) {
+                // errors must complete the load too, otherwise the callers waiting for it would block forever
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return (T) result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void onEntitiesChanged(Set<Class<?>> entityTypes) {
+        invalidate(entityTypes);
+    }
+
+    /**
+     * Drops the results of the queries that read any of the given entity types or one of their supertypes.
+     *
+     * @param entityTypes changed entity types
+     */
+    public void invalidate(Set<Class<?>> entityTypes) {
+        for (Class<?> changedType : entityTypes) {
+            for (Class<?> entityType : SUPERTYPES.get(changedType)) {
+                Set<QueryKey> keys = keysByEntityType.get(entityType);
+                if (keys == null) {
+                    continue;
+                }
+                for (QueryKey key : keys) {
+                    keys.remove(key);
+                    if (cache.asMap().remove(key) != null) {
+                        invalidationCount.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        invalidationCount.add(cache.asMap().size());
+        cache.synchronous().invalidateAll();
+        keysByEntityType.clear();
+    }
+
+    public QueryCacheStats getStats() {
+        return QueryCacheStats.of(cache.synchronous().stats(), invalidationCount.sum());
+    }
+
+    private void index(QueryKey key) {
+        for (Class<?> entityType : key.getEntityTypes()) {
+            keysByEntityType.computeIfAbsent(entityType, type -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    /**
+     * Called after a result is evicted, expired or invalidated. The key may have been loaded again in the meantime,
+     * then it is indexed again.
+     */
+    private void unindex(QueryKey key) {
+        for (Class<?> entityType : key.getEntityTypes()) {
+            Set<QueryKey> keys = keysByEntityType.get(entityType);
+            if (keys != null) {
+                keys.remove(key);
+            }
+        }
+        if (cache.asMap().containsKey(key)) {
+            index(key);
+        }
+    }
+
+    private static void collectSupertypes(Class<?> type, Set<Class<?>> supertypes) {
+        if (type == null || !supertypes.add(type)) {
+            return;
+        }
+        collectSupertypes(type.getSuperclass(), supertypes);
+        for (Class<?> anInterface : type.getInterfaces()) {
+            collectSupertypes(anInterface, supertypes);
+        }
+    }
+}
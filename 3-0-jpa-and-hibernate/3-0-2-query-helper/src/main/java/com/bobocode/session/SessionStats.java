@@ -0,0 +1,27 @@
+package com.bobocode.session;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * {@link SessionStats} is a snapshot of the counters of a {@link SessionTracker}.
+ */
+@Value
+public class SessionStats {
+    long openedCount;
+    long closedCount;
+    long leakCount;
+    /**
+     * Sessions that are open at the moment of the snapshot
+     */
+    int openSessionCount;
+    /**
+     * Open sessions that hold a JDBC connection at the moment of the snapshot
+     */
+    int openConnectionCount;
+    /**
+     * How long the oldest open session has been open, {@link Duration#ZERO} when there are none
+     */
+    Duration longestOpenTime;
+}
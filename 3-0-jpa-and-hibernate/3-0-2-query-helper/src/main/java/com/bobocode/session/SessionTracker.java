@@ -0,0 +1,175 @@
+package com.bobocode.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link SessionTracker} keeps track of the sessions that are open, and of how long they have been open.
+ * <p>
+ * A session that is open for longer than {@link SessionTrackerConfig#getLeakThreshold()} is reported once as a
+ * possible leak: a warning is logged together with the stack trace of the code that opened it. Open sessions are
+ * checked when a new session is opened, at most once per {@link SessionTrackerConfig#getLeakCheckInterval()}, and on
+ * {@link SessionTracker#detectLeaks()}, so a leaked session is reported even though it is never closed. No background
+ * thread is used.
+ */
+@Slf4j
+public class SessionTracker {
+    private final Duration leakThreshold;
+    private final boolean recordOpenStackTrace;
+    private final long leakCheckIntervalNanos;
+    private final AtomicLong nextLeakCheckNanos = new AtomicLong(System.nanoTime());
+    private final Map<Session, TrackedSession> openSessions = new ConcurrentHashMap<>();
+    private final LongAdder openedCount = new LongAdder();
+    private final LongAdder closedCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+
+    public SessionTracker() {
+        this(SessionTrackerConfig.defaultConfig());
+    }
+
+    public SessionTracker(SessionTrackerConfig config) {
+        config.validate();
+        this.leakThreshold = config.getLeakThreshold();
+        this.recordOpenStackTrace = config.isRecordOpenStackTrace();
+        this.leakCheckIntervalNanos = config.getLeakCheckInterval().toNanos();
+    }
+
+    /**
+     * Starts tracking the session. It must be passed to {@link SessionTracker#close(Session)} when it is not needed
+     * anymore.
+     *
+     * @param session newly opened session
+     * @return the same session
+     */
+    public Session open(Session session) {
+        long now = System.nanoTime();
+        long nextLeakCheck = nextLeakCheckNanos.get();
+        // only the thread that moves the next check time runs the check, the others do not wait for it
+        if (now - nextLeakCheck >= 0 && nextLeakCheckNanos.compareAndSet(nextLeakCheck, now + leakCheckIntervalNanos)) {
+            detectLeaks();
+        }
+        Throwable openedAt = recordOpenStackTrace ? new Throwable("Session opened here") : null;
+        openSessions.put(session, new TrackedSession(System.nanoTime(), Thread.currentThread().getName(), openedAt));
+        openedCount.increment();
+        return session;
+    }
+
+    /**
+     * Closes the session and stops tracking it. A session that was open for longer than the leak threshold is
+     * reported, if it has not been yet.
+     *
+     * @param session session returned by {@link SessionTracker#open(Session)}
+     */
+    public void close(Session session) {
+        TrackedSession trackedSession = openSessions.remove(session);
+        try {
+            session.close();
+        } finally {
+            if (trackedSession != null) {
+                closedCount.increment();
+                Duration openTime = trackedSession.openTime(System.nanoTime());
+                if (openTime.compareTo(leakThreshold) > 0 && trackedSession.markReported()) {
+                    leakCount.increment();
+                    log.warn("Session was open for {}, longer than the leak threshold {}", openTime, leakThreshold,
+                            trackedSession.openedAt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports the open sessions that have been open for longer than the leak threshold and were not reported yet.
+     *
+     * @return number of newly reported sessions
+     */
+    public int detectLeaks() {
+        long now = System.nanoTime();
+        int newLeakCount = 0;
+        for (TrackedSession trackedSession : openSessions.values()) {
+            Duration openTime = trackedSession.openTime(now);
+            if (openTime.compareTo(leakThreshold) > 0 && trackedSession.markReported()) {
+                newLeakCount++;
+                leakCount.increment();
+                log.warn("Session opened by thread {} is still open after {}, longer than the leak threshold {}",
+                        trackedSession.threadName, openTime, leakThreshold, trackedSession.openedAt);
+            }
+        }
+        return newLeakCount;
+    }
+
+    /**
+     * The open connection count is read from sessions that may be in use by other threads, so it is approximate.
+     *
+     * @return snapshot of the counters
+     */
+    public SessionStats getStats() {
+        long now = System.nanoTime();
+        int openSessionCount = 0;
+        int openConnectionCount = 0;
+        Duration longestOpenTime = Duration.ZERO;
+        for (Map.Entry<Session, TrackedSession> entry : openSessions.entrySet()) {
+            openSessionCount++;
+            if (holdsConnection(entry.getKey())) {
+                openConnectionCount++;
+            }
+            Duration openTime = entry.getValue().openTime(now);
+            if (openTime.compareTo(longestOpenTime) > 0) {
+                longestOpenTime = openTime;
+            }
+        }
+        return new SessionStats(openedCount.sum(), closedCount.sum(), leakCount.sum(), openSessionCount,
+                openConnectionCount, longestOpenTime);
+    }
+
+    /**
+     * The session may be closed by its owner thread at any moment, so a closed session, or a failure of a session that
+     * is being closed, counts as no connection.
+     */
+    private static boolean holdsConnection(Session session) {
+        if (!(session instanceof SharedSessionContractImplementor sessionImplementor)) {
+            return false;
+        }
+        try {
+            return !sessionImplementor.isClosed() && sessionImplementor.getJdbcCoordinator()
+                    .getLogicalConnection()
+                    .isPhysicallyConnected();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static class TrackedSession {
+        private final long openedAtNanos;
+        private final String threadName;
+        private final Throwable openedAt;
+        private volatile boolean reported;
+
+        private TrackedSession(long openedAtNanos, String threadName, Throwable openedAt) {
+            this.openedAtNanos = openedAtNanos;
+            this.threadName = threadName;
+            this.openedAt = openedAt;
+        }
+
+        private Duration openTime(long nowNanos) {
+            return Duration.ofNanos(nowNanos - openedAtNanos);
+        }
+
+        /**
+         * @return {@code true} if the session was not reported before
+         */
+        private synchronized boolean markReported() {
+            if (reported) {
+                return false;
+            }
+            reported = true;
+            return true;
+        }
+    }
+}
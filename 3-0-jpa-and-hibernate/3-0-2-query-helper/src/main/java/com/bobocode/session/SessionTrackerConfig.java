@@ -0,0 +1,50 @@
+package com.bobocode.session;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * {@link SessionTrackerConfig} holds the settings of a {@link SessionTracker}. Use {@link SessionTrackerConfig#builder()}
+ * to override the defaults.
+ */
+@Getter
+@Builder
+@ToString
+public class SessionTrackerConfig {
+    /**
+     * Time after which an open session is reported as a possible leak. It should be longer than the slowest expected
+     * unit of work.
+     */
+    @Builder.Default
+    private final Duration leakThreshold = Duration.ofSeconds(60);
+
+    /**
+     * Whether the stack trace of the code that opened a session is recorded, so a leak report shows where the session
+     * came from. Recording it costs a few microseconds per session.
+     */
+    @Builder.Default
+    private final boolean recordOpenStackTrace = true;
+
+    /**
+     * Minimum time between two leak checks started by {@link SessionTracker#open(org.hibernate.Session)}. A check scans
+     * all open sessions, so it is not done on every open. A leak is reported up to this much later than it could be.
+     */
+    @Builder.Default
+    private final Duration leakCheckInterval = Duration.ofSeconds(1);
+
+    public static SessionTrackerConfig defaultConfig() {
+        return SessionTrackerConfig.builder().build();
+    }
+
+    void validate() {
+        if (leakThreshold.isZero() || leakThreshold.isNegative()) {
+            throw new IllegalArgumentException("Leak threshold must be positive, but was " + leakThreshold);
+        }
+        if (leakCheckInterval.isNegative()) {
+            throw new IllegalArgumentException("Leak check interval must not be negative, but was " + leakCheckInterval);
+        }
+    }
+}
@@ -1,15 +1,33 @@
 package com.bobocode;
 
+import com.bobocode.cache.QueryCacheConfig;
+import com.bobocode.cache.QueryKey;
 import com.bobocode.exception.QueryHelperException;
 import com.bobocode.model.Account;
+import com.bobocode.session.SessionStats;
+import com.bobocode.session.SessionTracker;
+import com.bobocode.session.SessionTrackerConfig;
 import com.bobocode.util.EntityManagerUtil;
 import com.bobocode.util.TestDataGenerator;
 import org.junit.jupiter.api.*;
 
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.TransactionException;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.fail;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -24,6 +42,7 @@ class QueryHelperTest {
         entityManagerFactory = Persistence.createEntityManagerFactory("Account");
         emUtil = new EntityManagerUtil(entityManagerFactory);
         queryHelper = new QueryHelper(entityManagerFactory);
+        emUtil.addEntityChangeListener(queryHelper.getResultCache());
     }
 
     @AfterAll
@@ -76,6 +95,208 @@ class QueryHelperTest {
         }
     }
 
+    @Test
+    @Order(4)
+    @DisplayName("Cached query result is reused")
+    void cachedQueryResultIsReused() {
+        Account account = saveRandomAccount();
+        QueryKey key = QueryKey.of("findAccountById", Account.class, account.getId());
+        AtomicInteger queryCount = new AtomicInteger();
+
+        Account firstResult = queryHelper.readWithinTxCached(key, entityManager -> {
+            queryCount.incrementAndGet();
+            return entityManager.find(Account.class, account.getId());
+        });
+        Account secondResult = queryHelper.readWithinTxCached(key, entityManager -> {
+            queryCount.incrementAndGet();
+            return entityManager.find(Account.class, account.getId());
+        });
+
+        assertThat(queryCount.get()).isEqualTo(1);
+        assertThat(secondResult).isSameAs(firstResult);
+        assertThat(queryHelper.getResultCache().getStats().getHitCount()).isPositive();
+        assertThat(queryHelper.getResultCache().getStats().getAverageLoadTime().toNanos()).isPositive();
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Cached query result is invalidated when its entity type is written")
+    void cachedQueryResultIsInvalidatedOnWrite() {
+        QueryKey key = QueryKey.of("countAccounts", Account.class);
+        long countBefore = countAccountsCached(key);
+
+        saveRandomAccount();
+        long countAfter = countAccountsCached(key);
+
+        assertThat(countAfter).isEqualTo(countBefore + 1);
+        assertThat(queryHelper.getResultCache().getStats().getInvalidationCount()).isPositive();
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Concurrent misses of one key perform the query once")
+    void concurrentMissesPerformQueryOnce() {
+        QueryKey key = QueryKey.of("slowCountAccounts", Account.class);
+        AtomicInteger queryCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Long>> results = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> queryHelper.readWithinTxCached(key, entityManager -> {
+                        queryCount.incrementAndGet();
+                        sleep(200);
+                        return entityManager.createQuery("select count(a) from Account a", Long.class).getSingleResult();
+                    }), executor))
+                    .toList();
+
+            results.forEach(CompletableFuture::join);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(queryCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Read options are applied to every created query")
+    void readOptionsAreAppliedToQueries() {
+        ReadOptions options = ReadOptions.builder()
+                .timeout(Duration.ofSeconds(5))
+                .fetchSize(50)
+                .build();
+
+        Map<String, Object> hints = queryHelper.readWithinTx(options, entityManager ->
+                Map.copyOf(entityManager.createQuery("select a from Account a").getHints()));
+
+        assertThat(hints.get(SpecHints.HINT_SPEC_QUERY_TIMEOUT)).isEqualTo(5000);
+        assertThat(hints.get(HibernateHints.HINT_FETCH_SIZE)).isEqualTo(50);
+        assertThat(hints.get(HibernateHints.HINT_READ_ONLY)).isEqualTo(true);
+    }
+
+    @Test
+    @Order(8)
+    @Timeout(30)
+    @DisplayName("Query helper aborts and reports a query that exceeds the timeout")
+    void queryHelperAbortsQueryOnTimeout() {
+        ReadOptions options = ReadOptions.builder()
+                .timeout(Duration.ofSeconds(1))
+                .build();
+
+        try {
+            queryHelper.readWithinTx(options, entityManager -> entityManager
+                    .createNativeQuery("SELECT SUM(RAND()) FROM SYSTEM_RANGE(1, 100000000000)")
+                    .getSingleResult());
+            fail("Exception should be thrown");
+        } catch (Exception e) {
+            assertThat(e.getClass()).isEqualTo(QueryHelperException.class);
+            assertThat(e.getMessage()).contains("timed out after PT1S");
+            assertThat(e.getMessage()).contains("Transaction is rolled back");
+        }
+    }
+
+    @Test
+    @Order(9)
+    @Timeout(30)
+    @DisplayName("Query started after the transaction timeout is reported as timed out")
+    void queryAfterTransactionTimeoutIsReported() {
+        ReadOptions options = ReadOptions.builder()
+                .timeout(Duration.ofSeconds(1))
+                .build();
+
+        assertThatThrownBy(() -> queryHelper.readWithinTx(options, entityManager -> {
+            sleep(2_100);
+            return entityManager.createQuery("select count(a) from Account a", Long.class).getSingleResult();
+        }))
+                .isInstanceOf(QueryHelperException.class)
+                .hasMessageContaining("timed out after PT1S")
+                .hasRootCauseInstanceOf(TransactionException.class);
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Transaction failure that mentions a timeout is not reported as timed out")
+    void transactionFailureIsNotReportedAsTimeout() {
+        assertThatThrownBy(() -> queryHelper.readWithinTx(entityManager -> {
+            throw new TransactionException("Lock timeout setting is not supported");
+        }))
+                .isInstanceOf(QueryHelperException.class)
+                .hasMessage("Error performing query. Transaction is rolled back");
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Query helper closes sessions and releases their connections")
+    void queryHelperClosesSessions() {
+        QueryHelper helper = new QueryHelper(entityManagerFactory);
+        Account account = saveRandomAccount();
+
+        helper.readWithinTx(entityManager -> entityManager.find(Account.class, account.getId()));
+        try {
+            helper.readWithinTx(entityManager -> {
+                throwException();
+                return null;
+            });
+            fail("Exception should be thrown");
+        } catch (QueryHelperException e) {
+            // the session must be closed anyway
+        }
+
+        SessionStats stats = helper.getSessionTracker().getStats();
+        assertThat(stats.getOpenedCount()).isEqualTo(2);
+        assertThat(stats.getClosedCount()).isEqualTo(2);
+        assertThat(stats.getOpenSessionCount()).isZero();
+        assertThat(stats.getOpenConnectionCount()).isZero();
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Session held beyond the leak threshold is reported once")
+    void sessionHeldBeyondThresholdIsReported() {
+        QueryHelper helper = new QueryHelper(entityManagerFactory, QueryCacheConfig.defaultConfig(),
+                SessionTrackerConfig.builder().leakThreshold(Duration.ofMillis(100)).build());
+        SessionTracker sessionTracker = helper.getSessionTracker();
+
+        int leaksWhileOpen = helper.readWithinTx(entityManager -> {
+            entityManager.createQuery("select count(a) from Account a", Long.class).getSingleResult();
+            sleep(200);
+            assertThat(sessionTracker.getStats().getOpenSessionCount()).isEqualTo(1);
+            assertThat(sessionTracker.getStats().getOpenConnectionCount()).isEqualTo(1);
+            return sessionTracker.detectLeaks();
+        });
+
+        assertThat(leaksWhileOpen).isEqualTo(1);
+        assertThat(sessionTracker.getStats().getLeakCount()).isEqualTo(1);
+        assertThat(sessionTracker.getStats().getOpenSessionCount()).isZero();
+    }
+
+    @Test
+    @Order(13)
+    @Timeout(10)
+    @DisplayName("Load that fails with an error is not cached and does not block later reads")
+    void failedLoadDoesNotBlockKey() {
+        QueryKey key = QueryKey.of("failingCountAccounts", Account.class);
+
+        assertThatThrownBy(() -> queryHelper.readWithinTxCached(key, entityManager -> {
+            throw new AssertionError("Loader error");
+        })).isInstanceOf(AssertionError.class);
+        long count = countAccountsCached(key);
+
+        assertThat(count).isPositive();
+    }
+
+    private long countAccountsCached(QueryKey key) {
+        return queryHelper.readWithinTxCached(key, entityManager ->
+                entityManager.createQuery("select count(a) from Account a", Long.class).getSingleResult());
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private Account saveRandomAccount() {
         Account account = TestDataGenerator.generateAccount();
         emUtil.performWithinTx(entityManager -> entityManager.persist(account));
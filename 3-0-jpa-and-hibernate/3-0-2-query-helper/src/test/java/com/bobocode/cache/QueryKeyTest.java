@@ -0,0 +1,32 @@
+package com.bobocode.cache;
+
+import com.bobocode.model.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryKeyTest {
+
+    @Test
+    @DisplayName("Keys with equal array parameters are equal")
+    void arrayParametersAreComparedByContent() {
+        QueryKey key = QueryKey.of("findByIds", Account.class, new long[]{1, 2}, new String[]{"a", null});
+        QueryKey sameKey = QueryKey.of("findByIds", Account.class, new long[]{1, 2}, new String[]{"a", null});
+        QueryKey otherKey = QueryKey.of("findByIds", Account.class, new long[]{1, 3}, new String[]{"a", null});
+
+        assertThat(sameKey).isEqualTo(key).hasSameHashCodeAs(key);
+        assertThat(otherKey).isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("Keys of the same query that read different entity types are not equal")
+    void entityTypesArePartOfKey() {
+        QueryKey key = QueryKey.of("count", Account.class);
+
+        assertThat(QueryKey.of("count", Set.of(Account.class))).isEqualTo(key);
+        assertThat(QueryKey.of("count", Object.class)).isNotEqualTo(key);
+    }
+}
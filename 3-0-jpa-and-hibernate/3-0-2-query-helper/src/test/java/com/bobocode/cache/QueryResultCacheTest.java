@@ -0,0 +1,46 @@
+package com.bobocode.cache;
+
+import com.bobocode.model.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryResultCacheTest {
+
+    @Test
+    @DisplayName("Invalidation drops the results of the written types and their supertypes only")
+    void invalidationDropsDependentResultsOnly() {
+        QueryResultCache cache = new QueryResultCache();
+        QueryKey accountKey = QueryKey.of("findAccounts", Account.class);
+        QueryKey objectKey = QueryKey.of("findAnything", Object.class);
+        QueryKey otherKey = QueryKey.of("findStrings", String.class);
+        AtomicInteger loadCount = new AtomicInteger();
+        Set.of(accountKey, objectKey, otherKey).forEach(key -> cache.get(key, loadCount::incrementAndGet));
+
+        cache.invalidate(Set.of(Account.class));
+        Set.of(accountKey, objectKey, otherKey).forEach(key -> cache.get(key, loadCount::incrementAndGet));
+
+        assertThat(loadCount.get()).isEqualTo(5);
+        assertThat(cache.getStats().getInvalidationCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Result loaded again after an invalidation is invalidated by the next write")
+    void reloadedResultIsInvalidatedAgain() {
+        QueryResultCache cache = new QueryResultCache();
+        QueryKey key = QueryKey.of("countAccounts", Account.class);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get(key, loadCount::incrementAndGet);
+            cache.invalidate(Set.of(Account.class));
+        }
+
+        assertThat(loadCount.get()).isEqualTo(3);
+        assertThat(cache.getStats().getInvalidationCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,50 @@
+package com.bobocode.session;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionTrackerTest {
+
+    @Test
+    @DisplayName("Session closed by another thread counts as holding no connection")
+    void closedSessionHoldsNoConnection() {
+        SessionTracker sessionTracker = new SessionTracker();
+        SessionImplementor closedSession = Mockito.mock(SessionImplementor.class);
+        Mockito.when(closedSession.isClosed()).thenReturn(true);
+        SessionImplementor closingSession = Mockito.mock(SessionImplementor.class);
+        Mockito.when(closingSession.getJdbcCoordinator())
+                .thenThrow(new IllegalStateException("Session/EntityManager is closed"));
+
+        sessionTracker.open(closedSession);
+        sessionTracker.open(closingSession);
+        SessionStats stats = sessionTracker.getStats();
+
+        assertThat(stats.getOpenSessionCount()).isEqualTo(2);
+        assertThat(stats.getOpenConnectionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Opening sessions checks for leaks at most once per leak check interval")
+    void openChecksForLeaksOncePerInterval() throws InterruptedException {
+        SessionTracker sessionTracker = new SessionTracker(SessionTrackerConfig.builder()
+                .leakThreshold(Duration.ofMillis(1))
+                .leakCheckInterval(Duration.ofHours(1))
+                .recordOpenStackTrace(false)
+                .build());
+
+        sessionTracker.open(Mockito.mock(SessionImplementor.class));
+        Thread.sleep(10);
+        sessionTracker.open(Mockito.mock(SessionImplementor.class));
+        long leaksFoundByOpen = sessionTracker.getStats().getLeakCount();
+        Thread.sleep(10);
+
+        assertThat(leaksFoundByOpen).isZero();
+        assertThat(sessionTracker.detectLeaks()).isEqualTo(2);
+    }
+}
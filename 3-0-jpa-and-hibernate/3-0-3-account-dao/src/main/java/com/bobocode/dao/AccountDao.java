@@ -2,7 +2,10 @@ package com.bobocode.dao;
 
 import com.bobocode.model.Account;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * {@link AccountDao} provides an API to access {@link Account} data.
@@ -15,6 +18,36 @@ public interface AccountDao {
      */
     void save(Account account);
 
+    /**
+     * Stores all provided accounts within a single transaction using a default batch size. The persistence context is
+     * flushed and cleared every batch, so memory usage does not grow with the number of accounts. Sets generated ids
+     * to all accounts
+     *
+     * @param accounts new account instances
+     */
+    void saveAll(Collection<Account> accounts);
+
+    /**
+     * Stores all provided accounts within a single transaction. The persistence context is flushed and cleared every
+     * {@code batchSize} accounts. Inserts are sent as JDBC batches only when {@code hibernate.jdbc.batch_size} is set
+     * and ids are not generated by an identity column. Sets generated ids to all accounts
+     *
+     * @param accounts  new account instances
+     * @param batchSize number of accounts persisted between flushes
+     */
+    void saveAll(Collection<Account> accounts, int batchSize);
+
+    /**
+     * Loads accounts into the database within a single transaction, bypassing the persistence context. On PostgreSQL
+     * the accounts are streamed with {@code COPY}, and on other databases they are inserted in JDBC batches, see
+     * {@link com.bobocode.util.copy.BulkLoader}. Ids are generated by the identity column and are not set to the
+     * accounts, so use this method for data loads rather than for accounts that are used afterwards
+     *
+     * @param accounts new account instances, read lazily while they are sent to the database
+     * @return number of loaded accounts
+     */
+    long loadAll(Stream<Account> accounts);
+
     /**
      * Returns an {@link Account} instance by its id
      *
@@ -24,10 +57,11 @@ public interface AccountDao {
     Account findById(Long id);
 
     /**
-     * Returns {@link Account} instance by its email
+     * Returns {@link Account} instance by its email. Email is a natural id of the account, so repeated lookups are
+     * served by the natural id and second-level caches without a database round trip
      *
      * @param email account emails
-     * @return account instance
+     * @return account instance, or {@code null} if there is no account with such email
      */
     Account findByEmail(String email);
 
@@ -39,12 +73,55 @@ public interface AccountDao {
     List<Account> findAll();
 
     /**
-     * Receives stored {@link Account} instance and updates it in the database
+     * Returns a page of accounts ordered by id using keyset pagination. The page starts right after the account with
+     * id {@code afterId}, so the database seeks the start of the page by the primary key index instead of skipping
+     * all previous rows like OFFSET does. To read the next page pass the id of the last account of the current page.
+     *
+     * @param afterId  id of the last account of the previous page, or {@code null} for the first page
+     * @param pageSize maximum number of accounts in the page
+     * @return accounts ordered by id, empty list when there are no more accounts
+     */
+    List<Account> findPage(Long afterId, int pageSize);
+
+    /**
+     * Returns a lazy stream of all accounts ordered by id using a default fetch size.
+     *
+     * @return lazy stream of all accounts
+     * @see AccountDao#streamAll(int)
+     */
+    Stream<Account> streamAll();
+
+    /**
+     * Returns a lazy stream of all accounts ordered by id that is backed by a database cursor. Accounts are read in
+     * a read-only session and detached as soon as they are passed to the stream, so the persistence context does not
+     * grow while the stream is consumed. The underlying session is closed when the stream is closed, so it must be
+     * used within try-with-resources
+     *
+     * @param fetchSize number of rows fetched from the database per round trip
+     * @return lazy stream of all accounts
+     */
+    Stream<Account> streamAll(int fetchSize);
+
+    /**
+     * Receives stored {@link Account} instance and updates it in the database. Only changed columns are written. The
+     * update fails if the account was changed by someone else since it was read, and on success the new version is
+     * set to the account
      *
      * @param account stored account with updated fields
      */
     void update(Account account);
 
+    /**
+     * Adds {@code delta} to the account balance with a single {@code UPDATE} statement, without loading the account.
+     * The database applies concurrent adjustments one after another, so none of them is lost. The account version is
+     * incremented, so stale copies of the account cannot overwrite the new balance. Only this account is evicted from
+     * the second-level cache, so cached lookups of other accounts keep being served from it
+     *
+     * @param id    account id
+     * @param delta amount to add, negative to withdraw
+     */
+    void adjustBalance(Long id, BigDecimal delta);
+
     /**
      * Removes the stored account from the database.
      *
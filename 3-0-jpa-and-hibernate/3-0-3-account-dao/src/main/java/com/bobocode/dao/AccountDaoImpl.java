@@ -3,19 +3,53 @@ package com.bobocode.dao;
 import com.bobocode.exception.AccountDaoException;
 import com.bobocode.model.Account;
 import com.bobocode.util.ExerciseNotCompletedException;
+import com.bobocode.util.copy.BulkLoader;
+import com.bobocode.util.copy.CopyTable;
+import com.bobocode.util.retry.RetryStats;
+import com.bobocode.util.retry.RetryingTransactionTemplate;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
-import jakarta.persistence.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class AccountDaoImpl implements AccountDao {
+    static final int DEFAULT_BATCH_SIZE = 50;
+    static final int DEFAULT_FETCH_SIZE = 500;
+
+    private static final CopyTable<Account> ACCOUNT_TABLE = CopyTable.<Account>builder("account")
+            .column("first_name", Account::getFirstName)
+            .column("last_name", Account::getLastName)
+            .column("email", Account::getEmail)
+            .column("birthday", Account::getBirthday)
+            .column("gender", Account::getGender)
+            .column("creation_time", Account::getCreationTime)
+            .column("balance", Account::getBalance)
+            .build();
+    /**
+     * Query space of the balance adjustment. No entity is mapped to it, so Hibernate does not invalidate the whole
+     * account cache region after the native update, and only the adjusted account is evicted
+     */
+    private static final String BALANCE_ADJUSTMENT_QUERY_SPACE = "account_balance_adjustment";
+
     private EntityManagerFactory emf;
+    private RetryingTransactionTemplate transactionTemplate;
 
     public AccountDaoImpl(EntityManagerFactory emf) {
         this.emf = emf;
+        this.transactionTemplate = new RetryingTransactionTemplate(emf);
     }
 
     @Override
@@ -36,6 +70,65 @@ public class AccountDaoImpl implements AccountDao {
         }
     }
 
+    @Override
+    public void saveAll(Collection<Account> accounts) {
+        saveAll(accounts, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public void saveAll(Collection<Account> accounts, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+        }
+        if (accounts.isEmpty()) {
+            return;
+        }
+
+        EntityManager entityManager = emf.createEntityManager();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            int persistedCount = 0;
+            for (Account account : accounts) {
+                entityManager.persist(account);
+                if (++persistedCount % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            accounts.forEach(account -> account.setId(null));
+            throw new AccountDaoException(String.format("Error saving %d accounts. Transaction is rolled back",
+                    accounts.size()), e);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Override
+    public long loadAll(Stream<Account> accounts) {
+        EntityManager entityManager = emf.createEntityManager();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            long loadedCount = entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> BulkLoader.load(connection, ACCOUNT_TABLE, accounts.iterator()));
+            transaction.commit();
+            return loadedCount;
+        } catch (Exception e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw new AccountDaoException("Error loading accounts", e);
+        } finally {
+            entityManager.close();
+        }
+    }
+
     @Override
     public Account findById(Long id) {
         EntityManager entityManager = emf.createEntityManager();
@@ -50,9 +143,9 @@ public class AccountDaoImpl implements AccountDao {
     public Account findByEmail(String email) {
         EntityManager entityManager = emf.createEntityManager();
         try {
-            Query query = entityManager.createQuery("from Account where email=:email");
-            query.setParameter("email", email);
-            return (Account) query.getSingleResult();
+            return entityManager.unwrap(Session.class)
+                    .bySimpleNaturalId(Account.class)
+                    .load(email);
         } finally {
             entityManager.close();
         }
@@ -68,14 +161,74 @@ public class AccountDaoImpl implements AccountDao {
         }
     }
 
+    @Override
+    public List<Account> findPage(Long afterId, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive, but was " + pageSize);
+        }
+        EntityManager entityManager = emf.createEntityManager();
+        try {
+            return entityManager.createQuery(
+                            "select a from Account a where a.id > :afterId order by a.id", Account.class)
+                    .setParameter("afterId", afterId == null ? Long.MIN_VALUE : afterId)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Override
+    public Stream<Account> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
+    @Override
+    public Stream<Account> streamAll(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be positive, but was " + fetchSize);
+        }
+        EntityManager entityManager = emf.createEntityManager();
+        try {
+            Session session = entityManager.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            // PostgreSQL driver uses a server-side cursor and honors the fetch size only within a transaction
+            session.getTransaction().begin();
+            ScrollableResults<Account> accounts = session.createQuery("from Account a order by a.id", Account.class)
+                    .setReadOnly(true)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            return StreamSupport.stream(new AccountScrollSpliterator(session, accounts), false)
+                    .onClose(() -> closeAccountScroll(entityManager, accounts));
+        } catch (Exception e) {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            entityManager.close();
+            throw new AccountDaoException("Error streaming all accounts", e);
+        }
+    }
+
+    private void closeAccountScroll(EntityManager entityManager, ScrollableResults<Account> accounts) {
+        try {
+            accounts.close();
+            entityManager.getTransaction().commit();
+        } catch (Exception e) {
+            throw new AccountDaoException("Error closing accounts scroll", e);
+        } finally {
+            entityManager.close();
+        }
+    }
+
     @Override
     public void update(Account account) {
         EntityManager entityManager = emf.createEntityManager();
         EntityTransaction transaction = entityManager.getTransaction();
         try {
             transaction.begin();
-            entityManager.merge(account);
+            Account updatedAccount = entityManager.merge(account);
             transaction.commit();
+            account.setVersion(updatedAccount.getVersion());
         } catch (Exception e) {
             if (transaction.isActive()) {
                 transaction.rollback();
@@ -86,6 +239,27 @@ public class AccountDaoImpl implements AccountDao {
         }
     }
 
+    @Override
+    public void adjustBalance(Long id, BigDecimal delta) {
+        int updatedCount;
+        try {
+            updatedCount = transactionTemplate.execute(entityManager -> entityManager.createNativeQuery(
+                            "UPDATE account SET balance = coalesce(balance, 0) + ?, version = version + 1 WHERE id = ?")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace(BALANCE_ADJUSTMENT_QUERY_SPACE)
+                    .setParameter(1, delta)
+                    .setParameter(2, id)
+                    .executeUpdate());
+        } catch (Exception e) {
+            throw new AccountDaoException("Error adjusting balance of account " + id + ". Transaction is rolled back", e);
+        } finally {
+            emf.getCache().evict(Account.class, id);
+        }
+        if (updatedCount == 0) {
+            throw new AccountDaoException("Account with id " + id + " does not exist");
+        }
+    }
+
     @Override
     public void remove(Account account) {
         EntityManager entityManager = emf.createEntityManager();
@@ -104,4 +278,33 @@ public class AccountDaoImpl implements AccountDao {
             entityManager.close();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @return retry counters of the balance adjustments
+     */
+    public RetryStats getRetryStats() {
+        return transactionTemplate.getStats();
+    }
+
+    private static class AccountScrollSpliterator extends Spliterators.AbstractSpliterator<Account> {
+        private final Session session;
+        private final ScrollableResults<Account> accounts;
+
+        AccountScrollSpliterator(Session session, ScrollableResults<Account> accounts) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.session = session;
+            this.accounts = accounts;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Account> action) {
+            if (!accounts.next()) {
+                return false;
+            }
+            Account account = accounts.get();
+            session.detach(account);
+            action.accept(account);
+            return true;
+        }
+    }
+}
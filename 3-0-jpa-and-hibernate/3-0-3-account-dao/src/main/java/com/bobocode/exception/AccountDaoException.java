@@ -1,6 +1,10 @@
 package com.bobocode.exception;
 
 public class AccountDaoException extends RuntimeException{
+    public AccountDaoException(String message) {
+        super(message);
+    }
+
     public AccountDaoException(String message, Throwable cause) {
         super(message, cause);
     }
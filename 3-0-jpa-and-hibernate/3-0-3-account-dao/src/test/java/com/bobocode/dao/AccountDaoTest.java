@@ -2,10 +2,15 @@ package com.bobocode.dao;
 
 import com.bobocode.exception.AccountDaoException;
 import com.bobocode.model.Account;
+import com.bobocode.util.CacheStatistics;
 import com.bobocode.util.TestDataGenerator;
 import org.hibernate.Session;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 
+import jakarta.persistence.Cache;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
@@ -15,7 +20,12 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -136,6 +146,235 @@ class AccountDaoTest {
         assertThat(saved).isFalse();
     }
 
+    @Test
+    @Order(9)
+    @DisplayName("Save all accounts")
+    void testSaveAllAccounts() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(120);
+
+        accountDao.saveAll(accounts);
+
+        assertThat(accounts).allMatch(account -> account.getId() != null);
+        assertThat(accounts).allMatch(this::isSaved);
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Save all rolls back all accounts when one of them is invalid")
+    void testSaveAllInvalidAccount() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(10);
+        accounts.forEach(account -> account.setEmail("rolled.back." + account.getEmail()));
+        accounts.get(7).setFirstName(null);
+
+        assertThatThrownBy(() -> accountDao.saveAll(accounts, 5)).isInstanceOf(AccountDaoException.class);
+
+        assertThat(accounts).allMatch(account -> account.getId() == null);
+        assertThat(countAccountsByEmail(accounts.get(0).getEmail())).isZero();
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Save all accounts in JDBC batches when ids are generated by a sequence")
+    void testSaveAllAccountsWithSequenceIds() {
+        // the second-level cache is disabled, so that this factory does not share and close the cache manager of emf
+        EntityManagerFactory sequenceEmf = Persistence.createEntityManagerFactory("SingleAccountEntitySequenceH2",
+                Map.of("hibernate.cache.use_second_level_cache", "false"));
+        try {
+            AccountDao sequenceAccountDao = new AccountDaoImpl(sequenceEmf);
+            Statistics statistics = sequenceEmf.unwrap(SessionFactory.class).getStatistics();
+            List<Account> accounts = TestDataGenerator.generateAccountList(120);
+
+            sequenceAccountDao.saveAll(accounts);
+            long preparedStatementCount = statistics.getPrepareStatementCount();
+
+            assertThat(accounts).allMatch(account -> account.getId() != null);
+            assertThat(sequenceAccountDao.findAll()).containsAll(accounts);
+            assertThat(preparedStatementCount).isLessThan(10);
+        } finally {
+            sequenceEmf.close();
+        }
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Find all accounts page by page")
+    void testFindPage() {
+        accountDao.saveAll(TestDataGenerator.generateAccountList(15));
+        List<Long> allIds = accountDao.findAll().stream()
+                .map(Account::getId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        List<Long> pagedIds = new ArrayList<>();
+        List<Account> page = accountDao.findPage(null, 7);
+        while (!page.isEmpty()) {
+            assertThat(page.size()).isLessThanOrEqualTo(7);
+            page.forEach(account -> pagedIds.add(account.getId()));
+            page = accountDao.findPage(page.get(page.size() - 1).getId(), 7);
+        }
+
+        assertThat(pagedIds).isEqualTo(allIds);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Stream all accounts ordered by id")
+    void testStreamAll() {
+        List<Account> allAccounts = accountDao.findAll();
+        allAccounts.sort(Comparator.comparing(Account::getId));
+
+        List<Account> streamedAccounts;
+        try (Stream<Account> accounts = accountDao.streamAll(4)) {
+            streamedAccounts = accounts.collect(Collectors.toList());
+        }
+
+        assertThat(streamedAccounts).isEqualTo(allAccounts);
+        assertThat(streamedAccounts).allMatch(account -> account.getFirstName() != null);
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Find account by email is served by the second-level cache")
+    void testFindAccountByEmailIsCached() {
+        Account account = TestDataGenerator.generateAccount();
+        accountDao.save(account);
+        accountDao.findByEmail(account.getEmail());
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long preparedStatementCount = statistics.getPrepareStatementCount();
+        CacheStatistics cacheStatisticsBefore = CacheStatistics.of(emf);
+
+        Account foundAccount = accountDao.findByEmail(account.getEmail());
+        CacheStatistics cacheStatisticsAfter = CacheStatistics.of(emf);
+
+        assertThat(foundAccount).isEqualTo(account);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(preparedStatementCount);
+        assertThat(cacheStatisticsAfter.getNaturalIdHitCount()).isGreaterThan(cacheStatisticsBefore.getNaturalIdHitCount());
+        assertThat(cacheStatisticsAfter.getRegion("account").getHitCount())
+                .isGreaterThan(cacheStatisticsBefore.getRegion("account").getHitCount());
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Load accounts in bulk")
+    void testLoadAll() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(1200);
+        int countBefore = accountDao.findAll().size();
+
+        long loadedCount = accountDao.loadAll(accounts.stream());
+
+        assertThat(loadedCount).isEqualTo(1200);
+        assertThat(accountDao.findAll()).hasSize(countBefore + 1200);
+        Account foundAccount = accountDao.findByEmail(accounts.get(1199).getEmail());
+        assertThat(foundAccount.getFirstName()).isEqualTo(accounts.get(1199).getFirstName());
+        assertThat(foundAccount.getGender()).isEqualTo(accounts.get(1199).getGender());
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Bulk load stores none of the accounts when an account is invalid")
+    void testLoadAllRollsBackOnError() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(10);
+        accounts.get(7).setEmail(null);
+        int countBefore = accountDao.findAll().size();
+
+        assertThatThrownBy(() -> accountDao.loadAll(accounts.stream())).isInstanceOf(AccountDaoException.class);
+
+        assertThat(accountDao.findAll()).hasSize(countBefore);
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Update throws exception when account was changed since it was read")
+    void testUpdateStaleAccount() {
+        Account account = TestDataGenerator.generateAccount();
+        saveTestAccount(account);
+        Account staleAccount = accountDao.findById(account.getId());
+        Account freshAccount = accountDao.findById(account.getId());
+
+        freshAccount.setFirstName("Fresh");
+        accountDao.update(freshAccount);
+        freshAccount.setLastName("Fresher");
+        accountDao.update(freshAccount);
+        staleAccount.setFirstName("Stale");
+
+        assertThatThrownBy(() -> accountDao.update(staleAccount)).isInstanceOf(AccountDaoException.class);
+        assertThat(accountDao.findById(account.getId()).getFirstName()).isEqualTo("Fresh");
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("Adjust balance adds delta to the stored balance")
+    void testAdjustBalance() {
+        Account account = TestDataGenerator.generateAccount();
+        saveTestAccount(account);
+        BigDecimal delta = BigDecimal.valueOf(-1050, 2);
+
+        accountDao.adjustBalance(account.getId(), delta);
+        accountDao.adjustBalance(account.getId(), delta);
+
+        account.setBalance(account.getBalance().add(delta).add(delta));
+        assertThat(isBalanceUpdated(account)).isTrue();
+        assertThat(accountDao.findById(account.getId()).getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("Adjust balance throws exception when account does not exist")
+    void testAdjustBalanceOfMissingAccount() {
+        assertThatThrownBy(() -> accountDao.adjustBalance(-1L, BigDecimal.ONE)).isInstanceOf(AccountDaoException.class);
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Update of a stale account fails on the first attempt")
+    void testStaleUpdateIsNotRetried() {
+        Account account = TestDataGenerator.generateAccount();
+        saveTestAccount(account);
+        Account staleAccount = accountDao.findById(account.getId());
+        accountDao.adjustBalance(account.getId(), BigDecimal.ONE);
+        long retriesBefore = ((AccountDaoImpl) accountDao).getRetryStats().getRetryCount();
+
+        staleAccount.setFirstName("Stale");
+
+        assertThatThrownBy(() -> accountDao.update(staleAccount))
+                .isInstanceOf(AccountDaoException.class)
+                .hasRootCauseInstanceOf(StaleObjectStateException.class);
+        assertThatThrownBy(() -> accountDao.remove(staleAccount)).isInstanceOf(AccountDaoException.class);
+        assertThat(((AccountDaoImpl) accountDao).getRetryStats().getRetryCount()).isEqualTo(retriesBefore);
+        assertThat(accountDao.findById(account.getId())).isNotNull();
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("Adjust balance evicts only the adjusted account from the second-level cache")
+    void testAdjustBalanceEvictsOnlyAdjustedAccount() {
+        Account account = TestDataGenerator.generateAccount();
+        Account otherAccount = TestDataGenerator.generateAccount();
+        accountDao.save(account);
+        accountDao.save(otherAccount);
+        accountDao.findById(account.getId());
+        accountDao.findById(otherAccount.getId());
+        Cache cache = emf.getCache();
+
+        accountDao.adjustBalance(account.getId(), BigDecimal.ONE);
+
+        assertThat(cache.contains(Account.class, account.getId())).isFalse();
+        assertThat(cache.contains(Account.class, otherAccount.getId())).isTrue();
+        assertThat(accountDao.findById(account.getId()).getBalance())
+                .isEqualByComparingTo(account.getBalance().add(BigDecimal.ONE));
+    }
+
+    private long countAccountsByEmail(String email) {
+        EntityManager entityManager = emf.createEntityManager();
+        try {
+            return entityManager.createQuery("select count(a) from Account a where a.email = :email", Long.class)
+                    .setParameter("email", email)
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
     private boolean isBalanceUpdated(Account account) {
         EntityManager entityManager = emf.createEntityManager();
         boolean isUpdated = entityManager.unwrap(Session.class).doReturningWork(connection -> {
@@ -3,6 +3,7 @@ package com.bobocode;
 import com.bobocode.model.Employee;
 import com.bobocode.model.EmployeeProfile;
 import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.SnapshotPersistenceUnit;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.*;
 
@@ -18,16 +19,23 @@ import static org.hamcrest.Matchers.equalTo;
 class EmployeeProfileMappingTest {
     private static EntityManagerUtil emUtil;
     private static EntityManagerFactory entityManagerFactory;
+    private static SnapshotPersistenceUnit persistenceUnit;
 
     @BeforeAll
     static void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("Employees");
+        persistenceUnit = SnapshotPersistenceUnit.create("Employees");
+        entityManagerFactory = persistenceUnit.getEntityManagerFactory();
         emUtil = new EntityManagerUtil(entityManagerFactory);
     }
 
+    @BeforeEach
+    void resetDatabase() {
+        persistenceUnit.resetDatabase();
+    }
+
     @AfterAll
     static void destroy() {
-        entityManagerFactory.close();
+        persistenceUnit.close();
     }
 
     @Test
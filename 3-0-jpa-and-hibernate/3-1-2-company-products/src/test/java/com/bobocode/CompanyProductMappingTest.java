@@ -5,13 +5,13 @@ import com.bobocode.dao.CompanyDaoImpl;
 import com.bobocode.model.Company;
 import com.bobocode.model.Product;
 import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.SnapshotPersistenceUnit;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.hibernate.LazyInitializationException;
 import org.junit.jupiter.api.*;
 
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Persistence;
 import jakarta.persistence.PersistenceException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -25,18 +25,25 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 class CompanyProductMappingTest {
     private static EntityManagerUtil emUtil;
     private static EntityManagerFactory entityManagerFactory;
+    private static SnapshotPersistenceUnit persistenceUnit;
     private static CompanyDao companyDao;
 
     @BeforeAll
     static void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("CompanyProducts");
+        persistenceUnit = SnapshotPersistenceUnit.create("CompanyProducts");
+        entityManagerFactory = persistenceUnit.getEntityManagerFactory();
         emUtil = new EntityManagerUtil(entityManagerFactory);
         companyDao = new CompanyDaoImpl(entityManagerFactory);
     }
 
+    @BeforeEach
+    void resetDatabase() {
+        persistenceUnit.resetDatabase();
+    }
+
     @AfterAll
     static void destroy() {
-        entityManagerFactory.close();
+        persistenceUnit.close();
     }
 
     @Test
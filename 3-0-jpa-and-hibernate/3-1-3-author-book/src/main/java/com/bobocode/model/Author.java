@@ -1,5 +1,6 @@
 package com.bobocode.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,6 +14,8 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects;
@@ -43,6 +46,8 @@ import java.util.Set;
 @Setter
 @Entity
 @Table(name = "author")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
 public class Author {
     @Id
     @GeneratedValue
@@ -55,6 +60,7 @@ public class Author {
     private String lastName;
 
     @Setter(AccessLevel.PRIVATE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author-books")
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(name = "author_book",
             joinColumns = @JoinColumn(name = "author_id"),
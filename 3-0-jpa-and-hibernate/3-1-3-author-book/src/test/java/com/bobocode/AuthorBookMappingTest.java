@@ -2,7 +2,9 @@ package com.bobocode;
 
 import com.bobocode.model.Author;
 import com.bobocode.model.Book;
+import com.bobocode.util.CacheStatistics;
 import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.SnapshotPersistenceUnit;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.hibernate.Session;
 import org.hibernate.exception.ConstraintViolationException;
@@ -25,16 +27,23 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 class AuthorBookMappingTest {
     private static EntityManagerUtil emUtil;
     private static EntityManagerFactory entityManagerFactory;
+    private static SnapshotPersistenceUnit persistenceUnit;
 
     @BeforeAll
     static void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("BookAuthors");
+        persistenceUnit = SnapshotPersistenceUnit.create("BookAuthors");
+        entityManagerFactory = persistenceUnit.getEntityManagerFactory();
         emUtil = new EntityManagerUtil(entityManagerFactory);
     }
 
+    @BeforeEach
+    void resetDatabase() {
+        persistenceUnit.resetDatabase();
+    }
+
     @AfterAll
     static void destroy() {
-        entityManagerFactory.close();
+        persistenceUnit.close();
     }
 
     @Test
@@ -294,6 +303,32 @@ class AuthorBookMappingTest {
         assertThat(foundBook).isEqualTo(book);
     }
 
+    @Test
+    @Order(19)
+    @DisplayName("Book lookup by ISBN and author books are served by the second-level cache")
+    void bookAndAuthorBooksAreCached() {
+        Author author = createRandomAuthor();
+        Book book = createRandomBook();
+        author.addBook(book);
+        emUtil.performWithinTx(entityManager -> entityManager.persist(author));
+        emUtil.performWithinTx(entityManager -> entityManager.find(Author.class, author.getId()).getBooks().size());
+        CacheStatistics statisticsBefore = CacheStatistics.of(entityManagerFactory);
+
+        Book foundBook = emUtil.performReturningWithinTx(entityManager -> entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Book.class)
+                .load(book.getIsbn()));
+        int authorBooksCount = emUtil.performReturningWithinTx(entityManager ->
+                entityManager.find(Author.class, author.getId()).getBooks().size());
+        CacheStatistics statisticsAfter = CacheStatistics.of(entityManagerFactory);
+
+        assertThat(foundBook).isEqualTo(book);
+        assertThat(authorBooksCount).isEqualTo(1);
+        assertThat(statisticsAfter.getNaturalIdHitCount()).isGreaterThan(statisticsBefore.getNaturalIdHitCount());
+        assertThat(statisticsAfter.getRegion("author-books").getHitCount())
+                .isGreaterThan(statisticsBefore.getRegion("author-books").getHitCount());
+        assertThat(statisticsAfter.getMissCount()).isEqualTo(statisticsBefore.getMissCount());
+    }
+
     private Book createRandomBook() {
         Book book = new Book();
         book.setName(RandomStringUtils.randomAlphabetic(20));
@@ -3,6 +3,7 @@ package com.bobocode.dao;
 import com.bobocode.model.Photo;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * {@link PhotoDao} defines and API of Data-Access Object for entity {@link Photo}
@@ -31,6 +32,24 @@ public interface PhotoDao {
      */
     List<Photo> findAll();
 
+    /**
+     * Retrieves a photo with initialized comments by its id using a single query
+     *
+     * @param id photo id
+     * @return photo instance with comments, or {@code null} if there is no such photo
+     */
+    Photo findByIdWithComments(long id);
+
+    /**
+     * Returns first {@code limit} photos ordered by id with initialized comments. Photo ids are selected first, and
+     * then the photos are fetched together with their comments using {@link Photo#WITH_COMMENTS_GRAPH}, so the
+     * method always needs two queries regardless of the number of photos
+     *
+     * @param limit maximum number of photos
+     * @return photos with comments
+     */
+    List<Photo> findAllWithComments(int limit);
+
     /**
      * Removes a photo from the database
      *
@@ -46,4 +65,21 @@ public interface PhotoDao {
      * @param comment
      */
     void addComment(long photoId, String comment);
+
+    /**
+     * Adds new comments to an existing photo in a single transaction. The photo is not loaded, and comments are
+     * inserted using JDBC batches. If the photo does not exist, no comments are stored.
+     *
+     * @param photoId  photo id
+     * @param comments comment texts
+     */
+    void addComments(long photoId, List<String> comments);
+
+    /**
+     * Adds new comments to several existing photos in a single transaction. Photos are not loaded, and comments are
+     * inserted using JDBC batches. If any of the photos does not exist, no comments are stored.
+     *
+     * @param commentsByPhotoId comment texts grouped by photo id
+     */
+    void addComments(Map<Long, List<String>> commentsByPhotoId);
 }
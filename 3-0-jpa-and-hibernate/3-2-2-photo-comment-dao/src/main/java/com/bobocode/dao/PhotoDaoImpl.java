@@ -2,21 +2,33 @@ package com.bobocode.dao;
 
 import com.bobocode.model.Photo;
 import com.bobocode.model.PhotoComment;
+import com.bobocode.util.retry.RetryStats;
+import com.bobocode.util.retry.RetryingTransactionTemplate;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Please note that you should not use auto-commit mode for your implementation.
  */
 public class PhotoDaoImpl implements PhotoDao {
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+    /**
+     * Number of comments persisted before the persistence context is flushed and cleared. It matches
+     * {@code hibernate.jdbc.batch_size}, so every flush sends exactly one JDBC batch.
+     */
+    private static final int COMMENT_BATCH_SIZE = 50;
+
     private EntityManagerFactory entityManagerFactory;
+    private RetryingTransactionTemplate transactionTemplate;
 
     public PhotoDaoImpl(EntityManagerFactory entityManagerFactory) {
         this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new RetryingTransactionTemplate(entityManagerFactory);
     }
 
     @Override
@@ -58,49 +70,106 @@ public class PhotoDaoImpl implements PhotoDao {
     }
 
     @Override
-    public void remove(Photo photo) {
+    public Photo findByIdWithComments(long id) {
         EntityManager entityManager = entityManagerFactory.createEntityManager();
-        EntityTransaction transaction = entityManager.getTransaction();
         try {
-            transaction.begin();
-            Photo managedPhoto = entityManager.find(Photo.class, photo.getId());
-            if (managedPhoto != null) {
-                entityManager.remove(managedPhoto);
-            }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();
-            }
-            throw new RuntimeException("Error removing photo", e);
+            return entityManager.find(Photo.class, id,
+                    Map.of(FETCH_GRAPH_HINT, entityManager.getEntityGraph(Photo.WITH_COMMENTS_GRAPH)));
         } finally {
             entityManager.close();
         }
     }
 
     @Override
-    public void addComment(long photoId, String comment) {
+    public List<Photo> findAllWithComments(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive, but was " + limit);
+        }
         EntityManager entityManager = entityManagerFactory.createEntityManager();
-        EntityTransaction transaction = entityManager.getTransaction();
         try {
-            transaction.begin();
-            Photo photo = entityManager.find(Photo.class, photoId);
-            if (photo != null) {
-                PhotoComment photoComment = new PhotoComment();
-                photoComment.setText(comment);
-                photoComment.setCreatedOn(LocalDateTime.now());
-                photo.addComment(photoComment);
-                entityManager.persist(photoComment);
-            }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();
+            // the limit is applied to photo ids, because a limit on a collection fetch is applied in memory
+            List<Long> photoIds = entityManager.createQuery("SELECT p.id FROM Photo p ORDER BY p.id", Long.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+            if (photoIds.isEmpty()) {
+                return List.of();
             }
-            throw new RuntimeException("Error adding comment to photo", e);
+            return entityManager.createQuery("SELECT p FROM Photo p WHERE p.id IN :ids ORDER BY p.id", Photo.class)
+                    .setParameter("ids", photoIds)
+                    .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(Photo.WITH_COMMENTS_GRAPH))
+                    .getResultList();
         } finally {
             entityManager.close();
         }
     }
 
+    @Override
+    public void remove(Photo photo) {
+        try {
+            transactionTemplate.executeWithoutResult(entityManager -> {
+                Photo managedPhoto = entityManager.find(Photo.class, photo.getId());
+                if (managedPhoto != null) {
+                    entityManager.remove(managedPhoto);
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error removing photo", e);
+        }
+    }
+
+    @Override
+    public void addComment(long photoId, String comment) {
+        try {
+            transactionTemplate.executeWithoutResult(entityManager -> {
+                Photo photo = entityManager.find(Photo.class, photoId);
+                if (photo != null) {
+                    PhotoComment photoComment = new PhotoComment();
+                    photoComment.setText(comment);
+                    photoComment.setCreatedOn(LocalDateTime.now());
+                    photo.addComment(photoComment);
+                    entityManager.persist(photoComment);
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error adding comment to photo", e);
+        }
+    }
+
+    @Override
+    public void addComments(long photoId, List<String> comments) {
+        addComments(Map.of(photoId, comments));
+    }
+
+    @Override
+    public void addComments(Map<Long, List<String>> commentsByPhotoId) {
+        try {
+            transactionTemplate.executeWithoutResult(entityManager -> {
+                LocalDateTime createdOn = LocalDateTime.now();
+                int persistedCount = 0;
+                for (Map.Entry<Long, List<String>> photoComments : commentsByPhotoId.entrySet()) {
+                    for (String comment : photoComments.getValue()) {
+                        PhotoComment photoComment = new PhotoComment();
+                        photoComment.setText(comment);
+                        photoComment.setCreatedOn(createdOn);
+                        // a reference is enough to set the foreign key, so neither the photo nor its comments are loaded
+                        photoComment.setPhoto(entityManager.getReference(Photo.class, photoComments.getKey()));
+                        entityManager.persist(photoComment);
+                        if (++persistedCount % COMMENT_BATCH_SIZE == 0) {
+                            entityManager.flush();
+                            entityManager.clear();
+                        }
+                    }
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error adding comments to photos " + commentsByPhotoId.keySet(), e);
+        }
+    }
+
+    /**
+     * @return retry counters of the photo removals and added comments
+     */
+    public RetryStats getRetryStats() {
+        return transactionTemplate.getStats();
+    }
 }
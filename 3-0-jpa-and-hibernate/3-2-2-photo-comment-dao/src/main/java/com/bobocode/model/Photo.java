@@ -6,12 +6,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,8 +39,11 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "photo")
+@NamedEntityGraph(name = Photo.WITH_COMMENTS_GRAPH, attributeNodes = @NamedAttributeNode("comments"))
 @EqualsAndHashCode(of = "id")
 public class Photo {
+    public static final String WITH_COMMENTS_GRAPH = "Photo.withComments";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -47,6 +53,7 @@ public class Photo {
     private String description;
 
     @Setter(AccessLevel.PRIVATE)
+    @BatchSize(size = 25)
     @OneToMany(mappedBy = "photo", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PhotoComment> comments = new ArrayList<>();
 
@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -35,7 +36,8 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(of = "id")
 public class PhotoComment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "photo_comment_id_generator")
+    @SequenceGenerator(name = "photo_comment_id_generator", sequenceName = "photo_comment_id_seq", allocationSize = 50)
     private Long id;
     @Column(name = "text",nullable = false)
     private String text;
@@ -10,6 +10,7 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import com.bobocode.model.Photo;
 import com.bobocode.model.PhotoComment;
 import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.SnapshotPersistenceUnit;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -20,11 +21,11 @@ import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
-import jakarta.persistence.Persistence;
 import jakarta.persistence.PersistenceException;
 import jakarta.persistence.Table;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -36,16 +37,23 @@ class PhotoCommentMappingTest {
 
     private static EntityManagerUtil emUtil;
     private static EntityManagerFactory entityManagerFactory;
+    private static SnapshotPersistenceUnit persistenceUnit;
 
     @BeforeAll
     static void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("PhotoComments");
+        persistenceUnit = SnapshotPersistenceUnit.create("PhotoComments");
+        entityManagerFactory = persistenceUnit.getEntityManagerFactory();
         emUtil = new EntityManagerUtil(entityManagerFactory);
     }
 
+    @BeforeEach
+    void resetDatabase() {
+        persistenceUnit.resetDatabase();
+    }
+
     @AfterAll
     static void destroy() {
-        entityManagerFactory.close();
+        persistenceUnit.close();
     }
 
     @Test
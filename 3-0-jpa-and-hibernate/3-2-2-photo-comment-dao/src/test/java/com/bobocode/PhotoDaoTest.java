@@ -1,18 +1,27 @@
 package com.bobocode;
 
+import static com.bobocode.util.PhotoTestDataGenerator.createListOfRandomComments;
 import static com.bobocode.util.PhotoTestDataGenerator.createListOfRandomPhotos;
 import static com.bobocode.util.PhotoTestDataGenerator.createRandomPhoto;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import com.bobocode.dao.PhotoDao;
 import com.bobocode.dao.PhotoDaoImpl;
 import com.bobocode.model.Photo;
+import com.bobocode.model.PhotoComment;
 import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.SnapshotPersistenceUnit;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
-import org.junit.jupiter.api.AfterEach;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer;
@@ -23,20 +32,36 @@ import org.junit.jupiter.api.TestMethodOrder;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class PhotoDaoTest {
 
-    private EntityManagerUtil emUtil;
-    private PhotoDao photoDao;
-    private EntityManagerFactory entityManagerFactory;
-
-    @BeforeEach
-    void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("PhotoComments");
+    /**
+     * Three insert batches plus the sequence calls of the pooled id generator (one per 50 ids, and one more when the
+     * generator reads a fresh sequence)
+     */
+    private static final int STATEMENTS_FOR_120_BATCHED_INSERTS = 7;
+
+    private static SnapshotPersistenceUnit persistenceUnit;
+    private static EntityManagerUtil emUtil;
+    private static PhotoDao photoDao;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void setup() {
+        persistenceUnit = SnapshotPersistenceUnit.create("PhotoComments",
+                Map.of("hibernate.generate_statistics", "true"));
+        EntityManagerFactory entityManagerFactory = persistenceUnit.getEntityManagerFactory();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
         emUtil = new EntityManagerUtil(entityManagerFactory);
         photoDao = new PhotoDaoImpl(entityManagerFactory);
     }
 
-    @AfterEach
-    void destroy() {
-        entityManagerFactory.close();
+    @BeforeEach
+    void resetDatabase() {
+        persistenceUnit.resetDatabase();
+        statistics.clear();
+    }
+
+    @AfterAll
+    static void destroy() {
+        persistenceUnit.close();
     }
 
     @Test
@@ -102,4 +127,108 @@ class PhotoDaoTest {
             assertThat(managedPhoto.getComments()).extracting("text").contains("Nice picture!");
         });
     }
+
+    @Test
+    @Order(6)
+    @DisplayName("Find all photos with comments using two queries")
+    void findAllPhotosWithComments() {
+        List<Photo> photos = createPhotosWithComments(30, 3);
+        statistics.clear();
+
+        List<Photo> foundPhotos = photoDao.findAllWithComments(20);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(foundPhotos).containsExactlyElementsOf(photos.subList(0, 20));
+        assertThat(foundPhotos).allMatch(photo -> Hibernate.isInitialized(photo.getComments()));
+        assertThat(foundPhotos).allMatch(photo -> photo.getComments().size() == 3);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Find a photo by id with comments using a single query")
+    void findPhotoByIdWithComments() {
+        Photo photo = createPhotosWithComments(1, 5).get(0);
+        statistics.clear();
+
+        Photo foundPhoto = photoDao.findByIdWithComments(photo.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(foundPhoto.getComments()).hasSize(5);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Lazy photo comments are loaded in batches")
+    void photoCommentsAreLoadedInBatches() {
+        createPhotosWithComments(30, 2);
+        statistics.clear();
+
+        int commentsCount = emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery("SELECT p FROM Photo p", Photo.class).getResultList().stream()
+                        .mapToInt(photo -> photo.getComments().size())
+                        .sum());
+
+        assertThat(commentsCount).isEqualTo(60);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Add photo comments using JDBC batches")
+    void addPhotoComments() {
+        Photo photo = createRandomPhoto();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
+        List<String> comments = Collections.nCopies(120, "Nice picture!");
+        statistics.clear();
+
+        photoDao.addComments(photo.getId(), comments);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(STATEMENTS_FOR_120_BATCHED_INSERTS);
+        Photo foundPhoto = photoDao.findByIdWithComments(photo.getId());
+        assertThat(foundPhoto.getComments()).hasSize(120);
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Add comments to several photos within a single transaction")
+    void addCommentsToSeveralPhotos() {
+        List<Photo> photos = createListOfRandomPhotos(3);
+        emUtil.performWithinTx(entityManager -> photos.forEach(entityManager::persist));
+        Map<Long, List<String>> commentsByPhotoId = Map.of(
+                photos.get(0).getId(), List.of("First", "Second"),
+                photos.get(1).getId(), List.of("Third"),
+                photos.get(2).getId(), List.of());
+
+        photoDao.addComments(commentsByPhotoId);
+
+        commentsByPhotoId.forEach((photoId, comments) -> assertThat(photoDao.findByIdWithComments(photoId).getComments())
+                .extracting(PhotoComment::getText)
+                .containsExactlyInAnyOrderElementsOf(comments));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Adding comments to a missing photo stores none of the comments")
+    void addCommentsToMissingPhotoIsRolledBack() {
+        Photo photo = createRandomPhoto();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
+        Map<Long, List<String>> commentsByPhotoId = Map.of(
+                photo.getId(), List.of("Nice picture!"),
+                photo.getId() + 1000, List.of("Lost comment"));
+
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> photoDao.addComments(commentsByPhotoId));
+
+        long commentsCount = emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery("SELECT count(c) FROM PhotoComment c", Long.class).getSingleResult());
+        assertThat(commentsCount).isZero();
+    }
+
+    private List<Photo> createPhotosWithComments(int photosCount, int commentsPerPhoto) {
+        List<Photo> photos = createListOfRandomPhotos(photosCount);
+        photos.forEach(photo -> createListOfRandomComments(commentsPerPhoto).forEach(photo::addComment));
+        emUtil.performWithinTx(entityManager -> photos.forEach(entityManager::persist));
+        return photos;
+    }
 }
@@ -1,49 +1,29 @@
 package com.bobocode.util;
 
-import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Objects;
-import java.util.stream.Stream;
-
-import static java.util.stream.Collectors.joining;
-
 /**
  * {@link FileReader} provides an API that allow to read whole file into a {@link String} by file name.
+ *
+ * @see ResourceLoader
  */
 public class FileReader {
 
     /**
-     * Returns a {@link String} that contains whole text from the file specified by name.
+     * Returns a {@link String} that contains whole text from the file specified by name. Line breaks are normalized
+     * to {@code \n}, and the trailing line break is removed. The file can be located in a directory or in a jar.
      *
      * @param fileName a name of a text file
      * @return string that holds whole file content
      */
     public static String readWholeFileFromResources(String fileName) {
-        Path filePath = createPathFromFileName(fileName);
-        try (Stream<String> fileLinesStream = openFileLinesStream(filePath)) {
-            return fileLinesStream.collect(joining("\n"));
-        }
-    }
-
-    private static Stream<String> openFileLinesStream(Path filePath) {
-        try {
-            return Files.lines(filePath);
-        } catch (IOException e) {
-            throw new FileReaderException("Cannot create stream of file lines!", e);
-        }
+        return normalizeLineBreaks(ResourceLoader.readString(fileName));
     }
 
-    private static Path createPathFromFileName(String fileName) {
-        Objects.requireNonNull(fileName);
-        URL fileUrl = FileReader.class.getClassLoader().getResource(fileName);
-        try {
-            return Paths.get(fileUrl.toURI());
-        } catch (URISyntaxException e) {
-            throw new FileReaderException("Invalid file URL",e);
-        }
+    private static String normalizeLineBreaks(String content) {
+        String normalizedContent = content.indexOf('\r') >= 0
+                ? content.replace("\r\n", "\n").replace('\r', '\n')
+                : content;
+        return normalizedContent.endsWith("\n")
+                ? normalizedContent.substring(0, normalizedContent.length() - 1)
+                : normalizedContent;
     }
 }
@@ -1,9 +1,14 @@
 package com.bobocode.util;
 
+import com.bobocode.util.metrics.InstrumentedDataSource;
+import com.bobocode.util.metrics.MetricsSink;
+import com.bobocode.util.pool.PoolConfig;
+import com.bobocode.util.pool.PooledDataSource;
 import org.h2.jdbcx.JdbcDataSource;
 import org.postgresql.ds.PGSimpleDataSource;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.Map;
 
 public class JdbcUtil {
@@ -46,6 +51,50 @@ public class JdbcUtil {
         return String.format("jdbc:postgresql://localhost:5432/%s", databaseName);
     }
 
+    public static PooledDataSource createDefaultPooledInMemoryH2DataSource() {
+        return createPooledDataSource(createDefaultInMemoryH2DataSource(), PoolConfig.defaultConfig());
+    }
+
+    public static PooledDataSource createPooledInMemoryH2DataSource(String url, String username, String pass,
+                                                                    PoolConfig poolConfig) {
+        return createPooledDataSource(createInMemoryH2DataSource(url, username, pass), poolConfig);
+    }
+
+    public static PooledDataSource createDefaultPooledPostgresDataSource() {
+        return createPooledDataSource(createDefaultPostgresDataSource(), PoolConfig.defaultConfig());
+    }
+
+    public static PooledDataSource createPooledPostgresDataSource(String url, String username, String pass,
+                                                                  PoolConfig poolConfig) {
+        return createPooledDataSource(createPostgresDataSource(url, username, pass), poolConfig);
+    }
+
+    /**
+     * Wraps any {@link DataSource} into a connection pool, so physical connections are reused between
+     * {@link DataSource#getConnection()} calls. The pool should be closed when it is not needed anymore.
+     *
+     * @param dataSource a data source that opens physical connections
+     * @param poolConfig pool settings
+     * @return a pooled data source
+     */
+    public static PooledDataSource createPooledDataSource(DataSource dataSource, PoolConfig poolConfig) {
+        return new PooledDataSource(dataSource, poolConfig);
+    }
+
+    /**
+     * Wraps any {@link DataSource} (including a pooled one) so that connection acquisition, statement executions,
+     * fetched rows and batch sizes are reported to a {@link MetricsSink}.
+     *
+     * @param dataSource         a data source to instrument
+     * @param metricsSink        receiver of the measurements, e.g. {@link com.bobocode.util.metrics.JdbcMetrics}
+     * @param slowQueryThreshold statements that execute at least this long are logged
+     * @return an instrumented data source
+     */
+    public static InstrumentedDataSource createInstrumentedDataSource(DataSource dataSource, MetricsSink metricsSink,
+                                                                      Duration slowQueryThreshold) {
+        return new InstrumentedDataSource(dataSource, metricsSink, slowQueryThreshold);
+    }
+
     public static Map<String, String> getInMemoryDbPropertiesMap() {
         return Map.of(
                 "url", String.format("jdbc:h2:mem:%s", DEFAULT_DATABASE_NAME),
@@ -0,0 +1,170 @@
+package com.bobocode.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ResourceLoader} reads UTF-8 text resources from the classpath, both from directories and from jars.
+ * <p>
+ * Resources that are plain files are memory-mapped with a {@link FileChannel}, and other resources (e.g. entries of
+ * a jar) are read with a single {@link InputStream#readAllBytes()} call. Contents of resources that are not bigger
+ * than {@link ResourceLoader#MAX_CACHED_SIZE} are cached, so every resource is read only once. The size is checked
+ * before the resource is read, and bigger resources, or resources of unknown size, are decoded while they are read and
+ * are not cached. Large resources, like SQL seed scripts, should rather be read with
+ * {@link ResourceLoader#openReader(String)}, which streams the content instead of holding it in memory.
+ */
+public class ResourceLoader {
+    /**
+     * Maximum size in bytes of a resource whose content is cached.
+     */
+    public static final int MAX_CACHED_SIZE = 1024 * 1024;
+
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private ResourceLoader() {
+    }
+
+    /**
+     * Returns the whole content of a classpath resource.
+     *
+     * @param resourceName resource name, e.g. {@code db/init.sql}
+     * @return resource content
+     * @throws FileReaderException if the resource does not exist or cannot be read
+     */
+    public static String readString(String resourceName) {
+        String cachedContent = CACHE.get(resourceName);
+        if (cachedContent != null) {
+            return cachedContent;
+        }
+        URL url = getResource(resourceName);
+        try {
+            if (isFile(url)) {
+                Path path = Path.of(url.toURI());
+                if (Files.size(path) > MAX_CACHED_SIZE) {
+                    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                        return readAll(reader);
+                    }
+                }
+                return cache(resourceName, readFile(path));
+            }
+            URLConnection connection = openConnection(url);
+            try (InputStream inputStream = connection.getInputStream()) {
+                long size = connection.getContentLengthLong();
+                if (size < 0 || size > MAX_CACHED_SIZE) {
+                    return readAll(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+                }
+                return cache(resourceName, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new FileReaderException("Cannot read resource " + url, e);
+        }
+    }
+
+    private static String cache(String resourceName, String content) {
+        String cachedContent = CACHE.putIfAbsent(resourceName, content);
+        return cachedContent != null ? cachedContent : content;
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringWriter writer = new StringWriter();
+        reader.transferTo(writer);
+        return writer.toString();
+    }
+
+    /**
+     * Returns the whole content of a resource located by URL. The content is not cached.
+     *
+     * @param url resource URL, e.g. {@code file:} or {@code jar:file:}
+     * @return resource content
+     * @throws FileReaderException if the resource cannot be read
+     */
+    public static String readString(URL url) {
+        try {
+            if (isFile(url)) {
+                return readFile(Path.of(url.toURI()));
+            }
+            try (InputStream inputStream = openStream(url)) {
+                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new FileReaderException("Cannot read resource " + url, e);
+        }
+    }
+
+    private static String readFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    }
+
+    /**
+     * Opens a buffered reader over a classpath resource. The content is decoded while it is read, so the resource
+     * is never held in memory as a whole. The reader must be closed by the caller.
+     *
+     * @param resourceName resource name, e.g. {@code db/seed.sql}
+     * @return resource reader
+     * @throws FileReaderException if the resource does not exist or cannot be opened
+     */
+    public static Reader openReader(String resourceName) {
+        return openReader(getResource(resourceName));
+    }
+
+    /**
+     * Opens a buffered reader over a resource located by URL. The reader must be closed by the caller.
+     *
+     * @param url resource URL, e.g. {@code file:} or {@code jar:file:}
+     * @return resource reader
+     * @throws FileReaderException if the resource cannot be opened
+     */
+    public static Reader openReader(URL url) {
+        try {
+            if (isFile(url)) {
+                return Files.newBufferedReader(Path.of(url.toURI()), StandardCharsets.UTF_8);
+            }
+            return new BufferedReader(new InputStreamReader(openStream(url), StandardCharsets.UTF_8));
+        } catch (IOException | URISyntaxException e) {
+            throw new FileReaderException("Cannot open resource " + url, e);
+        }
+    }
+
+    private static URL getResource(String resourceName) {
+        Objects.requireNonNull(resourceName);
+        URL url = ResourceLoader.class.getClassLoader().getResource(resourceName);
+        if (url == null) {
+            throw new FileReaderException("Resource " + resourceName + " is not found");
+        }
+        return url;
+    }
+
+    private static boolean isFile(URL url) {
+        return "file".equals(url.getProtocol());
+    }
+
+    private static InputStream openStream(URL url) throws IOException {
+        return openConnection(url).getInputStream();
+    }
+
+    private static URLConnection openConnection(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        // a cached jar connection keeps the jar file open after the stream is closed
+        connection.setUseCaches(false);
+        return connection;
+    }
+}
@@ -0,0 +1,111 @@
+package com.bobocode.util.copy;
+
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * {@link BulkLoader} inserts large amounts of rows described by a {@link CopyTable}.
+ * <p>
+ * On PostgreSQL, rows are streamed through {@code COPY ... FROM STDIN} in CSV format using the PgJDBC
+ * {@link org.postgresql.copy.CopyManager}. Rows are encoded one by one while the driver sends the data, so the whole
+ * payload is never built in memory. Other databases (e.g. H2 in tests) fall back to batched {@code INSERT}
+ * statements. Neither way returns generated ids, so use it for data loads, not for saving entities that are used
+ * afterwards.
+ */
+public class BulkLoader {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private BulkLoader() {
+    }
+
+    /**
+     * Loads all rows within a single transaction. Either all rows are stored, or none of them.
+     *
+     * @param dataSource data source to take a connection from
+     * @param table      target table description
+     * @param rows       rows to load
+     * @param <T>        type of loaded objects
+     * @return number of loaded rows
+     * @throws BulkLoaderException if the rows cannot be loaded
+     */
+    public static <T> long load(DataSource dataSource, CopyTable<T> table, Stream<T> rows) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long loadedCount = load(connection, table, rows.iterator());
+                connection.commit();
+                return loadedCount;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new BulkLoaderException("Error loading rows into " + table.getTableName(), e);
+        }
+    }
+
+    /**
+     * Loads rows using the given connection. The connection transaction is neither committed nor rolled back, so the
+     * method can be a part of a bigger unit of work.
+     *
+     * @param connection connection to use
+     * @param table      target table description
+     * @param rows       rows to load
+     * @param <T>        type of loaded objects
+     * @return number of loaded rows
+     * @throws SQLException if the rows cannot be loaded
+     */
+    public static <T> long load(Connection connection, CopyTable<T> table, Iterator<T> rows) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return copy(connection.unwrap(PGConnection.class), table, rows);
+        }
+        return insertInBatches(connection, table, rows);
+    }
+
+    private static <T> long copy(PGConnection connection, CopyTable<T> table, Iterator<T> rows) throws SQLException {
+        try (CsvRowReader<T> reader = new CsvRowReader<>(table, rows)) {
+            return connection.getCopyAPI().copyIn(table.getCopySql(), reader);
+        } catch (IOException e) {
+            throw new SQLException("Error streaming rows to COPY", e);
+        }
+    }
+
+    private static <T> long insertInBatches(Connection connection, CopyTable<T> table, Iterator<T> rows)
+            throws SQLException {
+        List<Function<T, ?>> columnValues = table.getColumnValues();
+        long loadedCount = 0;
+        try (PreparedStatement statement = connection.prepareStatement(table.getInsertSql())) {
+            int batchedCount = 0;
+            while (rows.hasNext()) {
+                T row = rows.next();
+                for (int i = 0; i < columnValues.size(); i++) {
+                    Object value = columnValues.get(i).apply(row);
+                    statement.setObject(i + 1, value instanceof Enum<?> enumValue ? enumValue.name() : value);
+                }
+                statement.addBatch();
+                if (++batchedCount == DEFAULT_BATCH_SIZE) {
+                    statement.executeBatch();
+                    loadedCount += batchedCount;
+                    batchedCount = 0;
+                }
+            }
+            if (batchedCount > 0) {
+                statement.executeBatch();
+                loadedCount += batchedCount;
+            }
+        }
+        return loadedCount;
+    }
+}
@@ -0,0 +1,7 @@
+package com.bobocode.util.copy;
+
+public class BulkLoaderException extends RuntimeException {
+    public BulkLoaderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
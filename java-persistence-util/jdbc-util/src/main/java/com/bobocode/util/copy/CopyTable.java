@@ -0,0 +1,64 @@
+package com.bobocode.util.copy;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link CopyTable} describes how objects of type {@code T} are written to a table by {@link BulkLoader}: the table
+ * name, and the list of columns together with functions that extract column values from an object. Columns that
+ * are not listed (e.g. generated ids or columns with defaults) are filled by the database.
+ *
+ * @param <T> type of loaded objects
+ */
+@Getter
+public class CopyTable<T> {
+    private final String tableName;
+    private final List<String> columnNames;
+    private final List<Function<T, ?>> columnValues;
+
+    private CopyTable(String tableName, List<String> columnNames, List<Function<T, ?>> columnValues) {
+        this.tableName = tableName;
+        this.columnNames = List.copyOf(columnNames);
+        this.columnValues = List.copyOf(columnValues);
+    }
+
+    public static <T> Builder<T> builder(String tableName) {
+        return new Builder<>(tableName);
+    }
+
+    String getCopySql() {
+        return String.format("COPY %s (%s) FROM STDIN WITH (FORMAT csv)", tableName, String.join(", ", columnNames));
+    }
+
+    String getInsertSql() {
+        return String.format("INSERT INTO %s (%s) VALUES (%s)", tableName, String.join(", ", columnNames),
+                String.join(", ", Collections.nCopies(columnNames.size(), "?")));
+    }
+
+    public static class Builder<T> {
+        private final String tableName;
+        private final List<String> columnNames = new ArrayList<>();
+        private final List<Function<T, ?>> columnValues = new ArrayList<>();
+
+        private Builder(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public Builder<T> column(String columnName, Function<T, ?> columnValue) {
+            columnNames.add(columnName);
+            columnValues.add(columnValue);
+            return this;
+        }
+
+        public CopyTable<T> build() {
+            if (columnNames.isEmpty()) {
+                throw new IllegalStateException("Table " + tableName + " must have at least one column");
+            }
+            return new CopyTable<>(tableName, columnNames, columnValues);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.bobocode.util.copy;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link CsvRowReader} is a {@link Reader} that encodes objects into PostgreSQL CSV {@code COPY} format on demand.
+ * Only the row that is currently being read is kept in memory, so the size of the payload is not limited by the heap.
+ * <p>
+ * {@code null} is written as an unquoted empty value, which {@code COPY} reads as {@code NULL}. Strings are always
+ * quoted, so an empty string stays an empty string.
+ *
+ * @param <T> type of encoded objects
+ */
+class CsvRowReader<T> extends Reader {
+    private final Iterator<T> rows;
+    private final List<Function<T, ?>> columnValues;
+    private final StringBuilder buffer = new StringBuilder(256);
+    private int position;
+
+    CsvRowReader(CopyTable<T> table, Iterator<T> rows) {
+        this.rows = rows;
+        this.columnValues = table.getColumnValues();
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) {
+        int readCount = 0;
+        while (readCount < length) {
+            if (position == buffer.length()) {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                encodeRow(rows.next());
+            }
+            int count = Math.min(length - readCount, buffer.length() - position);
+            buffer.getChars(position, position + count, chars, offset + readCount);
+            position += count;
+            readCount += count;
+        }
+        return readCount == 0 && length > 0 ? -1 : readCount;
+    }
+
+    private void encodeRow(T row) {
+        buffer.setLength(0);
+        position = 0;
+        for (int i = 0; i < columnValues.size(); i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            encodeValue(columnValues.get(i).apply(row));
+        }
+        buffer.append('\n');
+    }
+
+    private void encodeValue(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            buffer.append(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+        } else if (value instanceof Enum<?> enumValue) {
+            appendQuoted(enumValue.name());
+        } else if (value instanceof LocalDateTime dateTime) {
+            buffer.append(dateTime.toLocalDate()).append(' ').append(dateTime.toLocalTime());
+        } else {
+            appendQuoted(value.toString());
+        }
+    }
+
+    private void appendQuoted(String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+
+    @Override
+    public void close() {
+        // rows are owned by the caller
+    }
+}
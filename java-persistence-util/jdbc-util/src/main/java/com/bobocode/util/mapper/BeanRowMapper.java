@@ -0,0 +1,196 @@
+package com.bobocode.util.mapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link BeanRowMapper} maps result set rows to objects of a class with a no-arg constructor by writing its fields
+ * directly. A column is mapped to the field with the same name ignoring case and underscores, so column
+ * {@code expiration_date} is written to field {@code expirationDate}. Columns without a matching field are ignored,
+ * and fields without a matching column keep their initial values.
+ * <p>
+ * Field setters and the constructor are resolved with {@link MethodHandles} once per class, and mappers are shared
+ * via {@link BeanRowMapper#of(Class)}. Column indices are resolved once per result set structure by
+ * {@link BeanRowMapper#compile(ResultSetMetaData)}, so the returned {@link RowMapper} reads columns by index and
+ * does not do any name lookups. A compiled mapper is cached by the list of column labels and can be reused for any
+ * result set with the same columns.
+ * <p>
+ * Supported field types are listed in {@link ColumnReader}. Values of other types are read with
+ * {@link ResultSet#getObject(int, Class)}.
+ *
+ * @param <T> type of mapped objects
+ */
+public class BeanRowMapper<T> implements RowMapper<T> {
+    private static final ClassValue<BeanRowMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected BeanRowMapper<?> computeValue(Class<?> type) {
+            return new BeanRowMapper<>(type);
+        }
+    };
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final Map<String, Property> properties;
+    private final Map<List<String>, RowMapper<T>> compiledMappers = new ConcurrentHashMap<>();
+
+    private BeanRowMapper(Class<T> type) {
+        this.type = type;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+            this.properties = resolveProperties(lookup, type);
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw new RowMapperException("Cannot create row mapper for " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Returns a shared mapper for a class. The class must have a no-arg constructor.
+     *
+     * @param type target class
+     * @param <T>  type of mapped objects
+     * @return row mapper
+     * @throws RowMapperException if the class cannot be instantiated or its fields cannot be accessed
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanRowMapper<T> of(Class<T> type) {
+        return (BeanRowMapper<T>) MAPPERS.get(type);
+    }
+
+    private static Map<String, Property> resolveProperties(MethodHandles.Lookup lookup, Class<?> type)
+            throws IllegalAccessException {
+        Map<String, Property> properties = new HashMap<>();
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (field.isSynthetic() || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)
+                        || Modifier.isTransient(modifiers)) {
+                    continue;
+                }
+                MethodHandle setter = MethodHandles.privateLookupIn(current, lookup).unreflectSetter(field)
+                        .asType(SETTER_TYPE);
+                properties.putIfAbsent(normalize(field.getName()),
+                        new Property(setter, ColumnReader.forType(field.getType()), field.getType().isPrimitive()));
+            }
+        }
+        return Map.copyOf(properties);
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns a mapper that reads columns by index for result sets with the given structure.
+     *
+     * @param metaData result set metadata
+     * @return compiled row mapper
+     * @throws SQLException if the metadata cannot be read
+     */
+    public RowMapper<T> compile(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<String> columnLabels = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columnLabels.add(metaData.getColumnLabel(i));
+        }
+        return compiledMappers.computeIfAbsent(List.copyOf(columnLabels), this::compile);
+    }
+
+    private RowMapper<T> compile(List<String> columnLabels) {
+        List<Integer> columnIndices = new ArrayList<>();
+        List<Property> columnProperties = new ArrayList<>();
+        for (int i = 0; i < columnLabels.size(); i++) {
+            Property property = properties.get(normalize(columnLabels.get(i)));
+            if (property != null) {
+                columnIndices.add(i + 1);
+                columnProperties.add(property);
+            }
+        }
+        return new CompiledRowMapper(columnIndices.stream().mapToInt(Integer::intValue).toArray(),
+                columnProperties.toArray(Property[]::new));
+    }
+
+    /**
+     * Maps the current row. The column indices are resolved for every call, so prefer
+     * {@link BeanRowMapper#compile(ResultSetMetaData)} or {@link BeanRowMapper#mapAll(ResultSet)} when reading
+     * multiple rows.
+     */
+    @Override
+    public T mapRow(ResultSet resultSet) throws SQLException {
+        return compile(resultSet.getMetaData()).mapRow(resultSet);
+    }
+
+    /**
+     * Maps all remaining rows of a result set.
+     *
+     * @param resultSet result set positioned before the first row to map
+     * @return list of mapped objects
+     * @throws SQLException if the rows cannot be read
+     */
+    public List<T> mapAll(ResultSet resultSet) throws SQLException {
+        RowMapper<T> rowMapper = compile(resultSet.getMetaData());
+        List<T> result = new ArrayList<>();
+        while (resultSet.next()) {
+            result.add(rowMapper.mapRow(resultSet));
+        }
+        return result;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    private record Property(MethodHandle setter, ColumnReader reader, boolean primitive) {
+    }
+
+    private class CompiledRowMapper implements RowMapper<T> {
+        private final int[] columnIndices;
+        private final MethodHandle[] setters;
+        private final ColumnReader[] readers;
+        private final boolean[] primitives;
+
+        CompiledRowMapper(int[] columnIndices, Property[] properties) {
+            this.columnIndices = columnIndices;
+            this.setters = new MethodHandle[properties.length];
+            this.readers = new ColumnReader[properties.length];
+            this.primitives = new boolean[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                setters[i] = properties[i].setter();
+                readers[i] = properties[i].reader();
+                primitives[i] = properties[i].primitive();
+            }
+        }
+
+        @Override
+        public T mapRow(ResultSet resultSet) throws SQLException {
+            try {
+                Object instance = (Object) constructor.invokeExact();
+                for (int i = 0; i < columnIndices.length; i++) {
+                    Object value = readers[i].read(resultSet, columnIndices[i]);
+                    if (value != null || !primitives[i]) {
+                        setters[i].invokeExact(instance, value);
+                    }
+                }
+                return type.cast(instance);
+            } catch (SQLException | RowMapperException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RowMapperException("Cannot map a row to " + type.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.bobocode.util.mapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * {@link ColumnReader} reads a column value of the current row by its index and converts it to a property type.
+ * Readers of primitive properties return {@code null} for SQL {@code NULL}, so the property keeps its default value.
+ */
+@FunctionalInterface
+interface ColumnReader {
+    Map<Class<?>, ColumnReader> READERS = Map.ofEntries(
+            Map.entry(String.class, ResultSet::getString),
+            Map.entry(long.class, (resultSet, index) -> nullable(resultSet, resultSet.getLong(index))),
+            Map.entry(Long.class, (resultSet, index) -> nullable(resultSet, resultSet.getLong(index))),
+            Map.entry(int.class, (resultSet, index) -> nullable(resultSet, resultSet.getInt(index))),
+            Map.entry(Integer.class, (resultSet, index) -> nullable(resultSet, resultSet.getInt(index))),
+            Map.entry(short.class, (resultSet, index) -> nullable(resultSet, resultSet.getShort(index))),
+            Map.entry(Short.class, (resultSet, index) -> nullable(resultSet, resultSet.getShort(index))),
+            Map.entry(double.class, (resultSet, index) -> nullable(resultSet, resultSet.getDouble(index))),
+            Map.entry(Double.class, (resultSet, index) -> nullable(resultSet, resultSet.getDouble(index))),
+            Map.entry(float.class, (resultSet, index) -> nullable(resultSet, resultSet.getFloat(index))),
+            Map.entry(Float.class, (resultSet, index) -> nullable(resultSet, resultSet.getFloat(index))),
+            Map.entry(boolean.class, (resultSet, index) -> nullable(resultSet, resultSet.getBoolean(index))),
+            Map.entry(Boolean.class, (resultSet, index) -> nullable(resultSet, resultSet.getBoolean(index))),
+            Map.entry(BigDecimal.class, ResultSet::getBigDecimal),
+            Map.entry(byte[].class, ResultSet::getBytes),
+            Map.entry(LocalDate.class, (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return timestamp == null ? null : timestamp.toLocalDateTime().toLocalDate();
+            }),
+            Map.entry(LocalDateTime.class, (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return timestamp == null ? null : timestamp.toLocalDateTime();
+            }),
+            Map.entry(Instant.class, (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return timestamp == null ? null : timestamp.toInstant();
+            }),
+            Map.entry(OffsetDateTime.class, (resultSet, index) -> resultSet.getObject(index, OffsetDateTime.class))
+    );
+
+    Object read(ResultSet resultSet, int index) throws SQLException;
+
+    /**
+     * Returns a reader for a property type. Enums are read by name, and other types are passed to
+     * {@link ResultSet#getObject(int, Class)}, so the driver decides whether the conversion is supported.
+     *
+     * @param type property type
+     * @return column reader
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ColumnReader forType(Class<?> type) {
+        ColumnReader reader = READERS.get(type);
+        if (reader != null) {
+            return reader;
+        }
+        if (type.isEnum()) {
+            return (resultSet, index) -> {
+                String name = resultSet.getString(index);
+                return name == null ? null : Enum.valueOf((Class<? extends Enum>) type, name);
+            };
+        }
+        return (resultSet, index) -> resultSet.getObject(index, type);
+    }
+
+    private static Object nullable(ResultSet resultSet, Object value) throws SQLException {
+        return resultSet.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bobocode.util.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@link RowMapper} creates an object from the current row of a {@link ResultSet}. A mapper never moves the cursor.
+ *
+ * @param <T> type of mapped objects
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,11 @@
+package com.bobocode.util.mapper;
+
+public class RowMapperException extends RuntimeException {
+    public RowMapperException(String message) {
+        super(message);
+    }
+
+    public RowMapperException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
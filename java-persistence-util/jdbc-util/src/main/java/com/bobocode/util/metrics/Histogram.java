@@ -0,0 +1,105 @@
+package com.bobocode.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Histogram} is a thread-safe histogram of non-negative {@code long} values (e.g. latencies in nanoseconds or
+ * batch sizes) with a fixed memory footprint.
+ * <p>
+ * Like HdrHistogram, it uses log-linear buckets: values below {@code 32} are counted exactly, and every following
+ * power-of-two range is split into {@code 16} equal buckets, so a recorded value is reported with a relative error
+ * below {@code 1/16}. All buckets are preallocated, so {@link Histogram#record(long)} does not allocate and costs a
+ * few atomic increments.
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as {@code 0}.
+     *
+     * @param value recorded value
+     */
+    public void record(long value) {
+        long recordedValue = Math.max(0, value);
+        counts.incrementAndGet(bucketIndex(recordedValue));
+        totalCount.increment();
+        totalSum.add(recordedValue);
+        long max;
+        while (recordedValue > (max = maxValue.get()) && !maxValue.compareAndSet(max, recordedValue)) {
+            // retry until the max is updated or a bigger value is recorded by another thread
+        }
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + (subBucket - HALF_SUB_BUCKET_COUNT);
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * Returns a value that the given percentage of recorded values is less than or equal to. The value is the upper
+     * bound of the bucket that contains the percentile, but never exceeds the max recorded value.
+     *
+     * @param percentile percentile in range {@code [0, 100]}
+     * @return value at percentile, or {@code 0} if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in range [0, 100], but was " + percentile);
+        }
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long targetCount = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long accumulatedCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulatedCount += counts.get(i);
+            if (accumulatedCount >= targetCount) {
+                return Math.min(highestValueInBucket(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.1f, p50=%d, p99=%d, max=%d", getCount(), getMean(),
+                getValueAtPercentile(50), getValueAtPercentile(99), getMax());
+    }
+}
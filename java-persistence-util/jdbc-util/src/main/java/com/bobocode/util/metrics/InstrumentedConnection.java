@@ -0,0 +1,258 @@
+package com.bobocode.util.metrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * {@link InstrumentedConnection} creates the proxies of an {@link InstrumentedDataSource}. A connection proxy wraps
+ * every statement it creates, a statement proxy measures {@code execute*} calls and wraps the returned result sets,
+ * and a result set proxy counts rows and reports them when it is closed. All other calls are passed to the target
+ * object unchanged.
+ * <p>
+ * Proxies are created on every borrow and every query, so their constructors are resolved once instead of going
+ * through {@link Proxy#newProxyInstance} each time.
+ */
+class InstrumentedConnection {
+    private static final String BATCH_OF_STATEMENTS = "<batch>";
+    private static final MethodHandle CONNECTION_PROXY = proxyConstructor(Connection.class);
+    private static final MethodHandle STATEMENT_PROXY = proxyConstructor(Statement.class);
+    private static final MethodHandle PREPARED_STATEMENT_PROXY = proxyConstructor(PreparedStatement.class);
+    private static final MethodHandle CALLABLE_STATEMENT_PROXY = proxyConstructor(CallableStatement.class);
+    private static final MethodHandle RESULT_SET_PROXY = proxyConstructor(ResultSet.class);
+
+    private InstrumentedConnection() {
+    }
+
+    static Connection wrap(Connection connection, InstrumentedDataSource dataSource) {
+        return (Connection) newProxy(CONNECTION_PROXY, new ConnectionHandler(connection, dataSource));
+    }
+
+    private static MethodHandle proxyConstructor(Class<?> type) {
+        Class<?> proxyClass = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> null).getClass();
+        try {
+            return MethodHandles.lookup().unreflectConstructor(proxyClass.getConstructor(InvocationHandler.class))
+                    .asType(MethodType.methodType(Object.class, InvocationHandler.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot resolve proxy constructor for " + type.getName(), e);
+        }
+    }
+
+    private static Object newProxy(MethodHandle proxyConstructor, InvocationHandler handler) {
+        try {
+            return (Object) proxyConstructor.invokeExact(handler);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create proxy", e);
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object handleIdentity(Object proxy, Object target, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "Instrumented" + target;
+            default -> null;
+        };
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class;
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final InstrumentedDataSource dataSource;
+
+        ConnectionHandler(Connection connection, InstrumentedDataSource dataSource) {
+            this.connection = connection;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return handleIdentity(proxy, connection, method, args);
+            }
+            Object result = invokeTarget(connection, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> wrapStatement(STATEMENT_PROXY, result, null, (Connection) proxy);
+                case "prepareStatement" ->
+                        wrapStatement(PREPARED_STATEMENT_PROXY, result, (String) args[0], (Connection) proxy);
+                case "prepareCall" -> wrapStatement(CALLABLE_STATEMENT_PROXY, result, (String) args[0], (Connection) proxy);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(MethodHandle proxyConstructor, Object statement, String sql, Connection owner) {
+            return newProxy(proxyConstructor, new StatementHandler((Statement) statement, sql, owner, dataSource));
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private final Connection owner;
+        private final InstrumentedDataSource dataSource;
+        private String batchSql;
+        private int batchSize;
+        private String lastSql;
+        private ResultSetHandler openResultSet;
+
+        StatementHandler(Statement statement, String preparedSql, Connection owner, InstrumentedDataSource dataSource) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.owner = owner;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return handleIdentity(proxy, statement, method, args);
+            }
+            String methodName = method.getName();
+            if (methodName.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            switch (methodName) {
+                case "addBatch" -> {
+                    batchSize++;
+                    if (args != null && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                }
+                case "clearBatch" -> {
+                    batchSize = 0;
+                    batchSql = null;
+                }
+                case "getConnection" -> {
+                    return owner;
+                }
+                case "close" -> reportOpenResultSet();
+                default -> {
+                }
+            }
+            Object result = invokeTarget(statement, method, args);
+            if (result instanceof ResultSet resultSet && !methodName.equals("getGeneratedKeys")) {
+                return wrapResultSet(resultSet, lastSql != null ? lastSql : sqlOf(args), (Statement) proxy);
+            }
+            return result;
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            boolean batch = methodName.equals("executeBatch") || methodName.equals("executeLargeBatch");
+            String sql = batch ? batchSqlOf() : sqlOf(args);
+            // executing a statement closes its current result set
+            reportOpenResultSet();
+            lastSql = sql;
+            long startNanos = System.nanoTime();
+            Object result = invokeTarget(statement, method, args);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (batch) {
+                dataSource.recordBatch(sql, elapsedNanos, batchSize);
+                batchSize = 0;
+                batchSql = null;
+                return result;
+            }
+            if (result instanceof ResultSet resultSet) {
+                dataSource.recordExecution(sql, elapsedNanos, -1);
+                return wrapResultSet(resultSet, sql, (Statement) proxy);
+            }
+            long updateCount = result instanceof Number number ? number.longValue() : statement.getUpdateCount();
+            dataSource.recordExecution(sql, elapsedNanos, updateCount);
+            return result;
+        }
+
+        private String sqlOf(Object[] args) {
+            if (preparedSql != null) {
+                return preparedSql;
+            }
+            return args != null && args.length > 0 && args[0] instanceof String sql ? sql : "<unknown>";
+        }
+
+        private String batchSqlOf() {
+            if (preparedSql != null) {
+                return preparedSql;
+            }
+            return batchSize == 1 && batchSql != null ? batchSql : BATCH_OF_STATEMENTS;
+        }
+
+        private Object wrapResultSet(ResultSet resultSet, String sql, Statement owner) {
+            reportOpenResultSet();
+            openResultSet = new ResultSetHandler(resultSet, sql, owner, dataSource);
+            return newProxy(RESULT_SET_PROXY, openResultSet);
+        }
+
+        private void reportOpenResultSet() {
+            if (openResultSet != null) {
+                openResultSet.reportFetchedRows();
+                openResultSet = null;
+            }
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final String sql;
+        private final Statement owner;
+        private final InstrumentedDataSource dataSource;
+        private long rowCount;
+        private boolean reported;
+
+        ResultSetHandler(ResultSet resultSet, String sql, Statement owner, InstrumentedDataSource dataSource) {
+            this.resultSet = resultSet;
+            this.sql = sql;
+            this.owner = owner;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return handleIdentity(proxy, resultSet, method, args);
+            }
+            switch (method.getName()) {
+                case "next" -> {
+                    boolean hasRow = resultSet.next();
+                    if (hasRow) {
+                        rowCount++;
+                    }
+                    return hasRow;
+                }
+                case "close" -> reportFetchedRows();
+                case "getStatement" -> {
+                    return owner;
+                }
+                default -> {
+                }
+            }
+            return invokeTarget(resultSet, method, args);
+        }
+
+        void reportFetchedRows() {
+            if (!reported) {
+                reported = true;
+                dataSource.recordFetchedRows(sql, rowCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bobocode.util.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link JdbcMetrics} is an in-memory {@link MetricsSink} that keeps a {@link Histogram} of connection acquisition
+ * time and {@link StatementMetrics} per SQL text. Statements are usually prepared from a fixed set of SQL constants,
+ * so the number of tracked statements stays small. Statements built by concatenating values would create an entry
+ * per value, so they should use parameters instead.
+ * <p>
+ * Every tracked SQL text holds two histograms, so the number of SQL texts is limited. Once the limit is reached,
+ * statements with new SQL texts are recorded together under {@link JdbcMetrics#OTHER_SQL}.
+ */
+public class JdbcMetrics implements MetricsSink {
+    /**
+     * Key of the metrics of statements whose SQL texts are not tracked because of the limit
+     */
+    public static final String OTHER_SQL = "other";
+    public static final int DEFAULT_MAX_TRACKED_SQL_COUNT = 1000;
+
+    private final Histogram connectionAcquireTimeNanos = new Histogram();
+    private final Map<String, StatementMetrics> statementMetrics = new ConcurrentHashMap<>();
+    private final int maxTrackedSqlCount;
+    private final AtomicInteger trackedSqlCount = new AtomicInteger();
+
+    public JdbcMetrics() {
+        this(DEFAULT_MAX_TRACKED_SQL_COUNT);
+    }
+
+    /**
+     * @param maxTrackedSqlCount maximum number of SQL texts that get their own metrics
+     */
+    public JdbcMetrics(int maxTrackedSqlCount) {
+        if (maxTrackedSqlCount <= 0) {
+            throw new IllegalArgumentException("Max tracked SQL count must be positive, but was " + maxTrackedSqlCount);
+        }
+        this.maxTrackedSqlCount = maxTrackedSqlCount;
+    }
+
+    @Override
+    public void onConnectionAcquired(long elapsedNanos) {
+        connectionAcquireTimeNanos.record(elapsedNanos);
+    }
+
+    @Override
+    public void onStatementExecuted(String sql, long elapsedNanos, long updateCount) {
+        metricsOf(sql).recordExecution(elapsedNanos, updateCount);
+    }
+
+    @Override
+    public void onRowsFetched(String sql, long rowCount) {
+        metricsOf(sql).recordFetchedRows(rowCount);
+    }
+
+    @Override
+    public void onBatchExecuted(String sql, long elapsedNanos, int batchSize) {
+        metricsOf(sql).recordBatch(elapsedNanos, batchSize);
+    }
+
+    @Override
+    public void onSlowStatement(String sql, long elapsedNanos) {
+        metricsOf(sql).recordSlowExecution();
+    }
+
+    private StatementMetrics metricsOf(String sql) {
+        StatementMetrics metrics = statementMetrics.get(sql);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (trackedSqlCount.get() < maxTrackedSqlCount) {
+            metrics = statementMetrics.computeIfAbsent(sql, this::newTrackedMetrics);
+        }
+        return metrics != null ? metrics : statementMetrics.computeIfAbsent(OTHER_SQL, key -> new StatementMetrics());
+    }
+
+    /**
+     * @return new metrics, or {@code null} if the limit is reached, so no entry is added
+     */
+    private StatementMetrics newTrackedMetrics(String sql) {
+        if (trackedSqlCount.incrementAndGet() > maxTrackedSqlCount) {
+            trackedSqlCount.decrementAndGet();
+            return null;
+        }
+        return new StatementMetrics();
+    }
+
+    public Histogram getConnectionAcquireTimeNanos() {
+        return connectionAcquireTimeNanos;
+    }
+
+    /**
+     * @param sql statement SQL text
+     * @return metrics of the statement, or {@code null} if it was never executed or is counted under
+     * {@link JdbcMetrics#OTHER_SQL}
+     */
+    public StatementMetrics getStatementMetrics(String sql) {
+        return statementMetrics.get(sql);
+    }
+
+    /**
+     * @return unmodifiable live view of metrics by SQL text
+     */
+    public Map<String, StatementMetrics> getStatementMetrics() {
+        return Collections.unmodifiableMap(statementMetrics);
+    }
+}
@@ -0,0 +1,48 @@
+package com.bobocode.util.metrics;
+
+/**
+ * {@link MetricsSink} receives the measurements of an {@link InstrumentedDataSource}. Methods are called on the
+ * thread that uses the connection, right after the measured call returns, so implementations must be thread-safe
+ * and cheap. {@link JdbcMetrics} keeps everything in memory, and other implementations may forward the values to a
+ * monitoring system.
+ */
+public interface MetricsSink {
+    /**
+     * @param elapsedNanos time spent in {@link javax.sql.DataSource#getConnection()}
+     */
+    void onConnectionAcquired(long elapsedNanos);
+
+    /**
+     * Called when a statement is executed. For queries, the time does not include reading the result set.
+     *
+     * @param sql          statement SQL text
+     * @param elapsedNanos execution time
+     * @param updateCount  number of updated rows, or {@code -1} for queries
+     */
+    void onStatementExecuted(String sql, long elapsedNanos, long updateCount);
+
+    /**
+     * Called when a result set of a query is closed.
+     *
+     * @param sql      query SQL text
+     * @param rowCount number of rows read from the result set
+     */
+    void onRowsFetched(String sql, long rowCount);
+
+    /**
+     * @param sql          statement SQL text
+     * @param elapsedNanos time spent in {@link java.sql.Statement#executeBatch()}
+     * @param batchSize    number of statements in the batch
+     */
+    void onBatchExecuted(String sql, long elapsedNanos, int batchSize);
+
+    /**
+     * Called in addition to {@link MetricsSink#onStatementExecuted} or {@link MetricsSink#onBatchExecuted} when the
+     * execution took longer than the slow query threshold.
+     *
+     * @param sql          statement SQL text
+     * @param elapsedNanos execution time
+     */
+    default void onSlowStatement(String sql, long elapsedNanos) {
+    }
+}
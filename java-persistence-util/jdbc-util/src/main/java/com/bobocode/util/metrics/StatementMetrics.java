@@ -0,0 +1,63 @@
+package com.bobocode.util.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link StatementMetrics} holds the measurements of a single SQL text collected by {@link JdbcMetrics}.
+ */
+public class StatementMetrics {
+    private final Histogram executionTimeNanos = new Histogram();
+    private final Histogram batchSizes = new Histogram();
+    private final LongAdder updatedRows = new LongAdder();
+    private final LongAdder fetchedRows = new LongAdder();
+    private final LongAdder slowExecutions = new LongAdder();
+
+    void recordExecution(long elapsedNanos, long updateCount) {
+        executionTimeNanos.record(elapsedNanos);
+        if (updateCount > 0) {
+            updatedRows.add(updateCount);
+        }
+    }
+
+    void recordBatch(long elapsedNanos, int batchSize) {
+        executionTimeNanos.record(elapsedNanos);
+        batchSizes.record(batchSize);
+    }
+
+    void recordFetchedRows(long rowCount) {
+        fetchedRows.add(rowCount);
+    }
+
+    void recordSlowExecution() {
+        slowExecutions.increment();
+    }
+
+    /**
+     * @return execution time of single statements and batches in nanoseconds
+     */
+    public Histogram getExecutionTimeNanos() {
+        return executionTimeNanos;
+    }
+
+    public Histogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    public long getUpdatedRows() {
+        return updatedRows.sum();
+    }
+
+    public long getFetchedRows() {
+        return fetchedRows.sum();
+    }
+
+    public long getSlowExecutions() {
+        return slowExecutions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("executionTimeNanos=[%s], batchSizes=[%s], updatedRows=%d, fetchedRows=%d, slow=%d",
+                executionTimeNanos, batchSizes, getUpdatedRows(), getFetchedRows(), getSlowExecutions());
+    }
+}
@@ -0,0 +1,70 @@
+package com.bobocode.util.migration;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Migration} is a versioned SQL script found by {@link Migrator}. Script names follow the
+ * {@code V<version>__<description>.sql} convention, where version parts are separated by dots or underscores, e.g.
+ * {@code V1__create_account_table.sql} or {@code V2_1__add_balance_index.sql}. Versions are compared numerically,
+ * so {@code 1.10} comes after {@code 1.9}.
+ */
+@Getter
+public class Migration implements Comparable<Migration> {
+    /**
+     * Normalized version, e.g. {@code 2.1}.
+     */
+    private final String version;
+    private final String description;
+    private final String scriptName;
+    /**
+     * CRC32 of the script lines, each followed by {@code \n}, so the checksum does not depend on line terminators of
+     * the checkout, while moving text to another line changes it.
+     */
+    private final int checksum;
+    @Getter(AccessLevel.NONE)
+    private final long[] versionParts;
+    @Getter(AccessLevel.PACKAGE)
+    private final URL url;
+
+    Migration(String version, String description, String scriptName, int checksum, URL url) {
+        this.versionParts = Arrays.stream(version.split("[._]")).mapToLong(Long::parseLong).toArray();
+        this.version = Arrays.stream(versionParts).mapToObj(Long::toString).collect(Collectors.joining("."));
+        this.description = description;
+        this.scriptName = scriptName;
+        this.checksum = checksum;
+        this.url = url;
+    }
+
+    @Override
+    public int compareTo(Migration other) {
+        return compareVersions(versionParts, other.versionParts);
+    }
+
+    static int compareVersions(String first, String second) {
+        return compareVersions(parse(first), parse(second));
+    }
+
+    private static long[] parse(String version) {
+        return Arrays.stream(version.split("\\.")).mapToLong(Long::parseLong).toArray();
+    }
+
+    private static int compareVersions(long[] first, long[] second) {
+        for (int i = 0; i < Math.max(first.length, second.length); i++) {
+            int result = Long.compare(i < first.length ? first[i] : 0, i < second.length ? second[i] : 0);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " (" + description + ")";
+    }
+}
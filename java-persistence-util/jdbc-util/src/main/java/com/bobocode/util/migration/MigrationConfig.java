@@ -0,0 +1,47 @@
+package com.bobocode.util.migration;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * {@link MigrationConfig} holds the settings of a {@link Migrator}. Use {@link MigrationConfig#builder()} to override
+ * the defaults.
+ */
+@Getter
+@Builder
+@ToString
+public class MigrationConfig {
+    /**
+     * Classpath location of {@code V<version>__<description>.sql} scripts.
+     */
+    @Builder.Default
+    private final String location = "db/migration";
+
+    /**
+     * Table that stores versions and checksums of applied migrations.
+     */
+    @Builder.Default
+    private final String historyTable = "schema_history";
+
+    /**
+     * Maximum time a node waits while another node holds the migration lock.
+     */
+    @Builder.Default
+    private final Duration lockTimeout = Duration.ofMinutes(1);
+
+    public static MigrationConfig defaultConfig() {
+        return MigrationConfig.builder().build();
+    }
+
+    void validate() {
+        if (!historyTable.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("History table must be a plain SQL identifier, but was " + historyTable);
+        }
+        if (lockTimeout.isZero() || lockTimeout.isNegative()) {
+            throw new IllegalArgumentException("Lock timeout must be positive, but was " + lockTimeout);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bobocode.util.migration;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.zip.CRC32;
+
+/**
+ * {@link MigrationLock} makes sure that only one node migrates a database at a time. The lock is held by its own
+ * connection, so migrations are executed on other connections.
+ * <p>
+ * On PostgreSQL, it is a session-level advisory lock ({@code pg_advisory_lock}) whose key is derived from the history
+ * table name. Other databases (H2 in tests) have no advisory locks, so a row of the {@code <history table>_lock}
+ * table is locked with {@code SELECT ... FOR UPDATE} in a transaction that is rolled back on release.
+ * <p>
+ * The lock timeout is a setting of the database session, so its previous value is restored on release, and a pooled
+ * lock connection is returned with the settings it was taken with.
+ */
+abstract class MigrationLock implements AutoCloseable {
+    final Connection connection;
+
+    private MigrationLock(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Takes a new connection from the data source and locks it. The connection is closed if the lock cannot be taken.
+     *
+     * @param dataSource data source to take the lock connection from
+     * @param config     migration config
+     * @return lock that must be closed to release the lock and its connection
+     * @throws SQLException if the lock is not taken within the lock timeout
+     */
+    static MigrationLock acquire(DataSource dataSource, MigrationConfig config) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            MigrationLock lock = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                    ? new AdvisoryLock(connection, config.getHistoryTable())
+                    : new TableLock(connection, config.getHistoryTable() + "_lock");
+            lock.lock(config.getLockTimeout().toMillis());
+            return lock;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.close();
+            } catch (SQLException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
+    abstract void lock(long timeoutMillis) throws SQLException;
+
+    abstract void unlock() throws SQLException;
+
+    @Override
+    public void close() throws SQLException {
+        try (connection) {
+            unlock();
+        }
+    }
+
+    private static class AdvisoryLock extends MigrationLock {
+        private final long key;
+        private String previousLockTimeout;
+
+        private AdvisoryLock(Connection connection, String historyTable) {
+            super(connection);
+            CRC32 crc32 = new CRC32();
+            crc32.update(historyTable.getBytes(StandardCharsets.UTF_8));
+            this.key = crc32.getValue();
+        }
+
+        @Override
+        void lock(long timeoutMillis) throws SQLException {
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet resultSet = statement.executeQuery("SHOW lock_timeout")) {
+                    resultSet.next();
+                    previousLockTimeout = resultSet.getString(1);
+                }
+                // lock_timeout applies to advisory locks too, so a node does not wait forever for a stuck migration
+                statement.execute("SET lock_timeout = " + timeoutMillis);
+            }
+            executeWithKey("SELECT pg_advisory_lock(?)");
+        }
+
+        @Override
+        void unlock() throws SQLException {
+            try {
+                executeWithKey("SELECT pg_advisory_unlock(?)");
+            } finally {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT set_config('lock_timeout', ?, false)")) {
+                    statement.setString(1, previousLockTimeout);
+                    statement.execute();
+                }
+            }
+        }
+
+        private void executeWithKey(String sql) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, key);
+                statement.execute();
+            }
+        }
+    }
+
+    private static class TableLock extends MigrationLock {
+        private final String lockTable;
+        private long previousLockTimeout;
+
+        private TableLock(Connection connection, String lockTable) {
+            super(connection);
+            this.lockTable = lockTable;
+        }
+
+        @Override
+        void lock(long timeoutMillis) throws SQLException {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + lockTable + " (id INT PRIMARY KEY)");
+                statement.execute("MERGE INTO " + lockTable + " KEY (id) VALUES (1)");
+                try (ResultSet resultSet = statement.executeQuery("SELECT LOCK_TIMEOUT()")) {
+                    resultSet.next();
+                    previousLockTimeout = resultSet.getLong(1);
+                }
+                statement.execute("SET LOCK_TIMEOUT " + timeoutMillis);
+                connection.setAutoCommit(false);
+                statement.execute("SELECT id FROM " + lockTable + " WHERE id = 1 FOR UPDATE");
+            }
+        }
+
+        @Override
+        void unlock() throws SQLException {
+            try {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LOCK_TIMEOUT " + previousLockTimeout);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bobocode.util.migration;
+
+import com.bobocode.util.ResourceLoader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * {@link MigrationScanner} finds migration scripts in a classpath location. The location may be a directory or a jar
+ * entry, and it may be present in several classpath roots.
+ */
+class MigrationScanner {
+    private static final Pattern SCRIPT_NAME_PATTERN = Pattern.compile("V(\\d+(?:[._]\\d+)*)__(.+)\\.sql");
+
+    private MigrationScanner() {
+    }
+
+    /**
+     * @return migrations sorted by version
+     * @throws MigrationException if the location cannot be read or two scripts have the same version
+     */
+    static List<Migration> scan(ClassLoader classLoader, String location) {
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            Enumeration<URL> locationUrls = classLoader.getResources(location);
+            while (locationUrls.hasMoreElements()) {
+                URL locationUrl = locationUrls.nextElement();
+                for (URL scriptUrl : listScripts(locationUrl, location)) {
+                    createMigration(scriptUrl).ifPresent(migrations::add);
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new MigrationException("Error scanning migrations in " + location, e);
+        }
+        migrations.sort(null);
+        checkUniqueVersions(migrations);
+        return migrations;
+    }
+
+    private static List<URL> listScripts(URL locationUrl, String location) throws IOException, URISyntaxException {
+        if ("file".equals(locationUrl.getProtocol())) {
+            try (Stream<Path> files = Files.list(Path.of(locationUrl.toURI()))) {
+                List<URL> scriptUrls = new ArrayList<>();
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    scriptUrls.add(file.toUri().toURL());
+                }
+                return scriptUrls;
+            }
+        }
+        if (locationUrl.openConnection() instanceof JarURLConnection jarConnection) {
+            // an uncached connection opens its own jar file, so closing it does not affect other readers
+            jarConnection.setUseCaches(false);
+            String prefix = location.endsWith("/") ? location : location + "/";
+            List<URL> scriptUrls = new ArrayList<>();
+            try (JarFile jarFile = jarConnection.getJarFile()) {
+                for (JarEntry entry : (Iterable<JarEntry>) jarFile.stream()::iterator) {
+                    String entryName = entry.getName();
+                    if (!entry.isDirectory() && entryName.startsWith(prefix)
+                            && entryName.indexOf('/', prefix.length()) < 0) {
+                        scriptUrls.add(URI.create("jar:" + jarConnection.getJarFileURL() + "!/" + entryName).toURL());
+                    }
+                }
+            }
+            return scriptUrls;
+        }
+        throw new MigrationException("Unsupported migration location " + locationUrl);
+    }
+
+    private static Optional<Migration> createMigration(URL scriptUrl) throws IOException {
+        String path = scriptUrl.getPath();
+        String scriptName = path.substring(path.lastIndexOf('/') + 1);
+        Matcher matcher = SCRIPT_NAME_PATTERN.matcher(scriptName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        String description = matcher.group(2).replace('_', ' ');
+        return Optional.of(new Migration(matcher.group(1), description, scriptName, checksum(scriptUrl),
+                scriptUrl));
+    }
+
+    private static int checksum(URL scriptUrl) throws IOException {
+        CRC32 crc32 = new CRC32();
+        try (BufferedReader reader = new BufferedReader(ResourceLoader.openReader(scriptUrl))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                crc32.update(line.getBytes(StandardCharsets.UTF_8));
+                crc32.update('\n');
+            }
+        }
+        return (int) crc32.getValue();
+    }
+
+    private static void checkUniqueVersions(List<Migration> migrations) {
+        for (int i = 1; i < migrations.size(); i++) {
+            Migration previous = migrations.get(i - 1);
+            Migration migration = migrations.get(i);
+            if (previous.compareTo(migration) == 0) {
+                throw new MigrationException(String.format("Found more than one migration with version %s: %s, %s",
+                        migration.getVersion(), previous.getUrl(), migration.getUrl()));
+            }
+        }
+    }
+}
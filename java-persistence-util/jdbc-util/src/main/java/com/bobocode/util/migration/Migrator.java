@@ -0,0 +1,174 @@
+package com.bobocode.util.migration;
+
+import com.bobocode.util.ResourceLoader;
+import com.bobocode.util.script.ScriptConfig;
+import com.bobocode.util.script.ScriptStats;
+import com.bobocode.util.script.SqlScriptRunner;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link Migrator} brings a database schema up to date with the {@code V<version>__<description>.sql} scripts found
+ * in {@link MigrationConfig#getLocation()} (see {@link Migration}). Versions and checksums of applied scripts are
+ * stored in {@link MigrationConfig#getHistoryTable()}, so every script is applied only once, and a script that was
+ * changed after it had been applied is reported instead of being silently ignored.
+ * <p>
+ * When the schema is up to date, {@link Migrator#migrate(DataSource)} costs a single query of the history table.
+ * Otherwise, a {@link MigrationLock} is taken, so when many nodes start at once, only one of them applies the pending
+ * scripts, and the others find the schema up to date once they get the lock. Every script is executed by
+ * {@link SqlScriptRunner} in a single transaction together with its history row, so on PostgreSQL a script is either
+ * applied and recorded, or not applied at all. Note that H2 commits DDL statements implicitly, so a failed H2 script
+ * may be applied partially.
+ */
+@Slf4j
+public class Migrator {
+    /**
+     * SQL states of a missing table: H2 (plain, with candidates, in an empty database) and PostgreSQL.
+     */
+    private static final Set<String> TABLE_NOT_FOUND_STATES = Set.of("42S02", "42S03", "42S04", "42P01");
+    private static final ScriptConfig SCRIPT_CONFIG = ScriptConfig.builder()
+            .commitSize(0)
+            .progressListener((stats, finished) -> {
+            })
+            .build();
+
+    private final MigrationConfig config;
+    private final ClassLoader classLoader;
+
+    public Migrator() {
+        this(MigrationConfig.defaultConfig());
+    }
+
+    public Migrator(MigrationConfig config) {
+        this(config, Migrator.class.getClassLoader());
+    }
+
+    public Migrator(MigrationConfig config, ClassLoader classLoader) {
+        this.config = Objects.requireNonNull(config);
+        this.classLoader = Objects.requireNonNull(classLoader);
+        config.validate();
+    }
+
+    /**
+     * Applies pending migrations.
+     *
+     * @param dataSource data source of the migrated database
+     * @return migrations applied by this call, empty when the schema was already up to date
+     * @throws MigrationException if the migrations cannot be found, validated or applied
+     */
+    public List<Migration> migrate(DataSource dataSource) {
+        List<Migration> migrations = MigrationScanner.scan(classLoader, config.getLocation());
+        try {
+            Map<String, Integer> appliedChecksums = readHistory(dataSource);
+            if (appliedChecksums != null && findPending(migrations, appliedChecksums).isEmpty()) {
+                return List.of();
+            }
+            try (MigrationLock ignored = MigrationLock.acquire(dataSource, config)) {
+                createHistoryTable(dataSource);
+                List<Migration> pendingMigrations = findPending(migrations, readHistory(dataSource));
+                for (Migration migration : pendingMigrations) {
+                    apply(dataSource, migration);
+                }
+                return pendingMigrations;
+            }
+        } catch (SQLException e) {
+            throw new MigrationException("Error migrating the schema from " + config.getLocation(), e);
+        }
+    }
+
+    /**
+     * @return checksums of applied migrations by version, or {@code null} when the history table does not exist yet
+     */
+    private Map<String, Integer> readHistory(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM " + config.getHistoryTable())) {
+            Map<String, Integer> appliedChecksums = new HashMap<>();
+            while (resultSet.next()) {
+                appliedChecksums.put(resultSet.getString(1), resultSet.getInt(2));
+            }
+            return appliedChecksums;
+        } catch (SQLException e) {
+            if (TABLE_NOT_FOUND_STATES.contains(e.getSQLState())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private List<Migration> findPending(List<Migration> migrations, Map<String, Integer> appliedChecksums) {
+        List<Migration> pendingMigrations = new ArrayList<>();
+        String latestAppliedVersion = appliedChecksums.keySet().stream()
+                .max(Migration::compareVersions)
+                .orElse(null);
+        for (Migration migration : migrations) {
+            Integer appliedChecksum = appliedChecksums.get(migration.getVersion());
+            if (appliedChecksum == null) {
+                if (latestAppliedVersion != null
+                        && Migration.compareVersions(migration.getVersion(), latestAppliedVersion) < 0) {
+                    throw new MigrationException(String.format("Migration %s is older than the applied version %s",
+                            migration, latestAppliedVersion));
+                }
+                pendingMigrations.add(migration);
+            } else if (appliedChecksum != migration.getChecksum()) {
+                throw new MigrationException(String.format(
+                        "Migration %s was changed after it had been applied (applied checksum %d, current checksum %d)",
+                        migration, appliedChecksum, migration.getChecksum()));
+            }
+        }
+        return pendingMigrations;
+    }
+
+    private void createHistoryTable(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + config.getHistoryTable() + " (\n" +
+                    "    version        VARCHAR(50) PRIMARY KEY,\n" +
+                    "    description    VARCHAR(200) NOT NULL,\n" +
+                    "    script         VARCHAR(1000) NOT NULL,\n" +
+                    "    checksum       INT NOT NULL,\n" +
+                    "    installed_on   TIMESTAMP NOT NULL DEFAULT now(),\n" +
+                    "    execution_time INT NOT NULL\n" +
+                    ")");
+        }
+    }
+
+    private void apply(DataSource dataSource, Migration migration) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptStats stats;
+            try (Reader reader = ResourceLoader.openReader(migration.getUrl())) {
+                stats = new SqlScriptRunner(SCRIPT_CONFIG).run(connection, reader,
+                        (scriptConnection, scriptStats) -> recordMigration(scriptConnection, migration, scriptStats));
+            } catch (IOException | SQLException e) {
+                throw new MigrationException("Error applying migration " + migration, e);
+            }
+            log.info("Applied migration {} in {} ms", migration, stats.getElapsed().toMillis());
+        }
+    }
+
+    private void recordMigration(Connection connection, Migration migration, ScriptStats stats) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + config.getHistoryTable() +
+                " (version, description, script, checksum, execution_time) VALUES (?, ?, ?, ?, ?)")) {
+            statement.setString(1, migration.getVersion());
+            statement.setString(2, migration.getDescription());
+            statement.setString(3, migration.getScriptName());
+            statement.setInt(4, migration.getChecksum());
+            statement.setInt(5, (int) stats.getElapsed().toMillis());
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.bobocode.util.pool;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * {@link PoolConfig} holds the settings of a {@link PooledDataSource}. Use {@link PoolConfig#builder()} to override
+ * the defaults.
+ */
+@Getter
+@Builder
+@ToString
+public class PoolConfig {
+    /**
+     * Maximum number of physical connections (both idle and in use) the pool is allowed to hold.
+     */
+    @Builder.Default
+    private final int maximumPoolSize = 10;
+
+    /**
+     * Maximum time a caller waits for a connection before {@link java.sql.SQLTimeoutException} is thrown.
+     */
+    @Builder.Default
+    private final Duration connectionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Maximum time a physical connection is kept. Expired connections are closed when they are borrowed or returned.
+     */
+    @Builder.Default
+    private final Duration maxLifetime = Duration.ofMinutes(30);
+
+    /**
+     * Idle connections that were used more recently than this are handed out without a validation round trip.
+     */
+    @Builder.Default
+    private final Duration validationInterval = Duration.ofMillis(500);
+
+    /**
+     * Time given to {@link java.sql.Connection#isValid(int)} when an idle connection is validated on borrow.
+     */
+    @Builder.Default
+    private final Duration validationTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of prepared statements cached per connection, {@code 0} disables statement caching.
+     *
+     * @see com.bobocode.util.statement.StatementCache
+     */
+    @Builder.Default
+    private final int statementCacheSize = 32;
+
+    public static PoolConfig defaultConfig() {
+        return PoolConfig.builder().build();
+    }
+
+    void validate() {
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("Maximum pool size must be positive, but was " + maximumPoolSize);
+        }
+        requirePositive(connectionTimeout, "Connection timeout");
+        requirePositive(maxLifetime, "Max lifetime");
+        requirePositive(validationTimeout, "Validation timeout");
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size must not be negative, but was " + statementCacheSize);
+        }
+        if (validationInterval.isNegative()) {
+            throw new IllegalArgumentException("Validation interval must not be negative, but was " + validationInterval);
+        }
+    }
+
+    private static void requirePositive(Duration duration, String name) {
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException(name + " must be positive, but was " + duration);
+        }
+    }
+}
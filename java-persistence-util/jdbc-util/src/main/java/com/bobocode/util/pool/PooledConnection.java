@@ -0,0 +1,252 @@
+package com.bobocode.util.pool;
+
+import com.bobocode.util.statement.StatementCache;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link PooledConnection} is a physical connection that is owned by a {@link PooledDataSource}. Every time it is
+ * borrowed, the pool hands out a new proxy that returns the connection to the pool on {@link Connection#close()}
+ * instead of closing it. A proxy becomes unusable after it is closed, so a stale reference cannot affect the next
+ * borrower. When statement caching is enabled, {@code prepareStatement(sql)} and
+ * {@code prepareStatement(sql, autoGeneratedKeys)} calls are served by a {@link StatementCache} that lives as long as
+ * the physical connection. Other statements are handed out as proxies too, so that
+ * {@link Statement#getConnection()} returns the borrowed connection rather than the physical one.
+ */
+class PooledConnection {
+    private final PooledDataSource pool;
+    private final Connection physicalConnection;
+    private final StatementCache statementCache;
+    private final long createdAtNanos;
+    private final boolean defaultAutoCommit;
+    private final boolean defaultReadOnly;
+    private final int defaultTransactionIsolation;
+    private volatile long lastReturnedAtNanos;
+    private boolean broken;
+
+    PooledConnection(PooledDataSource pool, Connection physicalConnection, StatementCache statementCache)
+            throws SQLException {
+        this.pool = pool;
+        this.physicalConnection = physicalConnection;
+        this.statementCache = statementCache;
+        this.createdAtNanos = System.nanoTime();
+        this.lastReturnedAtNanos = createdAtNanos;
+        this.defaultAutoCommit = physicalConnection.getAutoCommit();
+        this.defaultReadOnly = physicalConnection.isReadOnly();
+        this.defaultTransactionIsolation = physicalConnection.getTransactionIsolation();
+    }
+
+    Connection borrow() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new BorrowedConnectionHandler());
+    }
+
+    Connection getPhysicalConnection() {
+        return physicalConnection;
+    }
+
+    boolean isExpired(long nowNanos, long maxLifetimeNanos) {
+        return nowNanos - createdAtNanos >= maxLifetimeNanos;
+    }
+
+    boolean isIdleLongerThan(long nowNanos, long intervalNanos) {
+        return nowNanos - lastReturnedAtNanos >= intervalNanos;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    void closePhysicalConnection() {
+        if (statementCache != null) {
+            statementCache.close();
+        }
+        try {
+            physicalConnection.close();
+        } catch (SQLException ignored) {
+            // the connection is discarded anyway
+        }
+    }
+
+    private void resetState(boolean autoCommitChanged, boolean readOnlyChanged, boolean isolationChanged)
+            throws SQLException {
+        if (!physicalConnection.getAutoCommit()) {
+            physicalConnection.rollback();
+        }
+        if (autoCommitChanged) {
+            physicalConnection.setAutoCommit(defaultAutoCommit);
+        }
+        if (readOnlyChanged) {
+            physicalConnection.setReadOnly(defaultReadOnly);
+        }
+        if (isolationChanged) {
+            physicalConnection.setTransactionIsolation(defaultTransactionIsolation);
+        }
+        physicalConnection.clearWarnings();
+    }
+
+    private class BorrowedConnectionHandler implements InvocationHandler {
+        private static final int MIN_STATEMENT_PRUNE_THRESHOLD = 64;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private int statementPruneThreshold = MIN_STATEMENT_PRUNE_THRESHOLD;
+        private boolean closed;
+        private boolean autoCommitChanged;
+        private boolean readOnlyChanged;
+        private boolean isolationChanged;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed || physicalConnection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physicalConnection;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            trackStateChange(method.getName());
+            if (isCacheablePrepare(method, args)) {
+                Statement statement = prepareCachedStatement((Connection) proxy, args);
+                trackStatement(statement);
+                return statement;
+            }
+            Object result = invokePhysical(method, args);
+            if (result instanceof Statement statement) {
+                trackStatement(statement);
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{method.getReturnType()},
+                        new BorrowedStatementHandler((Connection) proxy, statement));
+            }
+            return result;
+        }
+
+        private boolean isCacheablePrepare(Method method, Object[] args) {
+            return statementCache != null
+                    && method.getName().equals("prepareStatement")
+                    && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer));
+        }
+
+        private Statement prepareCachedStatement(Connection proxy, Object[] args) throws SQLException {
+            int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+            try {
+                return statementCache.prepareStatement(proxy, (String) args[0], autoGeneratedKeys);
+            } catch (SQLException e) {
+                if (physicalConnection.isClosed()) {
+                    broken = true;
+                }
+                throw e;
+            }
+        }
+
+        private void trackStatement(Statement statement) {
+            if (openStatements.size() >= statementPruneThreshold) {
+                openStatements.removeIf(BorrowedConnectionHandler::isStatementClosed);
+                statementPruneThreshold = Math.max(MIN_STATEMENT_PRUNE_THRESHOLD, openStatements.size() * 2);
+            }
+            openStatements.add(statement);
+        }
+
+        private static boolean isStatementClosed(Statement statement) {
+            try {
+                return statement.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(physicalConnection, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException && physicalConnection.isClosed()) {
+                    broken = true;
+                }
+                throw e.getCause();
+            }
+        }
+
+        private void trackStateChange(String methodName) {
+            switch (methodName) {
+                case "setAutoCommit" -> autoCommitChanged = true;
+                case "setReadOnly" -> readOnlyChanged = true;
+                case "setTransactionIsolation" -> isolationChanged = true;
+                default -> {
+                }
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                closeOpenStatements();
+                resetState(autoCommitChanged, readOnlyChanged, isolationChanged);
+            } catch (SQLException e) {
+                broken = true;
+            }
+            lastReturnedAtNanos = System.nanoTime();
+            pool.release(PooledConnection.this);
+        }
+
+        private void closeOpenStatements() throws SQLException {
+            for (Statement statement : openStatements) {
+                statement.close();
+            }
+            openStatements.clear();
+        }
+    }
+
+    /**
+     * Delegates to a physical statement, but returns the borrowed connection from {@link Statement#getConnection()},
+     * so the physical connection cannot be closed or reconfigured behind the pool
+     */
+    private static class BorrowedStatementHandler implements InvocationHandler {
+        private final Connection owner;
+        private final Statement statement;
+
+        BorrowedStatementHandler(Connection owner, Statement statement) {
+            this.owner = owner;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + statement;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
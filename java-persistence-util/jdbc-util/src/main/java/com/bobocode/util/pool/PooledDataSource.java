@@ -0,0 +1,248 @@
+package com.bobocode.util.pool;
+
+import com.bobocode.util.statement.StatementCache;
+import com.bobocode.util.statement.StatementCacheStats;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * {@link PooledDataSource} is a {@link DataSource} that keeps physical connections of a target {@link DataSource}
+ * open and reuses them between {@link DataSource#getConnection()} calls.
+ * <p>
+ * Idle connections are stored in a lock-free deque and handed out in LIFO order, so the most recently used
+ * (and therefore warmest) connection is reused first. The total number of connections is bounded by
+ * {@link PoolConfig#getMaximumPoolSize()}: a caller that cannot get a connection within
+ * {@link PoolConfig#getConnectionTimeout()} receives a {@link SQLTimeoutException}. Connections that are older than
+ * {@link PoolConfig#getMaxLifetime()} are closed, and connections that were idle longer than
+ * {@link PoolConfig#getValidationInterval()} are validated before they are handed out. When
+ * {@link PoolConfig#getStatementCacheSize()} is positive, every connection caches its prepared statements, and the
+ * counters of all caches are available via {@link PooledDataSource#getStatementCacheStats()}.
+ */
+public class PooledDataSource implements DataSource, AutoCloseable {
+    private final DataSource targetDataSource;
+    private final PoolConfig config;
+    private final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final Semaphore connectionPermits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+    private final long maxLifetimeNanos;
+    private final long validationIntervalNanos;
+    private final int validationTimeoutSeconds;
+    private volatile boolean closed;
+
+    public PooledDataSource(DataSource targetDataSource) {
+        this(targetDataSource, PoolConfig.defaultConfig());
+    }
+
+    public PooledDataSource(DataSource targetDataSource, PoolConfig config) {
+        this.targetDataSource = Objects.requireNonNull(targetDataSource);
+        this.config = Objects.requireNonNull(config);
+        config.validate();
+        this.connectionPermits = new Semaphore(config.getMaximumPoolSize(), true);
+        this.maxLifetimeNanos = config.getMaxLifetime().toNanos();
+        this.validationIntervalNanos = config.getValidationInterval().toNanos();
+        this.validationTimeoutSeconds = (int) Math.max(1, config.getValidationTimeout().toSeconds());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkNotClosed();
+        acquirePermit();
+        try {
+            return takeConnection().borrow();
+        } catch (SQLException | RuntimeException e) {
+            connectionPermits.release();
+            throw e;
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        long timeoutMillis = config.getConnectionTimeout().toMillis();
+        try {
+            if (!connectionPermits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(String.format(
+                        "Connection is not available, request timed out after %d ms (active: %d, max: %d)",
+                        timeoutMillis, getActiveConnections(), config.getMaximumPoolSize()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private PooledConnection takeConnection() throws SQLException {
+        PooledConnection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            if (isUsable(connection)) {
+                return connection;
+            }
+            discard(connection);
+        }
+        return openConnection();
+    }
+
+    private boolean isUsable(PooledConnection connection) {
+        long now = System.nanoTime();
+        if (connection.isExpired(now, maxLifetimeNanos)) {
+            return false;
+        }
+        if (!connection.isIdleLongerThan(now, validationIntervalNanos)) {
+            return true;
+        }
+        try {
+            return connection.getPhysicalConnection().isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physicalConnection = targetDataSource.getConnection();
+        try {
+            StatementCache statementCache = config.getStatementCacheSize() > 0
+                    ? new StatementCache(physicalConnection, config.getStatementCacheSize(), statementCacheStats)
+                    : null;
+            PooledConnection connection = new PooledConnection(this, physicalConnection, statementCache);
+            totalConnections.incrementAndGet();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            physicalConnection.close();
+            throw e;
+        }
+    }
+
+    void release(PooledConnection connection) {
+        try {
+            if (closed || connection.isBroken() || connection.isExpired(System.nanoTime(), maxLifetimeNanos)) {
+                discard(connection);
+            } else {
+                idleConnections.offerFirst(connection);
+                if (closed && idleConnections.remove(connection)) {
+                    discard(connection);
+                }
+            }
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    private void discard(PooledConnection connection) {
+        totalConnections.decrementAndGet();
+        connection.closePhysicalConnection();
+    }
+
+    private void checkNotClosed() throws SQLException {
+        if (closed) {
+            throw new SQLException("Pool is closed");
+        }
+    }
+
+    /**
+     * Closes all idle connections. Connections that are in use are closed when they are returned to the pool.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            discard(connection);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return number of open physical connections, both idle and in use
+     */
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    /**
+     * @return number of connections that are currently borrowed
+     */
+    public int getActiveConnections() {
+        return config.getMaximumPoolSize() - connectionPermits.availablePermits();
+    }
+
+    /**
+     * @return number of open connections that are waiting in the pool
+     */
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    /**
+     * @return approximate number of callers that are waiting for a connection
+     */
+    public int getPendingRequests() {
+        return connectionPermits.getQueueLength();
+    }
+
+    /**
+     * @return prepared statement cache counters accumulated over all pool connections
+     */
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections are always opened with the pool credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return targetDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        targetDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        targetDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return targetDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return targetDataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return targetDataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || targetDataSource.isWrapperFor(iface);
+    }
+}
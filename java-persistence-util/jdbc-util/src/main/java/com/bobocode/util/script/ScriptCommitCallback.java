@@ -0,0 +1,13 @@
+package com.bobocode.util.script;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@link ScriptCommitCallback} does more work on the connection of an executed script right before its last chunk is
+ * committed, so the work is committed or rolled back together with that chunk.
+ */
+@FunctionalInterface
+public interface ScriptCommitCallback {
+    void beforeCommit(Connection connection, ScriptStats stats) throws SQLException;
+}
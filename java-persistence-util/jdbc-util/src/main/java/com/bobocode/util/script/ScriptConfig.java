@@ -0,0 +1,58 @@
+package com.bobocode.util.script;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * {@link ScriptConfig} holds the settings of a {@link SqlScriptRunner}. Use {@link ScriptConfig#builder()} to override
+ * the defaults.
+ */
+@Getter
+@Builder
+@ToString
+public class ScriptConfig {
+    /**
+     * Maximum number of consecutive DML statements ({@code INSERT}, {@code UPDATE}, {@code DELETE}, {@code MERGE})
+     * sent in one JDBC batch, {@code 1} executes every statement separately.
+     */
+    @Builder.Default
+    private final int batchSize = 100;
+
+    /**
+     * Number of statements executed in one transaction, {@code 0} runs the whole script in a single transaction.
+     */
+    @Builder.Default
+    private final int commitSize = 1000;
+
+    /**
+     * Number of statements between two progress reports, {@code 0} reports only the finished script.
+     */
+    @Builder.Default
+    private final int progressInterval = 10_000;
+
+    /**
+     * Receives progress reports. By default, progress is logged.
+     */
+    @Builder.Default
+    private final ScriptProgressListener progressListener = SqlScriptRunner::logProgress;
+
+    public static ScriptConfig defaultConfig() {
+        return ScriptConfig.builder().build();
+    }
+
+    void validate() {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+        }
+        if (commitSize < 0) {
+            throw new IllegalArgumentException("Commit size must not be negative, but was " + commitSize);
+        }
+        if (progressInterval < 0) {
+            throw new IllegalArgumentException("Progress interval must not be negative, but was " + progressInterval);
+        }
+        if (progressListener == null) {
+            throw new IllegalArgumentException("Progress listener must not be null");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bobocode.util.script;
+
+/**
+ * {@link ScriptProgressListener} receives progress of a running script every
+ * {@link ScriptConfig#getProgressInterval()} statements, and once more when the script is finished.
+ */
+@FunctionalInterface
+public interface ScriptProgressListener {
+    void onProgress(ScriptStats stats, boolean finished);
+}
@@ -0,0 +1,7 @@
+package com.bobocode.util.script;
+
+/**
+ * A single SQL statement of a script without the terminating semicolon, together with the script line it starts at.
+ */
+record ScriptStatement(String sql, int lineNumber) {
+}
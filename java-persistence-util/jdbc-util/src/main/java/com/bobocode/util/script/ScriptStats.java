@@ -0,0 +1,45 @@
+package com.bobocode.util.script;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * {@link ScriptStats} is a snapshot of the script execution progress reported by {@link SqlScriptRunner}.
+ */
+@Value
+public class ScriptStats {
+    /**
+     * Number of executed statements, including the ones executed within batches.
+     */
+    long statementCount;
+
+    /**
+     * Number of executed JDBC batches.
+     */
+    long batchCount;
+
+    /**
+     * Number of committed chunks.
+     */
+    long commitCount;
+
+    /**
+     * Time passed since the script was started.
+     */
+    Duration elapsed;
+
+    /**
+     * @return average number of executed statements per second, or {@code 0} when no time has passed yet
+     */
+    public double getStatementsPerSecond() {
+        long elapsedNanos = elapsed.toNanos();
+        return elapsedNanos == 0 ? 0 : statementCount * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d statements (%d batches, %d commits) in %d ms, %.0f statements/s",
+                statementCount, batchCount, commitCount, elapsed.toMillis(), getStatementsPerSecond());
+    }
+}
@@ -0,0 +1,34 @@
+package com.bobocode.util.script;
+
+import lombok.Getter;
+
+import java.sql.SQLException;
+
+/**
+ * {@link SqlScriptException} is thrown when a script statement fails or the script cannot be read. It points to the
+ * failed statement and its line, and keeps the SQL state and the error code of the original exception.
+ */
+@Getter
+public class SqlScriptException extends SQLException {
+    /**
+     * Script line the failed statement starts at, or {@code 0} when the script could not be read.
+     */
+    private final int lineNumber;
+
+    /**
+     * Failed statement, or {@code null} when the script could not be read.
+     */
+    private final String statement;
+
+    public SqlScriptException(String message, Exception e) {
+        super(message, e);
+        this.lineNumber = 0;
+        this.statement = null;
+    }
+
+    public SqlScriptException(String message, int lineNumber, String statement, SQLException e) {
+        super(message, e.getSQLState(), e.getErrorCode(), e);
+        this.lineNumber = lineNumber;
+        this.statement = statement;
+    }
+}
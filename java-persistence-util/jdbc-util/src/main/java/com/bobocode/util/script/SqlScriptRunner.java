@@ -0,0 +1,246 @@
+package com.bobocode.util.script;
+
+import com.bobocode.util.ResourceLoader;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * {@link SqlScriptRunner} executes SQL scripts of any size statement by statement. The script is tokenized while it is
+ * read (see {@link SqlScriptTokenizer}), so neither the whole script nor a multi-statement string is ever passed to the
+ * driver.
+ * <p>
+ * Consecutive DML statements ({@code INSERT}, {@code UPDATE}, {@code DELETE}, {@code MERGE}) are grouped into JDBC
+ * batches of {@link ScriptConfig#getBatchSize()} statements, other statements (DDL, {@code SELECT}, function
+ * definitions) are executed one by one. Statements are committed in chunks of {@link ScriptConfig#getCommitSize()},
+ * and the progress is reported to {@link ScriptConfig#getProgressListener()}.
+ */
+@Slf4j
+public class SqlScriptRunner {
+    private static final Pattern DML_PATTERN = Pattern.compile("(?i)(INSERT|UPDATE|DELETE|MERGE)\\b");
+    private static final int MAX_REPORTED_SQL_LENGTH = 200;
+
+    private final ScriptConfig config;
+
+    public SqlScriptRunner() {
+        this(ScriptConfig.defaultConfig());
+    }
+
+    public SqlScriptRunner(ScriptConfig config) {
+        this.config = Objects.requireNonNull(config);
+        config.validate();
+    }
+
+    /**
+     * Executes a script from the classpath, e.g. {@code db/seed/products.sql}.
+     *
+     * @see SqlScriptRunner#run(Connection, Reader)
+     */
+    public ScriptStats runResource(DataSource dataSource, String resourceName) throws SQLException {
+        try (Reader reader = ResourceLoader.openReader(resourceName)) {
+            return run(dataSource, reader);
+        } catch (IOException e) {
+            throw new SqlScriptException("Error closing script " + resourceName, e);
+        }
+    }
+
+    /**
+     * Executes a script on a new connection of the data source.
+     *
+     * @see SqlScriptRunner#run(Connection, Reader)
+     */
+    public ScriptStats run(DataSource dataSource, Reader script) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return run(connection, script);
+        }
+    }
+
+    /**
+     * Executes a script on the given connection. Every {@link ScriptConfig#getCommitSize()} statements are committed.
+     * When a statement fails, the current chunk is rolled back, while chunks committed before stay in the database.
+     * Auto-commit mode of the connection is restored afterwards. The reader is not closed.
+     *
+     * @param connection connection to use
+     * @param script     script reader
+     * @return final execution stats
+     * @throws SqlScriptException if the script cannot be read, or one of its statements fails
+     */
+    public ScriptStats run(Connection connection, Reader script) throws SQLException {
+        return run(connection, script, null);
+    }
+
+    /**
+     * Same as {@link SqlScriptRunner#run(Connection, Reader)}, but the callback is called after the last statement,
+     * in the transaction of the last chunk. With {@link ScriptConfig#getCommitSize()} {@code 0} the work of the
+     * callback is committed together with the whole script, and is rolled back when the script fails.
+     *
+     * @param connection   connection to use
+     * @param script       script reader
+     * @param beforeCommit callback that is called before the last commit, or {@code null}
+     * @return final execution stats
+     * @throws SqlScriptException if the script cannot be read, or one of its statements fails
+     * @throws SQLException       if the callback fails
+     */
+    public ScriptStats run(Connection connection, Reader script, ScriptCommitCallback beforeCommit)
+            throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            return new Execution(connection, statement, beforeCommit).execute(new SqlScriptTokenizer(script));
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    static void logProgress(ScriptStats stats, boolean finished) {
+        log.info("{} {}", finished ? "Executed script:" : "Executing script:", stats);
+    }
+
+    private static boolean isDml(String sql) {
+        return DML_PATTERN.matcher(sql).lookingAt();
+    }
+
+    private class Execution {
+        private final Connection connection;
+        private final Statement statement;
+        private final ScriptCommitCallback beforeCommit;
+        private final List<ScriptStatement> batch = new ArrayList<>();
+        private final long startNanos = System.nanoTime();
+        private long statementCount;
+        private long batchCount;
+        private long commitCount;
+        private long committedStatementCount;
+        private int uncommittedStatementCount;
+        private long nextProgressStatementCount = config.getProgressInterval();
+
+        private Execution(Connection connection, Statement statement, ScriptCommitCallback beforeCommit) {
+            this.connection = connection;
+            this.statement = statement;
+            this.beforeCommit = beforeCommit;
+        }
+
+        ScriptStats execute(SqlScriptTokenizer tokenizer) throws SQLException {
+            ScriptStatement scriptStatement;
+            while ((scriptStatement = nextStatement(tokenizer)) != null) {
+                if (isDml(scriptStatement.sql())) {
+                    statement.addBatch(scriptStatement.sql());
+                    batch.add(scriptStatement);
+                    if (batch.size() == config.getBatchSize()) {
+                        executeBatch();
+                    }
+                } else {
+                    executeBatch();
+                    executeStatement(scriptStatement);
+                }
+                if (++uncommittedStatementCount == config.getCommitSize()) {
+                    executeBatch();
+                    commit();
+                }
+            }
+            executeBatch();
+            if (beforeCommit != null) {
+                beforeCommit.beforeCommit(connection, getStats());
+                commit();
+            } else if (uncommittedStatementCount > 0) {
+                commit();
+            }
+            ScriptStats stats = getStats();
+            config.getProgressListener().onProgress(stats, true);
+            return stats;
+        }
+
+        private ScriptStatement nextStatement(SqlScriptTokenizer tokenizer) throws SQLException {
+            try {
+                return tokenizer.nextStatement();
+            } catch (IOException e) {
+                throw new SqlScriptException(String.format("Error reading script after %d statements (%d committed)",
+                        statementCount + batch.size(), committedStatementCount), e);
+            }
+        }
+
+        private void executeStatement(ScriptStatement scriptStatement) throws SQLException {
+            try {
+                statement.execute(scriptStatement.sql());
+            } catch (SQLException e) {
+                throw failure(scriptStatement, e);
+            }
+            statementCount++;
+            checkProgress();
+        }
+
+        private void executeBatch() throws SQLException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                statement.executeBatch();
+            } catch (BatchUpdateException e) {
+                throw failure(batch.get(failedIndex(e)), e);
+            } catch (SQLException e) {
+                throw failure(batch.get(0), e);
+            }
+            statementCount += batch.size();
+            batchCount++;
+            batch.clear();
+            checkProgress();
+        }
+
+        private int failedIndex(BatchUpdateException e) {
+            int[] updateCounts = e.getUpdateCounts();
+            if (updateCounts == null) {
+                return 0;
+            }
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    return i;
+                }
+            }
+            // drivers that stop at the first failure return counts of the statements executed before it
+            return Math.min(updateCounts.length, batch.size() - 1);
+        }
+
+        private void commit() throws SQLException {
+            connection.commit();
+            commitCount++;
+            committedStatementCount = statementCount;
+            uncommittedStatementCount = 0;
+        }
+
+        private void checkProgress() {
+            if (nextProgressStatementCount > 0 && statementCount >= nextProgressStatementCount) {
+                int progressInterval = config.getProgressInterval();
+                nextProgressStatementCount = (statementCount / progressInterval + 1) * progressInterval;
+                config.getProgressListener().onProgress(getStats(), false);
+            }
+        }
+
+        private ScriptStats getStats() {
+            return new ScriptStats(statementCount, batchCount, commitCount,
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+
+        private SqlScriptException failure(ScriptStatement scriptStatement, SQLException e) {
+            String sql = scriptStatement.sql();
+            String reportedSql = sql.length() > MAX_REPORTED_SQL_LENGTH
+                    ? sql.substring(0, MAX_REPORTED_SQL_LENGTH) + "..."
+                    : sql;
+            return new SqlScriptException(String.format("Error executing statement at line %d (%d statements committed): %s",
+                    scriptStatement.lineNumber(), committedStatementCount, reportedSql),
+                    scriptStatement.lineNumber(), sql, e);
+        }
+    }
+}
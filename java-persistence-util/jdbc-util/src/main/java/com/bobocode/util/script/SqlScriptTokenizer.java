@@ -0,0 +1,186 @@
+package com.bobocode.util.script;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * {@link SqlScriptTokenizer} splits a SQL script into statements while it reads it, so only the current statement is
+ * kept in memory. Statements are separated by semicolons. Semicolons inside string literals ({@code '...'},
+ * {@code E'...'}), quoted identifiers ({@code "..."}), dollar-quoted strings ({@code $$...$$},
+ * {@code $body$...$body$}) and comments do not end a statement. Line comments ({@code --}) and block comments
+ * ({@code /* ... *}{@code /}, which may be nested) are removed.
+ */
+class SqlScriptTokenizer {
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int lineNumber = 1;
+    private final StringBuilder sql = new StringBuilder();
+    private int statementLineNumber;
+
+    SqlScriptTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return next statement, or {@code null} when the end of the script is reached
+     */
+    ScriptStatement nextStatement() throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == ';') {
+                ScriptStatement statement = takeStatement();
+                if (statement != null) {
+                    return statement;
+                }
+            } else if (c == '-' && peek() == '-') {
+                skipLineComment();
+            } else if (c == '/' && peek() == '*') {
+                read();
+                skipBlockComment();
+            } else if (c == '\'') {
+                boolean escapeString = endsWithEscapePrefix();
+                append(c);
+                appendQuoted('\'', escapeString);
+            } else if (c == '"') {
+                append(c);
+                appendQuoted('"', false);
+            } else if (c == '$') {
+                appendDollarQuoted();
+            } else if (!Character.isWhitespace(c) || !sql.isEmpty()) {
+                append(c);
+            }
+        }
+        return takeStatement();
+    }
+
+    private ScriptStatement takeStatement() {
+        String statementSql = sql.toString().strip();
+        sql.setLength(0);
+        return statementSql.isEmpty() ? null : new ScriptStatement(statementSql, statementLineNumber);
+    }
+
+    private void append(int c) {
+        if (sql.isEmpty()) {
+            statementLineNumber = lineNumber;
+        }
+        sql.append((char) c);
+    }
+
+    private void skipLineComment() throws IOException {
+        int c;
+        while ((c = peek()) != EOF && c != '\n') {
+            read();
+        }
+    }
+
+    private void skipBlockComment() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = read()) != EOF) {
+            if (c == '*' && peek() == '/') {
+                read();
+                depth--;
+            } else if (c == '/' && peek() == '*') {
+                read();
+                depth++;
+            }
+        }
+        if (!sql.isEmpty()) {
+            sql.append(' ');
+        }
+    }
+
+    private boolean endsWithEscapePrefix() {
+        int length = sql.length();
+        if (length == 0 || Character.toUpperCase(sql.charAt(length - 1)) != 'E') {
+            return false;
+        }
+        return length == 1 || !isIdentifierPart(sql.charAt(length - 2));
+    }
+
+    private void appendQuoted(char quote, boolean backslashEscapes) throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            sql.append((char) c);
+            if (backslashEscapes && c == '\\') {
+                if ((c = read()) != EOF) {
+                    sql.append((char) c);
+                }
+            } else if (c == quote) {
+                if (peek() != quote) {
+                    return;
+                }
+                sql.append((char) read());
+            }
+        }
+    }
+
+    /**
+     * Appends a dollar-quoted string. A {@code $} that does not open a tag (e.g. a positional parameter {@code $1},
+     * or a part of an identifier) is appended as a regular character.
+     */
+    private void appendDollarQuoted() throws IOException {
+        boolean openingTag = sql.isEmpty() || !isIdentifierPart(sql.charAt(sql.length() - 1));
+        append('$');
+        if (!openingTag || Character.isDigit(peek())) {
+            return;
+        }
+        int tagStart = sql.length() - 1;
+        while (isIdentifierPart(peek())) {
+            sql.append((char) read());
+        }
+        if (peek() != '$') {
+            return;
+        }
+        sql.append((char) read());
+        String tag = sql.substring(tagStart);
+        int c;
+        while ((c = read()) != EOF) {
+            sql.append((char) c);
+            if (c == '$' && endsWithTag(tag, tagStart + tag.length())) {
+                return;
+            }
+        }
+    }
+
+    private boolean endsWithTag(String tag, int contentStart) {
+        int tagStart = sql.length() - tag.length();
+        return tagStart >= contentStart && sql.indexOf(tag, tagStart) == tagStart;
+    }
+
+    private static boolean isIdentifierPart(int c) {
+        return c != EOF && (Character.isLetterOrDigit(c) || c == '_');
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bobocode.util.snapshot;
+
+import lombok.Getter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * {@link ClonedDatabase} is a database created by {@link SchemaSnapshot#createClone()}. Closing it drops the
+ * database, so all its connections must be closed before.
+ */
+public class ClonedDatabase implements AutoCloseable {
+    @Getter
+    private final String name;
+    @Getter
+    private final DataSource dataSource;
+    private final DatabaseDropper dropper;
+
+    ClonedDatabase(String name, DataSource dataSource, DatabaseDropper dropper) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.dropper = dropper;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        dropper.drop(this);
+    }
+
+    @FunctionalInterface
+    interface DatabaseDropper {
+        void drop(ClonedDatabase database) throws SQLException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.bobocode.util.snapshot;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.store.fs.FileUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * H2 implementation of {@link SchemaSnapshot}. The source database is scripted to the {@code memFS:} file system, so
+ * the snapshot never touches the disk. Clones are in-memory databases that inherit the settings of the source URL
+ * (e.g. {@code MODE} or {@code DATABASE_TO_UPPER}).
+ */
+class H2SchemaSnapshot extends SchemaSnapshot {
+    private static final String IN_MEMORY_URL_PREFIX = "jdbc:h2:mem:";
+
+    private final JdbcDataSource sourceDataSource;
+    private final String scriptFile;
+    private final String urlSettings;
+
+    H2SchemaSnapshot(String name, JdbcDataSource sourceDataSource) throws SQLException {
+        super(name);
+        this.sourceDataSource = sourceDataSource;
+        this.scriptFile = "memFS:" + name + ".sql";
+        String url = sourceDataSource.getURL();
+        int settingsStart = url.indexOf(';');
+        this.urlSettings = settingsStart < 0 ? ";DB_CLOSE_DELAY=-1" : withCloseDelay(url.substring(settingsStart));
+        try (Connection connection = sourceDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SCRIPT TO '" + scriptFile + "'");
+        }
+    }
+
+    private static String withCloseDelay(String settings) {
+        // a clone is kept until it is closed, even when no connection is open
+        if (settings.toUpperCase(Locale.ROOT).contains("DB_CLOSE_DELAY")) {
+            return settings;
+        }
+        return settings + (settings.endsWith(";") ? "" : ";") + "DB_CLOSE_DELAY=-1";
+    }
+
+    @Override
+    public ClonedDatabase createClone() throws SQLException {
+        String cloneName = nextCloneName();
+        JdbcDataSource cloneDataSource = new JdbcDataSource();
+        cloneDataSource.setURL(IN_MEMORY_URL_PREFIX + cloneName + urlSettings);
+        cloneDataSource.setUser(sourceDataSource.getUser());
+        cloneDataSource.setPassword(sourceDataSource.getPassword());
+        try (Connection connection = cloneDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM '" + scriptFile + "'");
+        }
+        return new ClonedDatabase(cloneName, cloneDataSource, database -> drop(database.getDataSource()));
+    }
+
+    /**
+     * Drops the in-memory database when its last connection is closed. It is much faster than {@code SHUTDOWN}, which
+     * waits about 200 ms for the background writer of the store to stop.
+     */
+    private static void drop(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET DB_CLOSE_DELAY 0");
+        }
+    }
+
+    @Override
+    public void close() {
+        FileUtils.delete(scriptFile);
+    }
+}
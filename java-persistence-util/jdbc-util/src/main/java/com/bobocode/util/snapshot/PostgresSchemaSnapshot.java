@@ -0,0 +1,66 @@
+package com.bobocode.util.snapshot;
+
+import org.postgresql.ds.PGSimpleDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * PostgreSQL implementation of {@link SchemaSnapshot}. The source database is copied into a template database once,
+ * and clones are created from that template, so cloning does not depend on connections to the source database.
+ * Database commands are executed via the {@code postgres} maintenance database, and the user needs the
+ * {@code CREATEDB} privilege.
+ */
+class PostgresSchemaSnapshot extends SchemaSnapshot {
+    private static final String MAINTENANCE_DATABASE = "postgres";
+
+    private final PGSimpleDataSource sourceDataSource;
+    private final String templateName;
+
+    PostgresSchemaSnapshot(String name, PGSimpleDataSource sourceDataSource) throws SQLException {
+        super(name);
+        this.sourceDataSource = sourceDataSource;
+        this.templateName = sourceDataSource.getDatabaseName() + "_" + name;
+        executeOnMaintenanceDatabase(String.format("CREATE DATABASE %s TEMPLATE %s",
+                quote(templateName), quote(sourceDataSource.getDatabaseName())));
+    }
+
+    @Override
+    public ClonedDatabase createClone() throws SQLException {
+        String cloneName = sourceDataSource.getDatabaseName() + "_" + nextCloneName();
+        executeOnMaintenanceDatabase(String.format("CREATE DATABASE %s TEMPLATE %s",
+                quote(cloneName), quote(templateName)));
+        return new ClonedDatabase(cloneName, createDataSource(cloneName), this::drop);
+    }
+
+    private void drop(ClonedDatabase database) throws SQLException {
+        executeOnMaintenanceDatabase("DROP DATABASE IF EXISTS " + quote(database.getName()));
+    }
+
+    @Override
+    public void close() throws SQLException {
+        executeOnMaintenanceDatabase("DROP DATABASE IF EXISTS " + quote(templateName));
+    }
+
+    private void executeOnMaintenanceDatabase(String sql) throws SQLException {
+        // CREATE DATABASE cannot run inside a transaction block, so the default auto-commit mode is kept
+        try (Connection connection = createDataSource(MAINTENANCE_DATABASE).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private PGSimpleDataSource createDataSource(String databaseName) {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(sourceDataSource.getUrl());
+        dataSource.setUser(sourceDataSource.getUser());
+        dataSource.setPassword(sourceDataSource.getPassword());
+        dataSource.setDatabaseName(databaseName);
+        return dataSource;
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,70 @@
+package com.bobocode.util.snapshot;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link SchemaSnapshot} keeps a copy of an initialized database (schema and seed data) and creates new databases
+ * from it. Build the schema once, take a snapshot, and give every test its own {@link ClonedDatabase} instead of
+ * running the DDL again.
+ * <p>
+ * On H2, the snapshot is a {@code SCRIPT} of the source database stored in the in-memory file system, and every clone
+ * is a new in-memory database filled by {@code RUNSCRIPT}. On PostgreSQL, the snapshot is a template database created
+ * with {@code CREATE DATABASE ... TEMPLATE}, and every clone is a file-level copy of that template. The source
+ * database must not have open connections while a PostgreSQL snapshot is taken.
+ */
+public abstract class SchemaSnapshot implements AutoCloseable {
+    private static final AtomicLong SNAPSHOT_SEQUENCE = new AtomicLong();
+
+    private final String name;
+    private final AtomicLong cloneSequence = new AtomicLong();
+
+    SchemaSnapshot(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Takes a snapshot of an H2 or PostgreSQL database. Pooled and instrumented data sources are unwrapped.
+     *
+     * @param dataSource data source of an initialized database
+     * @return database snapshot
+     * @throws SQLFeatureNotSupportedException if the database is neither H2 nor PostgreSQL
+     */
+    public static SchemaSnapshot take(DataSource dataSource) throws SQLException {
+        String name = "snapshot_" + SNAPSHOT_SEQUENCE.incrementAndGet();
+        if (dataSource.isWrapperFor(JdbcDataSource.class)) {
+            return new H2SchemaSnapshot(name, dataSource.unwrap(JdbcDataSource.class));
+        }
+        if (dataSource.isWrapperFor(PGSimpleDataSource.class)) {
+            return new PostgresSchemaSnapshot(name, dataSource.unwrap(PGSimpleDataSource.class));
+        }
+        throw new SQLFeatureNotSupportedException("Snapshots are supported only for H2 and PostgreSQL data sources");
+    }
+
+    /**
+     * Creates a new database with the same schema and data as the source database had when the snapshot was taken.
+     * The clone should be closed when it is not needed anymore.
+     *
+     * @return cloned database
+     */
+    public abstract ClonedDatabase createClone() throws SQLException;
+
+    /**
+     * Drops the snapshot. Clones that were already created are not affected.
+     */
+    @Override
+    public abstract void close() throws SQLException;
+
+    String getName() {
+        return name;
+    }
+
+    String nextCloneName() {
+        return name + "_clone_" + cloneSequence.incrementAndGet();
+    }
+}
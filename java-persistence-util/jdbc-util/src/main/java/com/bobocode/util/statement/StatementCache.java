@@ -0,0 +1,182 @@
+package com.bobocode.util.statement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link StatementCache} is an LRU cache of {@link PreparedStatement}s that belong to a single physical
+ * {@link Connection}. Statements are keyed by {@link StatementCacheKey}, so the same SQL text is parsed and planned
+ * by the database only once per connection.
+ * <p>
+ * A statement is handed out as a proxy. Closing the proxy clears the statement parameters and puts the statement
+ * back into the cache instead of closing it. A statement that is in use is not visible to other callers, so
+ * preparing the same SQL twice returns two different statements. When the cache is full, the least recently
+ * returned statement is closed. Statements whose settings (fetch size, max rows, timeout, etc.) were changed are
+ * closed instead of being cached, so that the next caller always gets a statement with the default settings.
+ * <p>
+ * Like a {@link Connection}, the cache is not thread-safe and must be used by one thread at a time.
+ */
+public class StatementCache implements AutoCloseable {
+    private static final Set<String> STATEMENT_SETTINGS = Set.of("setFetchSize", "setFetchDirection", "setMaxRows",
+            "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout", "setEscapeProcessing", "setPoolable",
+            "setCursorName");
+
+    private final Connection connection;
+    private final int maxSize;
+    private final StatementCacheStats stats;
+    private final Map<StatementCacheKey, PreparedStatement> idleStatements;
+    private boolean closed;
+
+    public StatementCache(Connection connection, int maxSize) {
+        this(connection, maxSize, new StatementCacheStats());
+    }
+
+    public StatementCache(Connection connection, int maxSize, StatementCacheStats stats) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Statement cache size must be positive, but was " + maxSize);
+        }
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.idleStatements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementCacheKey, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    stats.recordEviction();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached statement for the SQL and generated keys mode, or prepares a new one.
+     *
+     * @param owner             connection that is returned by {@link PreparedStatement#getConnection()}
+     * @param sql               statement SQL text
+     * @param autoGeneratedKeys {@link java.sql.Statement#RETURN_GENERATED_KEYS} or
+     *                          {@link java.sql.Statement#NO_GENERATED_KEYS}
+     * @return a statement that returns to the cache when it is closed
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedStatement prepareStatement(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        StatementCacheKey key = new StatementCacheKey(sql, autoGeneratedKeys);
+        PreparedStatement statement = idleStatements.remove(key);
+        if (statement != null) {
+            stats.recordHit();
+        } else {
+            stats.recordMiss();
+            statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new CachedStatementHandler(owner, key, statement));
+    }
+
+    public StatementCacheStats getStats() {
+        return stats;
+    }
+
+    public int size() {
+        return idleStatements.size();
+    }
+
+    /**
+     * Closes all cached statements. Statements that are in use are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        idleStatements.values().forEach(StatementCache::closeQuietly);
+        idleStatements.clear();
+    }
+
+    private void returnStatement(StatementCacheKey key, PreparedStatement statement, boolean settingsChanged) {
+        if (closed || settingsChanged || !resetStatement(statement)) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement replaced = idleStatements.put(key, statement);
+        if (replaced != null) {
+            closeQuietly(replaced);
+        }
+    }
+
+    private static boolean resetStatement(PreparedStatement statement) {
+        try {
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            return !statement.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // the statement is discarded anyway
+        }
+    }
+
+    private class CachedStatementHandler implements InvocationHandler {
+        private final Connection owner;
+        private final StatementCacheKey key;
+        private final PreparedStatement statement;
+        private boolean closed;
+        private boolean settingsChanged;
+
+        CachedStatementHandler(Connection owner, StatementCacheKey key, PreparedStatement statement) {
+            this.owner = owner;
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        returnStatement(key, statement, settingsChanged);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + statement;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (method.getName().equals("getConnection")) {
+                return owner;
+            }
+            if (STATEMENT_SETTINGS.contains(method.getName())) {
+                settingsChanged = true;
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
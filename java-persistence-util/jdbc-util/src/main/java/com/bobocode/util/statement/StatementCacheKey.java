@@ -0,0 +1,12 @@
+package com.bobocode.util.statement;
+
+/**
+ * {@link StatementCacheKey} identifies a cached {@link java.sql.PreparedStatement} by its SQL text and the
+ * generated keys mode it was prepared with.
+ *
+ * @param sql               statement SQL text
+ * @param autoGeneratedKeys {@link java.sql.Statement#RETURN_GENERATED_KEYS} or
+ *                          {@link java.sql.Statement#NO_GENERATED_KEYS}
+ */
+public record StatementCacheKey(String sql, int autoGeneratedKeys) {
+}
@@ -0,0 +1,52 @@
+package com.bobocode.util.statement;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link StatementCacheStats} accumulates hit, miss and eviction counters of one or more {@link StatementCache}s.
+ * A pool shares a single instance between the caches of all its connections.
+ */
+public class StatementCacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return share of prepare calls that were served from the cache, or {@code 0} when nothing was prepared yet
+     */
+    public double getHitRatio() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StatementCacheStats(hits=%d, misses=%d, evictions=%d, hitRatio=%.3f)",
+                getHits(), getMisses(), getEvictions(), getHitRatio());
+    }
+}
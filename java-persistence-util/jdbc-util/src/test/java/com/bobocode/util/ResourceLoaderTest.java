@@ -0,0 +1,110 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ResourceLoaderTest {
+    private static final String SQL_FILE = "db/resource_loader_test.sql";
+    private static final String SQL_CONTENT = "-- resource loader test\r\nSELECT 1;\r\n\r\nSELECT 2;\r\n";
+
+    @Test
+    @DisplayName("Classpath resource is read as is and cached")
+    void classpathResourceIsCached() {
+        String content = ResourceLoader.readString(SQL_FILE);
+
+        assertThat(content).isEqualTo(SQL_CONTENT);
+        assertThat(ResourceLoader.readString(SQL_FILE)).isSameAs(content);
+    }
+
+    @Test
+    @DisplayName("FileReader normalizes line breaks and removes the trailing line break")
+    void fileReaderNormalizesLineBreaks() {
+        assertThat(FileReader.readWholeFileFromResources(SQL_FILE))
+                .isEqualTo("-- resource loader test\nSELECT 1;\n\nSELECT 2;");
+    }
+
+    @Test
+    @DisplayName("Resource inside a jar is read")
+    @SneakyThrows
+    void jarResourceIsRead(@TempDir Path tempDir) {
+        Path jarFile = tempDir.resolve("seed.jar");
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            jarOutputStream.putNextEntry(new JarEntry("db/seed.sql"));
+            jarOutputStream.write("INSERT INTO t VALUES ('ü');".getBytes(StandardCharsets.UTF_8));
+            jarOutputStream.closeEntry();
+        }
+        URL url = URI.create("jar:" + jarFile.toUri() + "!/db/seed.sql").toURL();
+
+        assertThat(ResourceLoader.readString(url)).isEqualTo("INSERT INTO t VALUES ('ü');");
+        try (Reader reader = ResourceLoader.openReader(url)) {
+            assertThat(reader.read()).isEqualTo('I');
+        }
+        Files.delete(jarFile);
+    }
+
+    @Test
+    @DisplayName("Large file is streamed line by line")
+    @SneakyThrows
+    void largeFileIsStreamed(@TempDir Path tempDir) {
+        Path sqlFile = tempDir.resolve("seed.sql");
+        try (OutputStream outputStream = Files.newOutputStream(sqlFile)) {
+            for (int i = 0; i < 100_000; i++) {
+                outputStream.write(("INSERT INTO t VALUES (" + i + ");\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        try (BufferedReader reader = new BufferedReader(ResourceLoader.openReader(sqlFile.toUri().toURL()))) {
+            assertThat(reader.lines().collect(Collectors.toList()))
+                    .hasSize(100_000)
+                    .endsWith("INSERT INTO t VALUES (99999);");
+        }
+        assertThat(ResourceLoader.readString(sqlFile.toUri().toURL())).hasSize((int) Files.size(sqlFile));
+    }
+
+    @Test
+    @DisplayName("Classpath resource bigger than the cache limit in bytes is read but not cached")
+    @SneakyThrows
+    void oversizedClasspathResourceIsNotCached() {
+        // two bytes per character, so the content has fewer characters than the limit but more bytes
+        String content = "ü".repeat(ResourceLoader.MAX_CACHED_SIZE * 3 / 4);
+        Path classpathDir = Path.of(ResourceLoader.class.getClassLoader().getResource(SQL_FILE).toURI()).getParent();
+        Path largeFile = classpathDir.resolve("resource_loader_large_test.sql");
+        Files.writeString(largeFile, content, StandardCharsets.UTF_8);
+        try {
+            String firstRead = ResourceLoader.readString("db/resource_loader_large_test.sql");
+            String secondRead = ResourceLoader.readString("db/resource_loader_large_test.sql");
+
+            assertThat(firstRead).isEqualTo(content);
+            assertThat(secondRead).isEqualTo(content).isNotSameAs(firstRead);
+        } finally {
+            Files.delete(largeFile);
+        }
+    }
+
+    @Test
+    @DisplayName("Missing resource is reported")
+    void missingResourceIsReported() {
+        assertThatExceptionOfType(FileReaderException.class)
+                .isThrownBy(() -> ResourceLoader.readString("db/missing.sql"))
+                .withMessageContaining("db/missing.sql");
+        assertThatExceptionOfType(FileReaderException.class)
+                .isThrownBy(() -> ResourceLoader.openReader("db/missing.sql"));
+    }
+}
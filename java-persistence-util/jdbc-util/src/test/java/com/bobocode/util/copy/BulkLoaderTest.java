@@ -0,0 +1,136 @@
+package com.bobocode.util.copy;
+
+import com.bobocode.util.JdbcUtil;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class BulkLoaderTest {
+    private static final String URL = "jdbc:h2:mem:bulk_loader_test_db;DB_CLOSE_DELAY=-1";
+    private static final CopyTable<Item> ITEMS = CopyTable.<Item>builder("items")
+            .column("name", Item::name)
+            .column("price", Item::price)
+            .column("status", Item::status)
+            .column("expiration_date", Item::expirationDate)
+            .column("created_at", Item::createdAt)
+            .build();
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    @SneakyThrows
+    void setup() {
+        dataSource = JdbcUtil.createInMemoryH2DataSource(URL, "loader_user", "loader_pass");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("""
+                    CREATE TABLE items (
+                        id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        name            VARCHAR(255) NOT NULL,
+                        price           DECIMAL(19, 4),
+                        status          VARCHAR(16),
+                        expiration_date DATE,
+                        created_at      TIMESTAMP
+                    )""");
+        }
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void destroy() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("DROP TABLE items");
+        }
+    }
+
+    @Test
+    @DisplayName("Rows are loaded with batched inserts when the database is not PostgreSQL")
+    @SneakyThrows
+    void rowsAreLoadedWithBatchedInserts() {
+        Stream<Item> items = IntStream.range(0, 2500).mapToObj(i -> new Item("item-" + i, BigDecimal.valueOf(i, 2),
+                Status.ACTIVE, LocalDate.of(2030, 1, 1), LocalDateTime.of(2020, 1, 1, 10, 0)));
+
+        long loadedCount = BulkLoader.load(dataSource, ITEMS, items);
+
+        assertThat(loadedCount).isEqualTo(2500);
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.createStatement().executeQuery(
+                     "SELECT count(*), max(price), min(status), min(expiration_date) FROM items")) {
+            resultSet.next();
+            assertThat(resultSet.getLong(1)).isEqualTo(2500);
+            assertThat(resultSet.getBigDecimal(2)).isEqualByComparingTo("24.99");
+            assertThat(resultSet.getString(3)).isEqualTo("ACTIVE");
+            assertThat(resultSet.getObject(4, LocalDate.class)).isEqualTo(LocalDate.of(2030, 1, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("No rows are stored when loading fails")
+    @SneakyThrows
+    void loadIsRolledBackOnError() {
+        Stream<Item> items = Stream.of(new Item("first", null, null, null, null), new Item(null, null, null, null, null));
+
+        assertThatExceptionOfType(BulkLoaderException.class).isThrownBy(() -> BulkLoader.load(dataSource, ITEMS, items));
+
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.createStatement().executeQuery("SELECT count(*) FROM items")) {
+            resultSet.next();
+            assertThat(resultSet.getLong(1)).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Rows are encoded into CSV COPY format on demand")
+    @SneakyThrows
+    void rowsAreEncodedIntoCsv() {
+        Iterator<Item> items = List.of(
+                new Item("Say \"cheese\", please", new BigDecimal("1E+2"), Status.ARCHIVED, LocalDate.of(2030, 1, 2),
+                        LocalDateTime.of(2020, 1, 1, 10, 15, 30)),
+                new Item("", null, null, null, null)).iterator();
+
+        String csv = readFully(new CsvRowReader<>(ITEMS, items), 7);
+
+        assertThat(csv).isEqualTo("""
+                "Say ""cheese"", please",100,"ARCHIVED","2030-01-02",2020-01-01 10:15:30
+                "",,,,
+                """);
+        assertThat(items.hasNext()).isFalse();
+    }
+
+    @SneakyThrows
+    private static String readFully(Reader reader, int chunkSize) {
+        StringWriter writer = new StringWriter();
+        char[] chunk = new char[chunkSize];
+        int count;
+        while ((count = reader.read(chunk)) != -1) {
+            assertThat(count).isPositive();
+            writer.write(Arrays.copyOf(chunk, count));
+        }
+        return writer.toString();
+    }
+
+    enum Status {
+        ACTIVE, ARCHIVED
+    }
+
+    record Item(String name, BigDecimal price, Status status, LocalDate expirationDate, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.bobocode.util.mapper;
+
+import com.bobocode.util.JdbcUtil;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class BeanRowMapperTest {
+    private static final String URL = "jdbc:h2:mem:row_mapper_test_db;DB_CLOSE_DELAY=-1";
+
+    private DataSource dataSource;
+    private Connection connection;
+
+    @BeforeEach
+    @SneakyThrows
+    void setup() {
+        dataSource = JdbcUtil.createInMemoryH2DataSource(URL, "mapper_user", "mapper_pass");
+        connection = dataSource.getConnection();
+        connection.createStatement().execute("""
+                CREATE TABLE items (
+                    id              BIGINT PRIMARY KEY,
+                    name            VARCHAR(255),
+                    quantity        INT,
+                    price           DECIMAL(19, 4),
+                    status          VARCHAR(16),
+                    expiration_date TIMESTAMP,
+                    created_at      TIMESTAMP,
+                    comment         VARCHAR(255)
+                )""");
+        connection.createStatement().execute("""
+                INSERT INTO items VALUES
+                    (1, 'Apple', 10, 1.5, 'ACTIVE', '2030-01-01 00:00:00', '2020-05-05 10:15:30', 'unused'),
+                    (2, NULL, NULL, NULL, NULL, NULL, NULL, NULL)""");
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void destroy() {
+        connection.createStatement().execute("DROP TABLE items");
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Columns are mapped to fields ignoring case and underscores")
+    @SneakyThrows
+    void columnsAreMappedToFields() {
+        List<Item> items = selectItems("SELECT * FROM items ORDER BY id");
+
+        Item item = items.get(0);
+        assertThat(item.id).isEqualTo(1L);
+        assertThat(item.name).isEqualTo("Apple");
+        assertThat(item.quantity).isEqualTo(10);
+        assertThat(item.price).isEqualByComparingTo("1.5");
+        assertThat(item.status).isEqualTo(Status.ACTIVE);
+        assertThat(item.expirationDate).isEqualTo(LocalDate.of(2030, 1, 1));
+        assertThat(item.createdAt).isEqualTo(LocalDateTime.of(2020, 5, 5, 10, 15, 30));
+    }
+
+    @Test
+    @DisplayName("SQL NULL keeps primitive defaults and clears references")
+    @SneakyThrows
+    void nullValuesAreMapped() {
+        Item item = selectItems("SELECT * FROM items WHERE id = 2").get(0);
+
+        assertThat(item.name).isNull();
+        assertThat(item.quantity).isEqualTo(-1);
+        assertThat(item.price).isNull();
+        assertThat(item.status).isNull();
+        assertThat(item.expirationDate).isNull();
+    }
+
+    @Test
+    @DisplayName("Fields without a column keep their initial values")
+    @SneakyThrows
+    void fieldsWithoutColumnAreNotChanged() {
+        Item item = selectItems("SELECT id AS ID, name FROM items WHERE id = 1").get(0);
+
+        assertThat(item.id).isEqualTo(1L);
+        assertThat(item.name).isEqualTo("Apple");
+        assertThat(item.quantity).isEqualTo(-1);
+        assertThat(item.price).isEqualTo(BigDecimal.ONE);
+    }
+
+    @Test
+    @DisplayName("Mappers are shared per class and compiled once per column list")
+    @SneakyThrows
+    void mappersAreCached() {
+        assertThat(BeanRowMapper.of(Item.class)).isSameAs(BeanRowMapper.of(Item.class));
+
+        RowMapper<Item> first;
+        RowMapper<Item> second;
+        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM items");
+             ResultSet resultSet = statement.executeQuery()) {
+            first = BeanRowMapper.of(Item.class).compile(resultSet.getMetaData());
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM items WHERE id = 1");
+             ResultSet resultSet = statement.executeQuery()) {
+            second = BeanRowMapper.of(Item.class).compile(resultSet.getMetaData());
+        }
+        assertThat(first).isSameAs(second);
+    }
+
+    @Test
+    @DisplayName("Class without a no-arg constructor is rejected")
+    void classWithoutNoArgConstructorIsRejected() {
+        assertThatExceptionOfType(RowMapperException.class).isThrownBy(() -> BeanRowMapper.of(Immutable.class));
+    }
+
+    @SneakyThrows
+    private List<Item> selectItems(String sql) {
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            return BeanRowMapper.of(Item.class).mapAll(resultSet);
+        }
+    }
+
+    enum Status {
+        ACTIVE, ARCHIVED
+    }
+
+    static class Item {
+        private Long id;
+        private String name;
+        private int quantity = -1;
+        private BigDecimal price = BigDecimal.ONE;
+        private Status status;
+        private LocalDate expirationDate;
+        private LocalDateTime createdAt;
+    }
+
+    record Immutable(Long id) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.bobocode.util.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HistogramTest {
+
+    @Test
+    @DisplayName("Small values are counted exactly")
+    void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        LongStream.rangeClosed(1, 20).forEach(histogram::record);
+
+        assertThat(histogram.getCount()).isEqualTo(20);
+        assertThat(histogram.getMax()).isEqualTo(20);
+        assertThat(histogram.getMean()).isEqualTo(10.5);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(10);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Percentiles of large values are within the bucket precision")
+    void largeValuesArePrecise() {
+        Histogram histogram = new Histogram();
+        LongStream.rangeClosed(1, 100_000).map(i -> i * 1_000).forEach(histogram::record);
+
+        assertThat(histogram.getValueAtPercentile(50)).isCloseTo(50_000_000L, within(50_000_000L / 16));
+        assertThat(histogram.getValueAtPercentile(99)).isCloseTo(99_000_000L, within(99_000_000L / 16));
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100_000_000L);
+    }
+
+    @Test
+    @DisplayName("Every value falls into a bucket whose upper bound is not below the value")
+    void bucketsCoverAllValues() {
+        long[] values = {0, 31, 32, 33, 63, 64, 1_000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+
+        for (long value : values) {
+            int index = Histogram.bucketIndex(value);
+            assertThat(Histogram.highestValueInBucket(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(Histogram.highestValueInBucket(index - 1)).isLessThan(value);
+            }
+        }
+    }
+}
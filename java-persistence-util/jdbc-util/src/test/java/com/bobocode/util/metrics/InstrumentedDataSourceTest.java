@@ -0,0 +1,164 @@
+package com.bobocode.util.metrics;
+
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.pool.PooledDataSource;
+import lombok.SneakyThrows;
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class InstrumentedDataSourceTest {
+    private static final String URL = "jdbc:h2:mem:instrumented_test_db;DB_CLOSE_DELAY=-1";
+    private static final String INSERT_SQL = "INSERT INTO events (name) VALUES (?)";
+    private static final String SELECT_SQL = "SELECT * FROM events";
+
+    private PooledDataSource pooledDataSource;
+    private JdbcMetrics metrics;
+    private InstrumentedDataSource dataSource;
+
+    @BeforeEach
+    @SneakyThrows
+    void setup() {
+        pooledDataSource = JdbcUtil.createDefaultPooledInMemoryH2DataSource();
+        metrics = new JdbcMetrics();
+        dataSource = JdbcUtil.createInstrumentedDataSource(pooledDataSource, metrics, Duration.ofSeconds(10));
+        try (Connection connection = pooledDataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE events (id IDENTITY PRIMARY KEY, name VARCHAR(255))");
+        }
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void destroy() {
+        try (Connection connection = pooledDataSource.getConnection()) {
+            connection.createStatement().execute("DROP TABLE events");
+        }
+        pooledDataSource.close();
+    }
+
+    @Test
+    @DisplayName("Executions, updated rows and fetched rows are recorded per SQL")
+    @SneakyThrows
+    void executionsAreRecordedPerSql() {
+        try (Connection connection = dataSource.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                    statement.setString(1, "event-" + i);
+                    statement.executeUpdate();
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_SQL);
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertThat(resultSet.getString("name")).startsWith("event-");
+                }
+            }
+        }
+
+        assertThat(metrics.getConnectionAcquireTimeNanos().getCount()).isEqualTo(1);
+        StatementMetrics insertMetrics = metrics.getStatementMetrics(INSERT_SQL);
+        assertThat(insertMetrics.getExecutionTimeNanos().getCount()).isEqualTo(3);
+        assertThat(insertMetrics.getUpdatedRows()).isEqualTo(3);
+        StatementMetrics selectMetrics = metrics.getStatementMetrics(SELECT_SQL);
+        assertThat(selectMetrics.getExecutionTimeNanos().getCount()).isEqualTo(1);
+        assertThat(selectMetrics.getFetchedRows()).isEqualTo(3);
+        assertThat(selectMetrics.getSlowExecutions()).isZero();
+    }
+
+    @Test
+    @DisplayName("Batch sizes are recorded")
+    @SneakyThrows
+    void batchSizesAreRecorded() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < 7; i++) {
+                statement.setString(1, "event-" + i);
+                statement.addBatch();
+                if (i % 5 == 4) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+
+        Histogram batchSizes = metrics.getStatementMetrics(INSERT_SQL).getBatchSizes();
+        assertThat(batchSizes.getCount()).isEqualTo(2);
+        assertThat(batchSizes.getMax()).isEqualTo(5);
+        assertThat(batchSizes.getValueAtPercentile(0)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Rows are reported when the statement closes its result set")
+    @SneakyThrows
+    void rowsAreReportedWhenStatementIsClosed() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().executeUpdate("INSERT INTO events (name) VALUES ('first'), ('second')");
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery(SELECT_SQL);
+            resultSet.next();
+            assertThat(resultSet.getStatement()).isSameAs(statement);
+            assertThat(statement.getConnection()).isSameAs(connection);
+            statement.close();
+        }
+
+        assertThat(metrics.getStatementMetrics(SELECT_SQL).getFetchedRows()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Slow statements are reported to the sink")
+    @SneakyThrows
+    void slowStatementsAreReported() {
+        MetricsSink sink = Mockito.mock(MetricsSink.class);
+        InstrumentedDataSource slowDataSource = new InstrumentedDataSource(pooledDataSource, sink, Duration.ZERO);
+
+        try (Connection connection = slowDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            statement.setString(1, "slow");
+            statement.executeUpdate();
+        }
+
+        Mockito.verify(sink).onStatementExecuted(eq(INSERT_SQL), anyLong(), eq(1L));
+        Mockito.verify(sink).onSlowStatement(eq(INSERT_SQL), anyLong());
+    }
+
+    @Test
+    @DisplayName("Wrapped objects can be unwrapped")
+    @SneakyThrows
+    void wrappedObjectsCanBeUnwrapped() {
+        assertThat(dataSource.unwrap(PooledDataSource.class)).isSameAs(pooledDataSource);
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isWrapperFor(JdbcConnection.class)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("SQL texts over the limit are recorded together as other statements")
+    void sqlTextsOverLimitAreRecordedAsOther() {
+        JdbcMetrics limitedMetrics = new JdbcMetrics(2);
+
+        for (int i = 0; i < 5; i++) {
+            limitedMetrics.onStatementExecuted("SELECT * FROM events WHERE id = " + i, 1_000, 0);
+        }
+        limitedMetrics.onStatementExecuted("SELECT * FROM events WHERE id = 0", 1_000, 0);
+
+        assertThat(limitedMetrics.getStatementMetrics()).containsOnlyKeys(
+                "SELECT * FROM events WHERE id = 0", "SELECT * FROM events WHERE id = 1", JdbcMetrics.OTHER_SQL);
+        assertThat(limitedMetrics.getStatementMetrics("SELECT * FROM events WHERE id = 0")
+                .getExecutionTimeNanos().getCount()).isEqualTo(2);
+        assertThat(limitedMetrics.getStatementMetrics(JdbcMetrics.OTHER_SQL)
+                .getExecutionTimeNanos().getCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,190 @@
+package com.bobocode.util.migration;
+
+import com.bobocode.util.JdbcUtil;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class MigratorTest {
+    private static final MigrationConfig CONFIG = MigrationConfig.builder()
+            .location("db/test_migration")
+            .build();
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setup() {
+        String url = String.format("jdbc:h2:mem:migration_%s;DB_CLOSE_DELAY=-1", UUID.randomUUID());
+        dataSource = JdbcUtil.createInMemoryH2DataSource(url, "migration_user", "migration_pass");
+    }
+
+    @Test
+    @DisplayName("Pending migrations are applied in version order and recorded")
+    @SneakyThrows
+    void pendingMigrationsAreApplied() {
+        List<Migration> appliedMigrations = new Migrator(CONFIG).migrate(dataSource);
+
+        assertThat(appliedMigrations).extracting(Migration::getVersion).containsExactly("1", "1.1", "2");
+        assertThat(appliedMigrations).extracting(Migration::getDescription)
+                .containsExactly("create items", "seed items", "add item price");
+        assertThat(queryLong("SELECT count(*) FROM items WHERE price = 18")).isEqualTo(1);
+        assertThat(queryLong("SELECT count(*) FROM schema_history")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Up-to-date schema costs a single query")
+    @SneakyThrows
+    void upToDateSchemaCostsSingleQuery() {
+        new Migrator(CONFIG).migrate(dataSource);
+        DataSource spyDataSource = Mockito.spy(dataSource);
+
+        List<Migration> appliedMigrations = new Migrator(CONFIG).migrate(spyDataSource);
+
+        assertThat(appliedMigrations).isEmpty();
+        Mockito.verify(spyDataSource, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Changed migration is reported")
+    @SneakyThrows
+    void changedMigrationIsReported() {
+        new Migrator(CONFIG).migrate(dataSource);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("UPDATE schema_history SET checksum = checksum + 1 WHERE version = '1.1'");
+        }
+
+        assertThatExceptionOfType(MigrationException.class)
+                .isThrownBy(() -> new Migrator(CONFIG).migrate(dataSource))
+                .withMessageContaining("V1.1 (seed items) was changed");
+    }
+
+    @Test
+    @DisplayName("Only one of concurrently starting nodes applies the migrations")
+    @SneakyThrows
+    void concurrentNodesMigrateOnce() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Migration>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> new Migrator(CONFIG).migrate(dataSource)));
+            }
+
+            int appliedCount = 0;
+            for (Future<List<Migration>> result : results) {
+                appliedCount += result.get().size();
+            }
+            assertThat(appliedCount).isEqualTo(3);
+            assertThat(queryLong("SELECT count(*) FROM items")).isEqualTo(2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Migrations are found in a jar")
+    @SneakyThrows
+    void migrationsAreFoundInJar(@TempDir Path tempDir) {
+        Path jarFile = tempDir.resolve("migrations.jar");
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            jarOutputStream.putNextEntry(new JarEntry("db/jar_migration/"));
+            jarOutputStream.putNextEntry(new JarEntry("db/jar_migration/V1__create_notes.sql"));
+            jarOutputStream.write("CREATE TABLE notes (id INT);".getBytes());
+            jarOutputStream.putNextEntry(new JarEntry("db/jar_migration/README.md"));
+            jarOutputStream.write("not a migration".getBytes());
+        }
+        MigrationConfig config = MigrationConfig.builder()
+                .location("db/jar_migration")
+                .build();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jarFile.toUri().toURL()}, null)) {
+            List<Migration> appliedMigrations = new Migrator(config, classLoader).migrate(dataSource);
+
+            assertThat(appliedMigrations).extracting(Migration::getScriptName).containsExactly("V1__create_notes.sql");
+        }
+        assertThat(queryLong("SELECT count(*) FROM notes")).isZero();
+    }
+
+    @Test
+    @DisplayName("Checksum ignores line terminators but not line breaks")
+    @SneakyThrows
+    void checksumDependsOnLineBreaks(@TempDir Path tempDir) {
+        Files.createDirectories(tempDir.resolve("lf"));
+        Files.createDirectories(tempDir.resolve("crlf"));
+        Files.createDirectories(tempDir.resolve("joined"));
+        Files.writeString(tempDir.resolve("lf/V1__init.sql"), "SELECT 1;\nSELECT 2;\n");
+        Files.writeString(tempDir.resolve("crlf/V1__init.sql"), "SELECT 1;\r\nSELECT 2;\r\n");
+        Files.writeString(tempDir.resolve("joined/V1__init.sql"), "SELECT 1;SELECT 2;\n");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, null)) {
+            int checksum = MigrationScanner.scan(classLoader, "lf").get(0).getChecksum();
+
+            assertThat(MigrationScanner.scan(classLoader, "crlf").get(0).getChecksum()).isEqualTo(checksum);
+            assertThat(MigrationScanner.scan(classLoader, "joined").get(0).getChecksum()).isNotEqualTo(checksum);
+        }
+    }
+
+    @Test
+    @DisplayName("Lock timeout of the lock connection is restored on release")
+    @SneakyThrows
+    void lockTimeoutIsRestored() {
+        try (Connection connection = dataSource.getConnection()) {
+            DataSource singleConnectionDataSource = Mockito.mock(DataSource.class);
+            Mockito.when(singleConnectionDataSource.getConnection()).thenReturn(connection);
+            connection.createStatement().execute("SET LOCK_TIMEOUT 1234");
+
+            MigrationLock.acquire(singleConnectionDataSource, CONFIG).unlock();
+
+            ResultSet resultSet = connection.createStatement().executeQuery("SELECT LOCK_TIMEOUT()");
+            resultSet.next();
+            assertThat(resultSet.getLong(1)).isEqualTo(1234);
+        }
+    }
+
+    @Test
+    @DisplayName("Lock connection is closed when the lock cannot be taken")
+    @SneakyThrows
+    void lockConnectionIsClosedOnFailure() {
+        Connection connection = Mockito.mock(Connection.class);
+        SQLException failure = new SQLException("Metadata error");
+        Mockito.when(connection.getMetaData()).thenThrow(failure);
+        DataSource failingDataSource = Mockito.mock(DataSource.class);
+        Mockito.when(failingDataSource.getConnection()).thenReturn(connection);
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> MigrationLock.acquire(failingDataSource, CONFIG))
+                .isSameAs(failure);
+        Mockito.verify(connection).close();
+    }
+
+    @SneakyThrows
+    private long queryLong(String sql) {
+        try (Connection connection = dataSource.getConnection()) {
+            ResultSet resultSet = connection.createStatement().executeQuery(sql);
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
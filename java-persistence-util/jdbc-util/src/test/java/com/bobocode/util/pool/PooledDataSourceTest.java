@@ -0,0 +1,211 @@
+package com.bobocode.util.pool;
+
+import com.bobocode.util.JdbcUtil;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class PooledDataSourceTest {
+    private static final String URL = "jdbc:h2:mem:pool_test_db;DB_CLOSE_DELAY=-1";
+
+    private DataSource targetDataSource;
+    private PooledDataSource pooledDataSource;
+
+    @BeforeEach
+    void setup() {
+        targetDataSource = Mockito.spy(JdbcUtil.createInMemoryH2DataSource(URL, "pool_user", "pool_pass"));
+    }
+
+    @AfterEach
+    void destroy() {
+        pooledDataSource.close();
+    }
+
+    @Test
+    @DisplayName("Physical connection is reused between borrows")
+    @SneakyThrows
+    void physicalConnectionIsReused() {
+        pooledDataSource = new PooledDataSource(targetDataSource);
+
+        for (int i = 0; i < 5; i++) {
+            try (Connection connection = pooledDataSource.getConnection()) {
+                connection.createStatement().execute("SELECT 1");
+            }
+        }
+
+        Mockito.verify(targetDataSource, Mockito.times(1)).getConnection();
+        assertThat(pooledDataSource.getTotalConnections()).isEqualTo(1);
+        assertThat(pooledDataSource.getIdleConnections()).isEqualTo(1);
+        assertThat(pooledDataSource.getActiveConnections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Borrowing times out when the pool is exhausted")
+    @SneakyThrows
+    void borrowTimesOutWhenPoolIsExhausted() {
+        pooledDataSource = new PooledDataSource(targetDataSource, PoolConfig.builder()
+                .maximumPoolSize(2)
+                .connectionTimeout(Duration.ofMillis(50))
+                .build());
+
+        try (Connection first = pooledDataSource.getConnection();
+             Connection second = pooledDataSource.getConnection()) {
+            assertThat(pooledDataSource.getActiveConnections()).isEqualTo(2);
+            assertThatExceptionOfType(SQLTimeoutException.class).isThrownBy(pooledDataSource::getConnection);
+        }
+        try (Connection connection = pooledDataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Closed proxy cannot be used")
+    @SneakyThrows
+    void closedProxyCannotBeUsed() {
+        pooledDataSource = new PooledDataSource(targetDataSource);
+
+        Connection connection = pooledDataSource.getConnection();
+        connection.close();
+
+        assertThat(connection.isClosed()).isTrue();
+        assertThatExceptionOfType(SQLException.class).isThrownBy(connection::createStatement);
+    }
+
+    @Test
+    @DisplayName("Connection state is reset when it is returned")
+    @SneakyThrows
+    void connectionStateIsResetOnReturn() {
+        pooledDataSource = new PooledDataSource(targetDataSource);
+        try (Connection connection = pooledDataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE IF NOT EXISTS pool_state(id INT)");
+        }
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            connection.createStatement().execute("INSERT INTO pool_state VALUES (1)");
+        }
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            assertThat(connection.getAutoCommit()).isTrue();
+            assertThat(connection.isReadOnly()).isFalse();
+            var resultSet = connection.createStatement().executeQuery("SELECT count(*) FROM pool_state");
+            resultSet.next();
+            assertThat(resultSet.getInt(1)).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Expired connection is replaced")
+    @SneakyThrows
+    void expiredConnectionIsReplaced() {
+        pooledDataSource = new PooledDataSource(targetDataSource, PoolConfig.builder()
+                .maxLifetime(Duration.ofMillis(20))
+                .build());
+
+        pooledDataSource.getConnection().close();
+        Thread.sleep(30);
+        pooledDataSource.getConnection().close();
+
+        Mockito.verify(targetDataSource, Mockito.times(2)).getConnection();
+        assertThat(pooledDataSource.getTotalConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Broken idle connection is replaced after validation")
+    @SneakyThrows
+    void brokenConnectionIsReplaced() {
+        pooledDataSource = new PooledDataSource(targetDataSource, PoolConfig.builder()
+                .validationInterval(Duration.ZERO)
+                .build());
+        Connection connection = pooledDataSource.getConnection();
+        Connection physicalConnection = connection.unwrap(Connection.class);
+        connection.close();
+        physicalConnection.close();
+
+        try (Connection newConnection = pooledDataSource.getConnection()) {
+            assertThat(newConnection.isValid(1)).isTrue();
+        }
+        Mockito.verify(targetDataSource, Mockito.times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Prepared statements are cached per connection")
+    @SneakyThrows
+    void preparedStatementsAreCached() {
+        pooledDataSource = new PooledDataSource(targetDataSource, PoolConfig.builder()
+                .statementCacheSize(2)
+                .build());
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pooledDataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT ?")) {
+                statement.setInt(1, i);
+                statement.executeQuery().close();
+            }
+        }
+        try (Connection connection = pooledDataSource.getConnection()) {
+            connection.prepareStatement("SELECT 1", Statement.RETURN_GENERATED_KEYS).close();
+            connection.prepareStatement("SELECT 2").close();
+            connection.prepareStatement("SELECT 3").close();
+        }
+
+        var stats = pooledDataSource.getStatementCacheStats();
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getMisses()).isEqualTo(4);
+        assertThat(stats.getEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Statement with changed settings is not cached")
+    @SneakyThrows
+    void statementWithChangedSettingsIsNotCached() {
+        pooledDataSource = new PooledDataSource(targetDataSource, PoolConfig.builder()
+                .statementCacheSize(2)
+                .build());
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("SELECT 1");
+            statement.setMaxRows(1);
+            statement.close();
+            connection.prepareStatement("SELECT 1").close();
+        }
+
+        assertThat(pooledDataSource.getStatementCacheStats().getHits()).isZero();
+    }
+
+    @Test
+    @DisplayName("Statements return the borrowed connection rather than the physical one")
+    @SneakyThrows
+    void statementsReturnBorrowedConnection() {
+        pooledDataSource = new PooledDataSource(targetDataSource);
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            Statement statement = connection.createStatement();
+            PreparedStatement cachedStatement = connection.prepareStatement("SELECT 1");
+            PreparedStatement uncachedStatement = connection.prepareStatement("SELECT 1", new int[]{1});
+
+            assertThat(statement.getConnection()).isSameAs(connection);
+            assertThat(cachedStatement.getConnection()).isSameAs(connection);
+            assertThat(uncachedStatement.getConnection()).isSameAs(connection);
+            assertThat(connection.prepareCall("CALL 1").getConnection()).isSameAs(connection);
+            assertThat(statement.executeQuery("SELECT 1").next()).isTrue();
+        }
+
+        assertThat(pooledDataSource.getIdleConnections()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.bobocode.util.script;
+
+import com.bobocode.util.JdbcUtil;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class SqlScriptRunnerTest {
+    private static final String URL = "jdbc:h2:mem:script_runner_test_db;DB_CLOSE_DELAY=-1";
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setup() {
+        dataSource = JdbcUtil.createInMemoryH2DataSource(URL, "script_user", "script_pass");
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void destroy() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    @DisplayName("Semicolons in comments, quoted strings and dollar-quoted strings do not split statements")
+    @SneakyThrows
+    void tokenizerKeepsQuotedSemicolons() {
+        String script = """
+                -- leading comment;
+                CREATE TABLE notes (id INT, text VARCHAR(255));
+                /* block /* nested; */ comment; */
+                INSERT INTO notes VALUES (1, 'it''s; quoted');
+                INSERT INTO "notes" VALUES (2, E'escaped \\'; quote');
+                CREATE FUNCTION f() RETURNS TEXT AS $body$ SELECT 'a;b' $body$ LANGUAGE sql;
+                SELECT $$x;y$$, $1 FROM notes -- trailing comment;
+                ;;
+                """;
+
+        List<ScriptStatement> statements = tokenize(script);
+
+        assertThat(statements).extracting(ScriptStatement::sql).containsExactly(
+                "CREATE TABLE notes (id INT, text VARCHAR(255))",
+                "INSERT INTO notes VALUES (1, 'it''s; quoted')",
+                "INSERT INTO \"notes\" VALUES (2, E'escaped \\'; quote')",
+                "CREATE FUNCTION f() RETURNS TEXT AS $body$ SELECT 'a;b' $body$ LANGUAGE sql",
+                "SELECT $$x;y$$, $1 FROM notes");
+        assertThat(statements).extracting(ScriptStatement::lineNumber).containsExactly(2, 4, 5, 6, 7);
+    }
+
+    @Test
+    @DisplayName("DML statements are batched and committed in chunks")
+    @SneakyThrows
+    void dmlIsBatchedAndCommittedInChunks() {
+        String script = "CREATE TABLE numbers (n INT);\n" + IntStream.range(0, 250)
+                .mapToObj(i -> "INSERT INTO numbers VALUES (" + i + ");\n")
+                .collect(Collectors.joining());
+        List<ScriptStats> progress = new ArrayList<>();
+        SqlScriptRunner runner = new SqlScriptRunner(ScriptConfig.builder()
+                .batchSize(50)
+                .commitSize(101)
+                .progressInterval(100)
+                .progressListener((stats, finished) -> progress.add(stats))
+                .build());
+
+        ScriptStats stats = runner.run(dataSource, new StringReader(script));
+
+        assertThat(stats.getStatementCount()).isEqualTo(251);
+        assertThat(stats.getBatchCount()).isEqualTo(6);
+        assertThat(stats.getCommitCount()).isEqualTo(3);
+        assertThat(progress).extracting(ScriptStats::getStatementCount).containsExactly(101L, 201L, 251L);
+        assertThat(countNumbers()).isEqualTo(250);
+    }
+
+    @Test
+    @DisplayName("Failed statement is reported with its line, and its chunk is rolled back")
+    @SneakyThrows
+    void failedChunkIsRolledBack() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE numbers (n INT PRIMARY KEY)");
+        }
+        String script = """
+                INSERT INTO numbers VALUES (1);
+                INSERT INTO numbers VALUES (2);
+                INSERT INTO numbers VALUES (3);
+                INSERT INTO numbers VALUES (3);
+                """;
+        SqlScriptRunner runner = new SqlScriptRunner(ScriptConfig.builder()
+                .commitSize(2)
+                .build());
+
+        assertThatExceptionOfType(SqlScriptException.class)
+                .isThrownBy(() -> runner.run(dataSource, new StringReader(script)))
+                .satisfies(e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(4);
+                    assertThat(e.getStatement()).isEqualTo("INSERT INTO numbers VALUES (3)");
+                    assertThat(e.getSQLState()).isEqualTo("23505");
+                });
+        assertThat(countNumbers()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Commit callback runs in the transaction of the last chunk")
+    @SneakyThrows
+    void commitCallbackRunsInLastChunk() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE numbers (n INT PRIMARY KEY)");
+        }
+        SqlScriptRunner runner = new SqlScriptRunner(ScriptConfig.builder()
+                .commitSize(0)
+                .build());
+
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptStats stats = runner.run(connection, new StringReader("INSERT INTO numbers VALUES (1);"),
+                    (scriptConnection, scriptStats) -> scriptConnection.createStatement()
+                            .execute("INSERT INTO numbers VALUES (" + (scriptStats.getStatementCount() + 1) + ")"));
+            assertThat(stats.getCommitCount()).isEqualTo(1);
+
+            assertThatExceptionOfType(SQLException.class)
+                    .isThrownBy(() -> runner.run(connection, new StringReader("INSERT INTO numbers VALUES (3);"),
+                            (scriptConnection, scriptStats) -> scriptConnection.createStatement()
+                                    .execute("INSERT INTO numbers VALUES (1)")));
+            assertThat(connection.getAutoCommit()).isTrue();
+        }
+        assertThat(countNumbers()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Script is executed from the classpath")
+    @SneakyThrows
+    void scriptIsExecutedFromClasspath() {
+        ScriptStats stats = new SqlScriptRunner().runResource(dataSource, "db/resource_loader_test.sql");
+
+        assertThat(stats.getStatementCount()).isEqualTo(2);
+        assertThat(stats.getStatementsPerSecond()).isPositive();
+    }
+
+    @SneakyThrows
+    private static List<ScriptStatement> tokenize(String script) {
+        List<ScriptStatement> statements = new ArrayList<>();
+        try (Reader reader = new StringReader(script)) {
+            SqlScriptTokenizer tokenizer = new SqlScriptTokenizer(reader);
+            ScriptStatement statement;
+            while ((statement = tokenizer.nextStatement()) != null) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+
+    @SneakyThrows
+    private long countNumbers() {
+        try (Connection connection = dataSource.getConnection()) {
+            ResultSet resultSet = connection.createStatement().executeQuery("SELECT count(*) FROM numbers");
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.bobocode.util.snapshot;
+
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.script.SqlScriptRunner;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class SchemaSnapshotTest {
+    private static final String URL = "jdbc:h2:mem:snapshot_test_db;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false";
+    private static final String SCHEMA_SQL = """
+            CREATE TABLE products (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE);
+            INSERT INTO products (name) VALUES ('Sprite');
+            INSERT INTO products (name) VALUES ('Snickers');
+            """;
+
+    private DataSource sourceDataSource;
+    private SchemaSnapshot snapshot;
+
+    @BeforeEach
+    @SneakyThrows
+    void setup() {
+        sourceDataSource = JdbcUtil.createInMemoryH2DataSource(URL, "snapshot_user", "snapshot_pass");
+        new SqlScriptRunner().run(sourceDataSource, new StringReader(SCHEMA_SQL));
+        snapshot = SchemaSnapshot.take(sourceDataSource);
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void destroy() {
+        snapshot.close();
+        try (Connection connection = sourceDataSource.getConnection()) {
+            connection.createStatement().execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    @DisplayName("Clone has the schema, the data and the URL settings of the source database")
+    @SneakyThrows
+    void cloneCopiesSchemaAndData() {
+        try (ClonedDatabase clone = snapshot.createClone();
+             Connection connection = clone.getDataSource().getConnection()) {
+            assertThat(countProducts(clone.getDataSource())).isEqualTo(2);
+            // lower-case names are kept because DATABASE_TO_UPPER=false is inherited from the source URL
+            ResultSet resultSet = connection.createStatement().executeQuery(
+                    "SELECT count(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'products'");
+            resultSet.next();
+            assertThat(resultSet.getInt(1)).isEqualTo(1);
+            // the identity column continues after the copied rows
+            connection.createStatement().execute("INSERT INTO products (name) VALUES ('Cola light')");
+            ResultSet idResultSet = connection.createStatement().executeQuery("SELECT max(id) FROM products");
+            idResultSet.next();
+            assertThat(idResultSet.getLong(1)).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Clones are independent from each other and from the source database")
+    @SneakyThrows
+    void clonesAreIsolated() {
+        try (ClonedDatabase first = snapshot.createClone();
+             ClonedDatabase second = snapshot.createClone()) {
+            try (Connection connection = first.getDataSource().getConnection()) {
+                connection.createStatement().execute("DELETE FROM products");
+            }
+
+            assertThat(first.getName()).isNotEqualTo(second.getName());
+            assertThat(countProducts(first.getDataSource())).isZero();
+            assertThat(countProducts(second.getDataSource())).isEqualTo(2);
+            assertThat(countProducts(sourceDataSource)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Closed clone is dropped")
+    @SneakyThrows
+    void closedCloneIsDropped() {
+        ClonedDatabase clone = snapshot.createClone();
+        clone.close();
+
+        assertThatExceptionOfType(SQLException.class).isThrownBy(() -> countProducts(clone.getDataSource()));
+    }
+
+    @Test
+    @DisplayName("Snapshot of an unsupported database is rejected")
+    void unsupportedDatabaseIsRejected() {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+
+        assertThatExceptionOfType(SQLFeatureNotSupportedException.class)
+                .isThrownBy(() -> SchemaSnapshot.take(dataSource));
+    }
+
+    private static long countProducts(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ResultSet resultSet = connection.createStatement().executeQuery("SELECT count(*) FROM products");
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.bobocode.util.statement;
+
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.pool.PoolConfig;
+import com.bobocode.util.pool.PooledDataSource;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCacheTest {
+    private static final String URL = "jdbc:h2:mem:statement_cache_test_db;DB_CLOSE_DELAY=-1";
+    private static final String SELECT_ONE = "SELECT 1";
+    private static final String SELECT_TWO = "SELECT 2";
+    private static final String SELECT_THREE = "SELECT 3";
+
+    private DataSource dataSource;
+    private Connection connection;
+
+    @BeforeEach
+    @SneakyThrows
+    void setup() {
+        dataSource = JdbcUtil.createInMemoryH2DataSource(URL, "statement_user", "statement_pass");
+        connection = dataSource.getConnection();
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void destroy() {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Least recently returned statement is evicted and closed when the cache is full")
+    @SneakyThrows
+    void leastRecentlyReturnedStatementIsEvicted() {
+        StatementCache cache = new StatementCache(connection, 2);
+        PreparedStatement first = prepareAndReturn(cache, SELECT_ONE);
+        PreparedStatement second = prepareAndReturn(cache, SELECT_TWO);
+        // using the first statement again makes the second one the least recently returned
+        assertThat(prepareAndReturn(cache, SELECT_ONE)).isSameAs(first);
+
+        PreparedStatement third = prepareAndReturn(cache, SELECT_THREE);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(second.isClosed()).isTrue();
+        assertThat(first.isClosed()).isFalse();
+        assertThat(third.isClosed()).isFalse();
+        assertThat(cache.getStats().getEvictions()).isEqualTo(1);
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+        assertThat(cache.getStats().getMisses()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Statement with changed settings is closed instead of being cached")
+    @SneakyThrows
+    void statementWithChangedSettingsIsNotCached() {
+        StatementCache cache = new StatementCache(connection, 2);
+        PreparedStatement statement = cache.prepareStatement(connection, SELECT_ONE, Statement.NO_GENERATED_KEYS);
+        PreparedStatement physicalStatement = statement.unwrap(PreparedStatement.class);
+
+        statement.setFetchSize(10);
+        statement.setMaxRows(1);
+        statement.close();
+
+        assertThat(physicalStatement.isClosed()).isTrue();
+        assertThat(cache.size()).isZero();
+        assertThat(prepareAndReturn(cache, SELECT_ONE)).isNotSameAs(physicalStatement);
+        assertThat(cache.getStats().getHits()).isZero();
+    }
+
+    @Test
+    @DisplayName("Statements are reused by SQL and generated keys mode")
+    @SneakyThrows
+    void statementsAreKeyedByGeneratedKeysMode() {
+        StatementCache cache = new StatementCache(connection, 4);
+
+        PreparedStatement withoutKeys = prepareAndReturn(cache, SELECT_ONE, Statement.NO_GENERATED_KEYS);
+        PreparedStatement withKeys = prepareAndReturn(cache, SELECT_ONE, Statement.RETURN_GENERATED_KEYS);
+
+        assertThat(withKeys).isNotSameAs(withoutKeys);
+        assertThat(prepareAndReturn(cache, SELECT_ONE, Statement.NO_GENERATED_KEYS)).isSameAs(withoutKeys);
+        assertThat(prepareAndReturn(cache, SELECT_ONE, Statement.RETURN_GENERATED_KEYS)).isSameAs(withKeys);
+        assertThat(cache.getStats().getHits()).isEqualTo(2);
+        assertThat(cache.getStats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Statement in use when the cache is closed is closed on return")
+    @SneakyThrows
+    void statementInUseIsClosedAfterCacheClose() {
+        StatementCache cache = new StatementCache(connection, 2);
+        PreparedStatement idleStatement = prepareAndReturn(cache, SELECT_ONE);
+        PreparedStatement statement = cache.prepareStatement(connection, SELECT_TWO, Statement.NO_GENERATED_KEYS);
+        PreparedStatement physicalStatement = statement.unwrap(PreparedStatement.class);
+
+        cache.close();
+        assertThat(idleStatement.isClosed()).isTrue();
+        assertThat(physicalStatement.isClosed()).isFalse();
+        statement.close();
+
+        assertThat(physicalStatement.isClosed()).isTrue();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cached statements are closed with their physical connection")
+    @SneakyThrows
+    void cachedStatementsAreClosedWithConnection() {
+        PooledDataSource pooledDataSource = new PooledDataSource(dataSource, PoolConfig.builder()
+                .statementCacheSize(2)
+                .build());
+        PreparedStatement physicalStatement;
+        try (Connection pooledConnection = pooledDataSource.getConnection();
+             PreparedStatement statement = pooledConnection.prepareStatement(SELECT_ONE)) {
+            physicalStatement = statement.unwrap(PreparedStatement.class);
+        }
+        assertThat(physicalStatement.isClosed()).isFalse();
+
+        pooledDataSource.close();
+
+        assertThat(physicalStatement.isClosed()).isTrue();
+    }
+
+    private PreparedStatement prepareAndReturn(StatementCache cache, String sql) {
+        return prepareAndReturn(cache, sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * @return physical statement behind the cached proxy
+     */
+    @SneakyThrows
+    private PreparedStatement prepareAndReturn(StatementCache cache, String sql, int autoGeneratedKeys) {
+        try (PreparedStatement statement = cache.prepareStatement(connection, sql, autoGeneratedKeys)) {
+            statement.executeQuery().close();
+            return statement.unwrap(PreparedStatement.class);
+        }
+    }
+}
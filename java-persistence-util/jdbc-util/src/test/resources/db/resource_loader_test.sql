@@ -0,0 +1,4 @@
+-- resource loader test
+SELECT 1;
+
+SELECT 2;
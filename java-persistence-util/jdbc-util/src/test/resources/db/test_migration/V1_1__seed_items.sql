@@ -0,0 +1,2 @@
+INSERT INTO items (name) VALUES ('Sprite');
+INSERT INTO items (name) VALUES ('Snickers');
@@ -0,0 +1,4 @@
+CREATE TABLE items (
+    id   BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
@@ -0,0 +1,2 @@
+ALTER TABLE items ADD COLUMN price DECIMAL(19, 4);
+UPDATE items SET price = 18 WHERE name = 'Sprite';
@@ -0,0 +1,79 @@
+package com.bobocode.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Value;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CacheStatistics} is a snapshot of the Hibernate second-level cache counters of an
+ * {@link EntityManagerFactory}. Counters are collected only when {@code hibernate.generate_statistics} is enabled.
+ */
+@Value
+public class CacheStatistics {
+    long hitCount;
+    long missCount;
+    long putCount;
+    long naturalIdHitCount;
+    long naturalIdMissCount;
+    long naturalIdPutCount;
+    Map<String, RegionStatistics> regions;
+
+    public static CacheStatistics of(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStatistics> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(statistics::getCacheRegionStatistics)
+                .map(RegionStatistics::of)
+                .collect(Collectors.toMap(RegionStatistics::getRegionName, Function.identity()));
+        return new CacheStatistics(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(), statistics.getNaturalIdCacheHitCount(),
+                statistics.getNaturalIdCacheMissCount(), statistics.getNaturalIdCachePutCount(), regions);
+    }
+
+    /**
+     * @return share of entity and collection lookups served by the second-level cache
+     */
+    public double getHitRatio() {
+        return hitRatio(hitCount, missCount);
+    }
+
+    /**
+     * @return share of natural id lookups served by the natural id cache
+     */
+    public double getNaturalIdHitRatio() {
+        return hitRatio(naturalIdHitCount, naturalIdMissCount);
+    }
+
+    public RegionStatistics getRegion(String regionName) {
+        return regions.get(regionName);
+    }
+
+    private static double hitRatio(long hitCount, long missCount) {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    @Value
+    public static class RegionStatistics {
+        String regionName;
+        long hitCount;
+        long missCount;
+        long putCount;
+        long elementCountInMemory;
+
+        static RegionStatistics of(CacheRegionStatistics statistics) {
+            return new RegionStatistics(statistics.getRegionName(), statistics.getHitCount(), statistics.getMissCount(),
+                    statistics.getPutCount(), statistics.getElementCountInMemory());
+        }
+
+        public double getHitRatio() {
+            return hitRatio(hitCount, missCount);
+        }
+    }
+}
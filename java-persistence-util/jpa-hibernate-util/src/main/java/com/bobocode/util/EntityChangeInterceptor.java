@@ -0,0 +1,145 @@
+package com.bobocode.util;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Interceptor;
+import org.hibernate.Transaction;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.metamodel.spi.EntityRepresentationStrategy;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.hibernate.type.Type;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Session scoped {@link Interceptor} that collects the types of the entities flushed by a session and passes them to
+ * the {@link EntityChangeListener}s once the transaction is committed. Changes of a rolled back transaction are
+ * dropped.
+ * <p>
+ * A session has a single interceptor, so every callback is also passed to the interceptor the session factory is
+ * configured with, and its results are returned.
+ */
+class EntityChangeInterceptor implements Interceptor {
+    private static final Interceptor NO_INTERCEPTOR = new Interceptor() {
+    };
+
+    private final List<EntityChangeListener> listeners;
+    private final Interceptor delegate;
+    private final Set<Class<?>> changedTypes = new HashSet<>();
+
+    /**
+     * @param listeners listeners to notify about committed changes
+     * @param delegate  interceptor of the session factory, or {@code null} if there is none
+     */
+    EntityChangeInterceptor(List<EntityChangeListener> listeners, Interceptor delegate) {
+        this.listeners = listeners;
+        this.delegate = delegate != null ? delegate : NO_INTERCEPTOR;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        return delegate.onLoad(entity, id, state, propertyNames, types);
+    }
+
+    @Override
+    public boolean onSave(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        changedTypes.add(Hibernate.getClass(entity));
+        return delegate.onSave(entity, id, state, propertyNames, types);
+    }
+
+    @Override
+    public boolean onFlushDirty(Object entity, Object id, Object[] currentState, Object[] previousState,
+                                String[] propertyNames, Type[] types) {
+        changedTypes.add(Hibernate.getClass(entity));
+        return delegate.onFlushDirty(entity, id, currentState, previousState, propertyNames, types);
+    }
+
+    @Override
+    public void onDelete(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        changedTypes.add(Hibernate.getClass(entity));
+        delegate.onDelete(entity, id, state, propertyNames, types);
+    }
+
+    @Override
+    public void onCollectionRecreate(Object collection, Object key) {
+        collectionChanged(collection);
+        delegate.onCollectionRecreate(collection, key);
+    }
+
+    @Override
+    public void onCollectionRemove(Object collection, Object key) {
+        collectionChanged(collection);
+        delegate.onCollectionRemove(collection, key);
+    }
+
+    @Override
+    public void onCollectionUpdate(Object collection, Object key) {
+        collectionChanged(collection);
+        delegate.onCollectionUpdate(collection, key);
+    }
+
+    @Override
+    public void preFlush(Iterator<Object> entities) {
+        delegate.preFlush(entities);
+    }
+
+    @Override
+    public void postFlush(Iterator<Object> entities) {
+        delegate.postFlush(entities);
+    }
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        return delegate.isTransient(entity);
+    }
+
+    @Override
+    public int[] findDirty(Object entity, Object id, Object[] currentState, Object[] previousState,
+                           String[] propertyNames, Type[] types) {
+        return delegate.findDirty(entity, id, currentState, previousState, propertyNames, types);
+    }
+
+    @Override
+    public Object instantiate(String entityName, EntityRepresentationStrategy representationStrategy, Object id) {
+        return delegate.instantiate(entityName, representationStrategy, id);
+    }
+
+    @Override
+    public String getEntityName(Object object) {
+        return delegate.getEntityName(object);
+    }
+
+    @Override
+    public Object getEntity(String entityName, Object id) {
+        return delegate.getEntity(entityName, id);
+    }
+
+    @Override
+    public void afterTransactionBegin(Transaction transaction) {
+        delegate.afterTransactionBegin(transaction);
+    }
+
+    @Override
+    public void beforeTransactionCompletion(Transaction transaction) {
+        delegate.beforeTransactionCompletion(transaction);
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction transaction) {
+        if (transaction.getStatus() == TransactionStatus.COMMITTED && !changedTypes.isEmpty()) {
+            Set<Class<?>> entityTypes = Set.copyOf(changedTypes);
+            listeners.forEach(listener -> listener.onEntitiesChanged(entityTypes));
+        }
+        changedTypes.clear();
+        delegate.afterTransactionCompletion(transaction);
+    }
+
+    private void collectionChanged(Object collection) {
+        if (collection instanceof PersistentCollection<?> persistentCollection
+                && persistentCollection.getOwner() != null) {
+            changedTypes.add(Hibernate.getClass(persistentCollection.getOwner()));
+        }
+    }
+}
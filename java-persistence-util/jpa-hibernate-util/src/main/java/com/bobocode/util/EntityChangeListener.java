@@ -0,0 +1,16 @@
+package com.bobocode.util;
+
+import java.util.Set;
+
+/**
+ * {@link EntityChangeListener} is notified by {@link EntityManagerUtil} after a transaction that inserted, updated
+ * or deleted entities is committed. It is a hook for caches that keep data derived from those entities.
+ */
+@FunctionalInterface
+public interface EntityChangeListener {
+    /**
+     * @param entityTypes classes of the entities that were changed, collection changes are reported as changes of
+     *                    the collection owner
+     */
+    void onEntitiesChanged(Set<Class<?>> entityTypes);
+}
@@ -1,19 +1,74 @@
 package com.bobocode.util;
 
+import com.bobocode.util.retry.RetryConfig;
+import com.bobocode.util.retry.RetryStats;
+import com.bobocode.util.retry.RetryingTransactionTemplate;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.Interceptor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+@Slf4j
 public class EntityManagerUtil {
+    /**
+     * Size of the Hibernate built-in connection pool when {@code hibernate.connection.pool_size} is not set
+     */
+    private static final int DEFAULT_POOL_SIZE = 20;
+
+    private static final ExecutorService VIRTUAL_THREAD_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
     private EntityManagerFactory entityManagerFactory;
+    private final Executor asyncExecutor;
+    private final Semaphore asyncPermits;
+    private final RetryingTransactionTemplate transactionTemplate;
+    private final List<EntityChangeListener> entityChangeListeners = new CopyOnWriteArrayList<>();
 
     public EntityManagerUtil(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, VIRTUAL_THREAD_EXECUTOR, poolSizeOf(entityManagerFactory));
+    }
+
+    /**
+     * @param entityManagerFactory factory to create entity managers with
+     * @param asyncExecutor        executor that runs the units of work of the async methods
+     * @param maxConcurrency       maximum number of async units of work that hold a connection at the same time,
+     *                             usually the size of the connection pool
+     */
+    public EntityManagerUtil(EntityManagerFactory entityManagerFactory, Executor asyncExecutor, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive, but was " + maxConcurrency);
+        }
         this.entityManagerFactory = entityManagerFactory;
+        this.asyncExecutor = asyncExecutor;
+        this.asyncPermits = new Semaphore(maxConcurrency, true);
+        this.transactionTemplate = new RetryingTransactionTemplate(this::createEntityManager,
+                RetryConfig.defaultConfig());
     }
 
     public void performWithinTx(Consumer<EntityManager> entityManagerConsumer) {
-        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityManager entityManager = createEntityManager();
         entityManager.getTransaction().begin();
         try {
             entityManagerConsumer.accept(entityManager);
@@ -27,7 +82,7 @@ public class EntityManagerUtil {
     }
 
     public <T> T performReturningWithinTx(Function<EntityManager, T> entityManagerFunction) {
-        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityManager entityManager = createEntityManager();
         entityManager.getTransaction().begin();
         try {
             T result = entityManagerFunction.apply(entityManager);
@@ -40,4 +95,248 @@ public class EntityManagerUtil {
             entityManager.close();
         }
     }
+
+    /**
+     * Retrying version of {@link EntityManagerUtil#performWithinTx(Consumer)}. Transactions that fail with a transient
+     * concurrency conflict are rolled back and the unit of work is run again in a new entity manager, see
+     * {@link RetryingTransactionTemplate}. The unit of work therefore has to read the state it changes by id, and must
+     * not persist or merge instances created outside of it.
+     *
+     * @param entityManagerConsumer unit of work that can be run more than once
+     */
+    public void performWithinTxRetrying(Consumer<EntityManager> entityManagerConsumer) {
+        transactionTemplate.executeWithoutResult(entityManagerConsumer);
+    }
+
+    /**
+     * Retrying version of {@link EntityManagerUtil#performReturningWithinTx(Function)}, with the same restrictions as
+     * {@link EntityManagerUtil#performWithinTxRetrying(Consumer)}.
+     *
+     * @param entityManagerFunction unit of work that can be run more than once
+     * @param <T>                   result type
+     * @return unit of work result
+     */
+    public <T> T performReturningWithinTxRetrying(Function<EntityManager, T> entityManagerFunction) {
+        return transactionTemplate.execute(entityManagerFunction);
+    }
+
+    /**
+     * @return retry counters of {@link EntityManagerUtil#performWithinTxRetrying(Consumer)} and
+     * {@link EntityManagerUtil#performReturningWithinTxRetrying(Function)}
+     */
+    public RetryStats getRetryStats() {
+        return transactionTemplate.getStats();
+    }
+
+    /**
+     * Registers a listener that is notified after every committed transaction of
+     * {@link EntityManagerUtil#performWithinTx(Consumer)} and the other write methods that changed entities. Writes
+     * made in any other way, including bulk JPQL statements, are not reported. Changes are collected by a session
+     * interceptor that passes every callback on to the interceptor configured for the session factory.
+     *
+     * @param listener listener to call, e.g. to invalidate cached query results
+     */
+    public void addEntityChangeListener(EntityChangeListener listener) {
+        entityChangeListeners.add(listener);
+    }
+
+    /**
+     * Read-only version of {@link EntityManagerUtil#performReturningWithinTx(Function)}. Entities are loaded
+     * read-only, so the session keeps no snapshots for dirty checking, and flush mode is {@link FlushMode#MANUAL}, so
+     * nothing is flushed on commit. The JDBC connection is switched to read-only for the transaction, which lets the
+     * database skip write bookkeeping. Loaded entities are still kept in the persistence context, so use
+     * {@link EntityManagerUtil#readStateless(Function)} for large reads.
+     *
+     * @param entityManagerFunction unit of work that only reads
+     * @param <T>                   result type
+     * @return unit of work result
+     */
+    public <T> T readWithinTx(Function<EntityManager, T> entityManagerFunction) {
+        return withReadOnlyConnection(connection -> {
+            try (Session session = sessionFactory().withOptions().connection(connection).openSession()) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+                Transaction transaction = session.beginTransaction();
+                try {
+                    T result = entityManagerFunction.apply(session);
+                    transaction.commit();
+                    return result;
+                } catch (Exception e) {
+                    transaction.rollback();
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs a read-only unit of work with a {@link StatelessSession}. It has no persistence context and bypasses the
+     * second-level cache, so loaded entities are plain detached objects and memory use does not grow with the number
+     * of entities read. Lazy associations cannot be loaded. The JDBC connection is read-only, just like in
+     * {@link EntityManagerUtil#readWithinTx(Function)}.
+     *
+     * @param statelessSessionFunction unit of work that only reads
+     * @param <T>                      result type
+     * @return unit of work result
+     */
+    public <T> T readStateless(Function<StatelessSession, T> statelessSessionFunction) {
+        return withReadOnlyConnection(connection -> {
+            try (StatelessSession session = sessionFactory().openStatelessSession(connection)) {
+                Transaction transaction = session.beginTransaction();
+                try {
+                    T result = statelessSessionFunction.apply(session);
+                    transaction.commit();
+                    return result;
+                } catch (Exception e) {
+                    transaction.rollback();
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Async version of {@link EntityManagerUtil#performWithinTx(Consumer)}. By default every unit of work runs on its
+     * own virtual thread. Units of work wait for a free permit before they open a transaction, so no more of them run
+     * at once than the connection pool can serve, and the calling thread is never blocked.
+     *
+     * @param entityManagerConsumer unit of work
+     * @return future that completes when the transaction is committed, or completes exceptionally with the error
+     * that rolled it back
+     */
+    public CompletableFuture<Void> performWithinTxAsync(Consumer<EntityManager> entityManagerConsumer) {
+        return CompletableFuture.runAsync(() -> withPermit(() -> {
+            performWithinTx(entityManagerConsumer);
+            return null;
+        }), asyncExecutor);
+    }
+
+    /**
+     * Async version of {@link EntityManagerUtil#performReturningWithinTx(Function)} that is limited the same way as
+     * {@link EntityManagerUtil#performWithinTxAsync(Consumer)}.
+     *
+     * @param entityManagerFunction unit of work
+     * @param <T>                   result type
+     * @return future of the unit of work result
+     */
+    public <T> CompletableFuture<T> performReturningWithinTxAsync(Function<EntityManager, T> entityManagerFunction) {
+        return CompletableFuture.supplyAsync(() -> withPermit(() -> performReturningWithinTx(entityManagerFunction)),
+                asyncExecutor);
+    }
+
+    private <T> T withPermit(Supplier<T> unitOfWork) {
+        asyncPermits.acquireUninterruptibly();
+        try {
+            return unitOfWork.get();
+        } finally {
+            asyncPermits.release();
+        }
+    }
+
+    private EntityManager createEntityManager() {
+        if (entityChangeListeners.isEmpty()) {
+            return entityManagerFactory.createEntityManager();
+        }
+        return sessionFactory().withOptions()
+                .interceptor(new EntityChangeInterceptor(entityChangeListeners, configuredInterceptor()))
+                .openSession();
+    }
+
+    /**
+     * @return interceptor that the sessions of the factory get by default: the session factory scoped one, or a new
+     * instance of the session scoped one, or {@code null} if none is configured
+     */
+    private Interceptor configuredInterceptor() {
+        SessionFactoryOptions options = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions();
+        if (options.getInterceptor() != null) {
+            return options.getInterceptor();
+        }
+        Supplier<? extends Interceptor> interceptorSupplier = options.getStatelessInterceptorImplementorSupplier();
+        return interceptorSupplier != null ? interceptorSupplier.get() : null;
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Takes a connection from the Hibernate connection provider and switches it to read-only before any transaction
+     * is started on it, since some drivers (e.g. PgJDBC) refuse to change it in the middle of a transaction. The flag
+     * is reset before the connection is returned, so pooled connections are not left read-only.
+     */
+    private <T> T withReadOnlyConnection(Function<Connection, T> unitOfWork) {
+        ConnectionProvider connectionProvider = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(ConnectionProvider.class);
+        Connection connection = acquireConnection(connectionProvider);
+        Throwable failure = null;
+        try {
+            connection.setReadOnly(true);
+            return unitOfWork.apply(connection);
+        } catch (SQLException e) {
+            PersistenceException readOnlyFailure =
+                    new PersistenceException("Error switching connection to read-only", e);
+            failure = readOnlyFailure;
+            throw readOnlyFailure;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            releaseConnection(connectionProvider, connection, failure);
+        }
+    }
+
+    private static Connection acquireConnection(ConnectionProvider connectionProvider) {
+        try {
+            return connectionProvider.getConnection();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error acquiring connection", e);
+        }
+    }
+
+    /**
+     * Resets the read-only flag and returns the connection to the provider. A connection that cannot be reset is closed
+     * first, so the pool discards it instead of handing it out read-only. Release errors never replace the outcome of
+     * the unit of work: they are added to its failure as suppressed, or logged when it has succeeded.
+     */
+    private static void releaseConnection(ConnectionProvider connectionProvider, Connection connection,
+                                          Throwable failure) {
+        try {
+            connection.setReadOnly(false);
+        } catch (SQLException e) {
+            reportReleaseError(e, failure);
+            try {
+                connection.close();
+            } catch (SQLException closeException) {
+                e.addSuppressed(closeException);
+            }
+        }
+        try {
+            connectionProvider.closeConnection(connection);
+        } catch (SQLException e) {
+            reportReleaseError(e, failure);
+        }
+    }
+
+    private static void reportReleaseError(SQLException releaseError, Throwable failure) {
+        if (failure != null) {
+            failure.addSuppressed(releaseError);
+        } else {
+            log.warn("Error releasing read-only connection", releaseError);
+        }
+    }
+
+    static int poolSizeOf(EntityManagerFactory entityManagerFactory) {
+        Object poolSize = entityManagerFactory.getProperties().get(AvailableSettings.POOL_SIZE);
+        if (poolSize == null) {
+            return DEFAULT_POOL_SIZE;
+        }
+        try {
+            return Integer.parseInt(poolSize.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("%s must be a number, but was '%s'",
+                    AvailableSettings.POOL_SIZE, poolSize), e);
+        }
+    }
 }
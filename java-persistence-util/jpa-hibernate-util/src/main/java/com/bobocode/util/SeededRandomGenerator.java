@@ -0,0 +1,58 @@
+package com.bobocode.util;
+
+import com.devskiller.jfairy.producer.RandomGenerator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * {@link SeededRandomGenerator} is a jfairy {@link RandomGenerator} backed by a {@link SplittableRandom} that can be
+ * reseeded. jfairy takes all random values from a single generator, so reseeding it before a fake object is produced
+ * makes the object depend on the seed only, and a {@link com.devskiller.jfairy.Fairy} instance can be reused
+ * instead of being created (and loading its data files) for every object. Like {@link SplittableRandom}, it is
+ * not thread-safe.
+ */
+class SeededRandomGenerator extends RandomGenerator {
+    private SplittableRandom random = new SplittableRandom();
+
+    void reseed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public <T> List<T> shuffle(List<T> elements) {
+        Collections.shuffle(elements, random);
+        return elements;
+    }
+
+    /**
+     * @return a number between {@code min} and {@code max}, both inclusive
+     */
+    @Override
+    public int nextInt(int min, int max) {
+        return min == max ? min : (int) random.nextLong(min, (long) max + 1);
+    }
+
+    /**
+     * @return a number between {@code min} and {@code max}, both inclusive (despite the name inherited from jfairy)
+     */
+    @Override
+    public long nextDouble(long min, long max) {
+        return max == Long.MAX_VALUE ? random.nextLong(min, max) : random.nextLong(min, max + 1);
+    }
+
+    @Override
+    public double nextDouble(double min, double max) {
+        return random.nextDouble(min, max);
+    }
+}
@@ -0,0 +1,144 @@
+package com.bobocode.util;
+
+import com.bobocode.util.snapshot.ClonedDatabase;
+import com.bobocode.util.snapshot.SchemaSnapshot;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
+import lombok.Getter;
+import org.hibernate.cfg.AvailableSettings;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link SnapshotPersistenceUnit} builds the entity manager factory of a persistence unit once and lets every test
+ * run against its own in-memory H2 database. The schema is generated by Hibernate into a source database, a
+ * {@link SchemaSnapshot} is taken of it, and {@link #resetDatabase()} switches the factory to a new clone of that
+ * snapshot, so a test neither pays for the factory bootstrap nor sees the rows of the previous tests.
+ * <p>
+ * The connection settings of the persistence unit are replaced by a data source that always points to the current
+ * clone.
+ */
+public class SnapshotPersistenceUnit implements AutoCloseable {
+    private static final String SOURCE_URL_FORMAT = "jdbc:h2:mem:%s_%s;DB_CLOSE_DELAY=-1";
+    private static final String SOURCE_USERNAME = "snapshot_user";
+    private static final String SOURCE_PASSWORD = "snapshot_pass";
+
+    @Getter
+    private final EntityManagerFactory entityManagerFactory;
+    private final SchemaSnapshot snapshot;
+    private ClonedDatabase currentClone;
+    private volatile DataSource currentDataSource;
+
+    private SnapshotPersistenceUnit(String persistenceUnitName, Map<String, ?> properties) {
+        String sourceUrl = String.format(SOURCE_URL_FORMAT, persistenceUnitName, UUID.randomUUID());
+        DataSource sourceDataSource = JdbcUtil.createInMemoryH2DataSource(sourceUrl, SOURCE_USERNAME, SOURCE_PASSWORD);
+        // the factory creates the schema in the source database, which is dropped as soon as the first clone is created
+        currentDataSource = sourceDataSource;
+        Map<String, Object> unitProperties = new HashMap<>(properties);
+        unitProperties.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, createCurrentCloneDataSource());
+        entityManagerFactory = Persistence.createEntityManagerFactory(persistenceUnitName, unitProperties);
+        try {
+            snapshot = SchemaSnapshot.take(sourceDataSource);
+            currentClone = snapshot.createClone();
+            currentDataSource = currentClone.getDataSource();
+            drop(sourceDataSource);
+        } catch (SQLException e) {
+            entityManagerFactory.close();
+            throw new PersistenceException("Error taking a snapshot of persistence unit " + persistenceUnitName, e);
+        }
+    }
+
+    public static SnapshotPersistenceUnit create(String persistenceUnitName) {
+        return create(persistenceUnitName, Map.of());
+    }
+
+    /**
+     * @param persistenceUnitName name of the persistence unit
+     * @param properties          properties that override the ones of the persistence unit
+     * @return persistence unit that runs against a clone of its generated schema
+     */
+    public static SnapshotPersistenceUnit create(String persistenceUnitName, Map<String, ?> properties) {
+        return new SnapshotPersistenceUnit(persistenceUnitName, properties);
+    }
+
+    /**
+     * Switches the factory to a new clone of the snapshot and drops the previous clone. Entity managers must not be
+     * open at this moment. The second-level cache is evicted, and sequences of the new clone continue from the values
+     * of the previous one, because the factory keeps the blocks of ids that it has already fetched from them.
+     */
+    public void resetDatabase() {
+        try {
+            ClonedDatabase previousClone = currentClone;
+            ClonedDatabase clone = snapshot.createClone();
+            copySequenceValues(previousClone.getDataSource(), clone.getDataSource());
+            currentClone = clone;
+            currentDataSource = clone.getDataSource();
+            previousClone.close();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error resetting the database", e);
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private static void copySequenceValues(DataSource from, DataSource to) throws SQLException {
+        try (Connection fromConnection = from.getConnection();
+             Connection toConnection = to.getConnection();
+             Statement fromStatement = fromConnection.createStatement();
+             Statement toStatement = toConnection.createStatement();
+             ResultSet sequences = fromStatement.executeQuery(
+                     "SELECT SEQUENCE_SCHEMA, SEQUENCE_NAME, BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES")) {
+            while (sequences.next()) {
+                toStatement.execute(String.format("ALTER SEQUENCE \"%s\".\"%s\" RESTART WITH %d",
+                        sequences.getString(1), sequences.getString(2), sequences.getLong(3)));
+            }
+        }
+    }
+
+    private static void drop(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET DB_CLOSE_DELAY 0");
+        }
+    }
+
+    private DataSource createCurrentCloneDataSource() {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    // the credentials of the persistence unit do not apply to the clones
+                    case "getConnection" -> currentDataSource.getConnection();
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "SnapshotDataSource(" + currentDataSource + ")";
+                    default -> {
+                        try {
+                            yield method.invoke(currentDataSource, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Closes the factory and drops the current clone and the snapshot.
+     */
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        try (SchemaSnapshot ignored = snapshot) {
+            currentClone.close();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error dropping the database", e);
+        }
+    }
+}
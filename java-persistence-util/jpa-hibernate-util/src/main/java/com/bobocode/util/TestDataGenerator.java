@@ -3,17 +3,46 @@ package com.bobocode.util;
 
 import com.bobocode.model.Account;
 import com.bobocode.model.Gender;
-import com.devskiller.jfairy.Fairy;
+import com.devskiller.jfairy.EnFairyModule;
+import com.devskiller.jfairy.data.MapBasedDataMaster;
+import com.devskiller.jfairy.producer.BaseProducer;
+import com.devskiller.jfairy.producer.TimeProvider;
 import com.devskiller.jfairy.producer.person.Person;
+import com.devskiller.jfairy.producer.person.PersonFactory;
+import com.google.inject.Guice;
+import com.google.inject.util.Modules;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+/**
+ * {@link TestDataGenerator} produces fake {@link Account}s. Every thread creates its jfairy person factory once and
+ * reuses it, so data files of jfairy are not loaded for every account.
+ * <p>
+ * Accounts of {@link TestDataGenerator#generateAccounts(long, long)} are deterministic: the account with a given
+ * index is the same for the same seed (except {@code creationTime}), no matter how the stream is split between
+ * threads and on which day it is generated. jfairy picks dates of birth relative to the current date, so it is given
+ * a fixed {@link TestDataGenerator#REFERENCE_TIME} instead. The stream is lazy, so millions of accounts can be
+ * streamed into a DAO without building a list, and it can be made parallel with {@link Stream#parallel()}.
+ */
 public class TestDataGenerator {
+    /**
+     * Date that jfairy takes as today, so generated birthdays do not change from day to day
+     */
+    static final LocalDateTime REFERENCE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final AtomicLong EMAIL_SEQUENCE = new AtomicLong();
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final ThreadLocal<AccountProducer> PRODUCERS = ThreadLocal.withInitial(AccountProducer::new);
 
     public static List<Account> generateAccountList(int size) {
         return Stream.generate(TestDataGenerator::generateAccount)
@@ -21,25 +50,99 @@ public class TestDataGenerator {
                 .collect(Collectors.toList());
     }
 
+    public static List<Account> generateAccountList(long seed, int size) {
+        return generateAccounts(seed, size)
+                .parallel()
+                .collect(Collectors.toList());
+    }
+
     public static Account generateAccount() {
-        Fairy fairy = Fairy.create();
-        Person person = fairy.person();
-        Random random = new Random();
-
-        Account fakeAccount = new Account();
-        fakeAccount.setFirstName(person.getFirstName());
-        fakeAccount.setLastName(person.getLastName());
-        fakeAccount.setEmail(person.getEmail());
-        fakeAccount.setBirthday(LocalDate.of(
-                person.getDateOfBirth().getYear(),
-                person.getDateOfBirth().getMonth(),
-                person.getDateOfBirth().getDayOfMonth()));
-        fakeAccount.setGender(Gender.valueOf(person.getSex().name()));
-        BigDecimal balance = BigDecimal.valueOf(random.nextInt(200_000), 2);
-        fakeAccount.setBalance(balance);
-        fakeAccount.setCreationTime(LocalDateTime.now());
-
-        return fakeAccount;
-    }
-
-}
\ No newline at end of file
+        return PRODUCERS.get().produce(ThreadLocalRandom.current().nextLong(),
+                Long.toString(EMAIL_SEQUENCE.incrementAndGet()));
+    }
+
+    /**
+     * Returns a lazy sequential stream of {@code count} accounts generated from the seed. Emails are unique within
+     * the stream and between streams of different seeds.
+     *
+     * @param seed  generation seed
+     * @param count number of accounts
+     * @return stream of accounts
+     */
+    public static Stream<Account> generateAccounts(long seed, long count) {
+        String emailPrefix = Long.toUnsignedString(seed, 36) + "-";
+        return LongStream.range(0, count)
+                .mapToObj(index -> PRODUCERS.get().produce(accountSeed(seed, index), emailPrefix + index));
+    }
+
+    /**
+     * Derives a well-mixed seed of every account, so neighbour accounts do not get overlapping random sequences.
+     */
+    private static long accountSeed(long seed, long index) {
+        return new SplittableRandom(seed + index * GOLDEN_GAMMA).nextLong();
+    }
+
+    /**
+     * Account email is unique, while generated person emails repeat, so every email gets a unique suffix
+     */
+    private static String uniqueEmail(String email, String suffix) {
+        int atIndex = email.indexOf('@');
+        return email.substring(0, atIndex) + "." + suffix + email.substring(atIndex);
+    }
+
+    private static class AccountProducer {
+        private final SeededRandomGenerator randomGenerator = new SeededRandomGenerator();
+        private final PersonFactory personFactory = createPersonFactory(randomGenerator);
+
+        private static PersonFactory createPersonFactory(SeededRandomGenerator randomGenerator) {
+            // the same steps as Fairy.create(), but with a generator that can be reseeded and a fixed current time
+            MapBasedDataMaster dataMaster = new MapBasedDataMaster(new BaseProducer(randomGenerator));
+            try {
+                dataMaster.readResources("jfairy.yml");
+                dataMaster.readResources("jfairy_en.yml");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load jfairy data files", e);
+            }
+            return Guice.createInjector(Modules.override(new EnFairyModule(dataMaster, randomGenerator))
+                            .with(binder -> binder.bind(TimeProvider.class).toInstance(new FixedTimeProvider())))
+                    .getInstance(PersonFactory.class);
+        }
+
+        Account produce(long seed, String emailSuffix) {
+            randomGenerator.reseed(seed);
+            Person person = personFactory.producePersonProvider().get();
+
+            Account fakeAccount = new Account();
+            fakeAccount.setFirstName(person.getFirstName());
+            fakeAccount.setLastName(person.getLastName());
+            fakeAccount.setEmail(uniqueEmail(person.getEmail(), emailSuffix));
+            fakeAccount.setBirthday(LocalDate.of(
+                    person.getDateOfBirth().getYear(),
+                    person.getDateOfBirth().getMonth(),
+                    person.getDateOfBirth().getDayOfMonth()));
+            fakeAccount.setGender(Gender.valueOf(person.getSex().name()));
+            BigDecimal balance = BigDecimal.valueOf(randomGenerator.nextInt(200_000), 2);
+            fakeAccount.setBalance(balance);
+            fakeAccount.setCreationTime(LocalDateTime.now());
+
+            return fakeAccount;
+        }
+    }
+
+    private static class FixedTimeProvider extends TimeProvider {
+        @Override
+        public int getCurrentYear() {
+            return REFERENCE_TIME.getYear();
+        }
+
+        @Override
+        public LocalDateTime getCurrentTime() {
+            return REFERENCE_TIME;
+        }
+
+        @Override
+        public LocalDate getCurrentDate() {
+            return REFERENCE_TIME.toLocalDate();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bobocode.util.retry;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * {@link RetryConfig} holds the settings of a {@link RetryingTransactionTemplate}. Use {@link RetryConfig#builder()} to
+ * override the defaults.
+ */
+@Getter
+@Builder
+@ToString
+public class RetryConfig {
+    /**
+     * Maximum number of times a unit of work is run, including the first attempt. {@code 1} disables retries.
+     */
+    @Builder.Default
+    private final int maxAttempts = 5;
+
+    /**
+     * Upper bound of the backoff before the first retry. It is doubled for every next retry.
+     */
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(10);
+
+    /**
+     * Upper bound of any single backoff.
+     */
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofMillis(500);
+
+    /**
+     * Time since the first attempt after which no retry is started, even if attempts are left.
+     */
+    @Builder.Default
+    private final Duration deadline = Duration.ofSeconds(10);
+
+    public static RetryConfig defaultConfig() {
+        return RetryConfig.builder().build();
+    }
+
+    void validate() {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive, but was " + maxAttempts);
+        }
+        requirePositive(initialBackoff, "Initial backoff");
+        requirePositive(maxBackoff, "Max backoff");
+        requirePositive(deadline, "Deadline");
+    }
+
+    private static void requirePositive(Duration duration, String name) {
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException(name + " must be positive, but was " + duration);
+        }
+    }
+}
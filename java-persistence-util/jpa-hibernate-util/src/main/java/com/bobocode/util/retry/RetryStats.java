@@ -0,0 +1,33 @@
+package com.bobocode.util.retry;
+
+import lombok.Value;
+
+/**
+ * {@link RetryStats} is a snapshot of the counters of a {@link RetryingTransactionTemplate}.
+ */
+@Value
+public class RetryStats {
+    /**
+     * Number of units of work that were run, no matter how many attempts they took
+     */
+    long executionCount;
+    /**
+     * Number of attempts that were repeated after a retryable failure
+     */
+    long retryCount;
+    /**
+     * Number of units of work that failed at least once but were committed by a retry
+     */
+    long recoveredCount;
+    /**
+     * Number of units of work that failed with a retryable error after all attempts or the deadline were used up
+     */
+    long exhaustedCount;
+
+    /**
+     * @return average number of retries per unit of work
+     */
+    public double getRetriesPerExecution() {
+        return executionCount == 0 ? 0 : (double) retryCount / executionCount;
+    }
+}
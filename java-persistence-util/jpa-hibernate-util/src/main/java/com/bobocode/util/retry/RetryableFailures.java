@@ -0,0 +1,41 @@
+package com.bobocode.util.retry;
+
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * {@link RetryableFailures} decides whether a failed transaction is worth running again. Transient concurrency
+ * conflicts are: serialization failures ({@code 40001}, also used by H2 for deadlocks), PostgreSQL deadlocks
+ * ({@code 40P01}) and optimistic lock failures. Any other error, e.g. a constraint violation, fails the same way on
+ * every attempt, so it is not retried.
+ */
+public class RetryableFailures {
+    private static final Set<String> RETRYABLE_SQL_STATES = Set.of("40001", "40P01");
+
+    private RetryableFailures() {
+    }
+
+    public static boolean isRetryable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && isRetryable(sqlException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRetryable(SQLException sqlException) {
+        for (SQLException e = sqlException; e != null; e = e.getNextException()) {
+            if (e.getSQLState() != null && RETRYABLE_SQL_STATES.contains(e.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
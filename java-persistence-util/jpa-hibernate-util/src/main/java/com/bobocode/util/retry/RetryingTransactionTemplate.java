@@ -0,0 +1,130 @@
+package com.bobocode.util.retry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link RetryingTransactionTemplate} runs a unit of work within a transaction and runs it again when the transaction
+ * fails with a {@link RetryableFailures retryable} concurrency conflict. Every attempt gets a new
+ * {@link EntityManager}, so the whole unit of work is repeated. It therefore has to read the state it changes rather
+ * than merge a stale copy, and must not have side effects outside the transaction.
+ * <p>
+ * Before a retry the thread sleeps for a random time between zero and an exponentially growing bound (full jitter),
+ * so conflicting transactions do not retry in lockstep. Retries stop when {@link RetryConfig#getMaxAttempts()} are
+ * used up or the next attempt would start after {@link RetryConfig#getDeadline()}, and the last failure is thrown
+ * as is.
+ */
+@Slf4j
+public class RetryingTransactionTemplate {
+    private final Supplier<EntityManager> entityManagerSupplier;
+    private final RetryConfig config;
+
+    private final LongAdder executionCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder recoveredCount = new LongAdder();
+    private final LongAdder exhaustedCount = new LongAdder();
+
+    public RetryingTransactionTemplate(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, RetryConfig.defaultConfig());
+    }
+
+    public RetryingTransactionTemplate(EntityManagerFactory entityManagerFactory, RetryConfig config) {
+        this(entityManagerFactory::createEntityManager, config);
+    }
+
+    /**
+     * @param entityManagerSupplier creates a new entity manager for every attempt, e.g. one with a session
+     *                              {@link org.hibernate.Interceptor}
+     * @param config                retry settings
+     */
+    public RetryingTransactionTemplate(Supplier<EntityManager> entityManagerSupplier, RetryConfig config) {
+        config.validate();
+        this.entityManagerSupplier = entityManagerSupplier;
+        this.config = config;
+    }
+
+    public void executeWithoutResult(Consumer<EntityManager> entityManagerConsumer) {
+        execute(entityManager -> {
+            entityManagerConsumer.accept(entityManager);
+            return null;
+        });
+    }
+
+    public <T> T execute(Function<EntityManager, T> entityManagerFunction) {
+        executionCount.increment();
+        long deadline = System.nanoTime() + config.getDeadline().toNanos();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = executeOnce(entityManagerFunction);
+                if (attempt > 1) {
+                    recoveredCount.increment();
+                }
+                return result;
+            } catch (RuntimeException e) {
+                if (!RetryableFailures.isRetryable(e)) {
+                    throw e;
+                }
+                Duration backoff = backoff(attempt);
+                if (attempt >= config.getMaxAttempts() || System.nanoTime() + backoff.toNanos() > deadline) {
+                    exhaustedCount.increment();
+                    log.warn("Transaction failed after {} attempt(s): {}", attempt, e.toString());
+                    throw e;
+                }
+                log.debug("Retrying transaction in {} ms after attempt {} failed: {}",
+                        backoff.toMillis(), attempt, e.toString());
+                sleep(backoff, e);
+                retryCount.increment();
+            }
+        }
+    }
+
+    public RetryStats getStats() {
+        return new RetryStats(executionCount.sum(), retryCount.sum(), recoveredCount.sum(), exhaustedCount.sum());
+    }
+
+    private <T> T executeOnce(Function<EntityManager, T> entityManagerFunction) {
+        EntityManager entityManager = entityManagerSupplier.get();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            T result = entityManagerFunction.apply(entityManager);
+            transaction.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        long maxBackoffNanos = config.getMaxBackoff().toNanos();
+        long boundNanos = config.getInitialBackoff().toNanos() << Math.min(attempt - 1, 30);
+        if (boundNanos <= 0 || boundNanos > maxBackoffNanos) {
+            boundNanos = maxBackoffNanos;
+        }
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(boundNanos + 1));
+    }
+
+    private static void sleep(Duration backoff, RuntimeException failure) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.addSuppressed(e);
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.bobocode.util;
+
+import com.bobocode.model.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Persistence;
+import org.hibernate.FlushMode;
+import org.hibernate.Interceptor;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class EntityManagerUtilTest {
+    private static EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("EntityManagerUtilH2");
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("No more async units of work run at once than max concurrency")
+    void asyncUnitsAreLimitedToMaxConcurrency() {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory, executor, 2);
+            ConcurrencyProbe probe = new ConcurrencyProbe();
+
+            runAsync(emUtil, 8, probe);
+
+            assertThat(probe.getMaxInFlight()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Failed async unit of work completes the future exceptionally and releases its permit")
+    void failedAsyncUnitCompletesExceptionally() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory, executor, 1);
+            IllegalStateException failure = new IllegalStateException("Unit of work error");
+
+            CompletableFuture<Void> failedWrite = emUtil.performWithinTxAsync(entityManager -> {
+                throw failure;
+            });
+            CompletableFuture<Object> failedRead = emUtil.performReturningWithinTxAsync(entityManager -> {
+                throw failure;
+            });
+
+            assertThatExceptionOfType(CompletionException.class).isThrownBy(failedWrite::join).withCause(failure);
+            assertThatExceptionOfType(CompletionException.class).isThrownBy(failedRead::join).withCause(failure);
+            assertThat(emUtil.performReturningWithinTxAsync(entityManager -> entityManager.find(Account.class, -1L))
+                    .join()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Max concurrency defaults to the connection pool size")
+    void maxConcurrencyDefaultsToPoolSize() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(mockEntityManagerFactory("1"));
+        ConcurrencyProbe probe = new ConcurrencyProbe();
+
+        runAsync(emUtil, 4, probe);
+
+        assertThat(probe.getMaxInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Pool size is parsed from the factory properties")
+    void poolSizeIsParsed() {
+        assertThat(EntityManagerUtil.poolSizeOf(mockEntityManagerFactory(" 8 "))).isEqualTo(8);
+        assertThat(EntityManagerUtil.poolSizeOf(mockEntityManagerFactory(null))).isEqualTo(20);
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new EntityManagerUtil(mockEntityManagerFactory("twenty")))
+                .withMessageContaining(AvailableSettings.POOL_SIZE)
+                .withMessageContaining("twenty");
+    }
+
+    @Test
+    @DisplayName("Read-only transaction loads read-only entities and flushes nothing")
+    void readWithinTxFlushesNothing() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        Account account = saveRandomAccount(emUtil);
+
+        emUtil.readWithinTx(entityManager -> {
+            Session session = entityManager.unwrap(Session.class);
+            Account managedAccount = entityManager.find(Account.class, account.getId());
+            assertThat(session.isReadOnly(managedAccount)).isTrue();
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            managedAccount.setFirstName("Changed");
+            return managedAccount;
+        });
+
+        assertThat(findFirstName(emUtil, account.getId())).isEqualTo(account.getFirstName());
+    }
+
+    @Test
+    @DisplayName("Read-only connection is reset before it goes back to the pool")
+    void readOnlyConnectionIsResetOnRelease() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+
+        boolean readOnlyWithinTx = emUtil.readWithinTx(entityManager ->
+                entityManager.unwrap(Session.class).doReturningWork(Connection::isReadOnly));
+        assertConnectionReleased();
+        boolean readOnlyWithinStatelessTx = emUtil.readStateless(session ->
+                session.doReturningWork(Connection::isReadOnly));
+        assertConnectionReleased();
+
+        assertThat(readOnlyWithinTx).isTrue();
+        assertThat(readOnlyWithinStatelessTx).isTrue();
+    }
+
+    @Test
+    @DisplayName("Failed read-only unit of work is rolled back and releases its connection")
+    void failedReadIsRolledBack() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        Account account = saveRandomAccount(emUtil);
+        IllegalStateException failure = new IllegalStateException("Read error");
+        String renameAccount = "update account set first_name = 'Changed' where id = :id";
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> emUtil.readWithinTx(entityManager -> {
+            entityManager.createNativeQuery(renameAccount).setParameter("id", account.getId()).executeUpdate();
+            throw failure;
+        })).isSameAs(failure);
+        assertConnectionReleased();
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> emUtil.readStateless(session -> {
+            session.createNativeMutationQuery(renameAccount).setParameter("id", account.getId()).executeUpdate();
+            throw failure;
+        })).isSameAs(failure);
+        assertConnectionReleased();
+
+        assertThat(findFirstName(emUtil, account.getId())).isEqualTo(account.getFirstName());
+    }
+
+    @Test
+    @DisplayName("Connection that cannot be reset is discarded without hiding the unit of work outcome")
+    void connectionThatCannotBeResetIsDiscarded() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        IllegalStateException failure = new IllegalStateException("Read error");
+        RecordingConnectionProvider.setFailReadOnlyReset(true);
+        try {
+            int result = emUtil.readStateless(session -> 1);
+            assertThat(result).isEqualTo(1);
+            assertThat(RecordingConnectionProvider.getBorrowedConnections()).isZero();
+            assertThat(RecordingConnectionProvider.isLastReturnedClosed()).isTrue();
+
+            assertThatExceptionOfType(IllegalStateException.class)
+                    .isThrownBy(() -> emUtil.readWithinTx(entityManager -> {
+                        throw failure;
+                    }))
+                    .isSameAs(failure);
+            assertThat(failure.getSuppressed()).singleElement()
+                    .satisfies(suppressed -> assertThat(suppressed).hasMessage("Read-only reset error"));
+            assertThat(RecordingConnectionProvider.getBorrowedConnections()).isZero();
+            assertThat(RecordingConnectionProvider.isLastReturnedClosed()).isTrue();
+        } finally {
+            RecordingConnectionProvider.setFailReadOnlyReset(false);
+        }
+    }
+
+    @Test
+    @DisplayName("Entity change listeners keep the interceptor configured for the session factory")
+    void entityChangeListenersKeepConfiguredInterceptor() {
+        AtomicInteger savedByInterceptor = new AtomicInteger();
+        Interceptor interceptor = new Interceptor() {
+            @Override
+            public boolean onSave(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+                savedByInterceptor.incrementAndGet();
+                return false;
+            }
+        };
+        EntityManagerFactory interceptedFactory = Persistence.createEntityManagerFactory("EntityManagerUtilH2", Map.of(
+                "hibernate.connection.url", "jdbc:h2:mem:entity_manager_util_interceptor_db;DB_CLOSE_DELAY=-1",
+                AvailableSettings.INTERCEPTOR, interceptor));
+        try {
+            EntityManagerUtil emUtil = new EntityManagerUtil(interceptedFactory);
+            List<Set<Class<?>>> changes = new ArrayList<>();
+            emUtil.addEntityChangeListener(changes::add);
+
+            saveRandomAccount(emUtil);
+
+            assertThat(savedByInterceptor.get()).isEqualTo(1);
+            assertThat(changes).containsExactly(Set.of(Account.class));
+        } finally {
+            interceptedFactory.close();
+        }
+    }
+
+    private static void assertConnectionReleased() {
+        assertThat(RecordingConnectionProvider.getBorrowedConnections()).isZero();
+        assertThat(RecordingConnectionProvider.isLastReturnedReadOnly()).isFalse();
+    }
+
+    private static Account saveRandomAccount(EntityManagerUtil emUtil) {
+        Account account = TestDataGenerator.generateAccount();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(account));
+        return account;
+    }
+
+    private static String findFirstName(EntityManagerUtil emUtil, Long accountId) {
+        return emUtil.performReturningWithinTx(entityManager ->
+                entityManager.find(Account.class, accountId).getFirstName());
+    }
+
+    private static void runAsync(EntityManagerUtil emUtil, int unitCount, Consumer<EntityManager> unitOfWork) {
+        List<CompletableFuture<Void>> futures = IntStream.range(0, unitCount)
+                .mapToObj(i -> emUtil.performWithinTxAsync(unitOfWork))
+                .toList();
+        futures.forEach(CompletableFuture::join);
+    }
+
+    private static EntityManagerFactory mockEntityManagerFactory(String poolSize) {
+        EntityManagerFactory factory = Mockito.mock(EntityManagerFactory.class);
+        Mockito.when(factory.getProperties())
+                .thenReturn(poolSize == null ? Map.of() : Map.of(AvailableSettings.POOL_SIZE, poolSize));
+        Mockito.when(factory.createEntityManager()).thenAnswer(invocation -> {
+            EntityManager entityManager = Mockito.mock(EntityManager.class);
+            Mockito.when(entityManager.getTransaction()).thenReturn(Mockito.mock(EntityTransaction.class));
+            return entityManager;
+        });
+        return factory;
+    }
+
+    /**
+     * Unit of work that holds its transaction for a while and records how many units of work run at once
+     */
+    private static class ConcurrencyProbe implements Consumer<EntityManager> {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public void accept(EntityManager entityManager) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        int getMaxInFlight() {
+            return maxInFlight.get();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bobocode.util;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entity with sequence-based ids, fetched by the pooled optimizer in blocks of two
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "note")
+public class Note {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_seq")
+    @SequenceGenerator(name = "note_seq", sequenceName = "note_seq", allocationSize = 2)
+    private Long id;
+
+    private String text;
+
+    public Note(String text) {
+        this.text = text;
+    }
+}
@@ -0,0 +1,86 @@
+package com.bobocode.util;
+
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Built-in Hibernate pool that counts the connections that are out of the pool, and remembers whether the last
+ * returned connection was read-only or closed. H2 ignores {@link Connection#setReadOnly(boolean)}, so the flag is
+ * tracked by a connection proxy, which can also be told to fail when the flag is reset.
+ */
+public class RecordingConnectionProvider extends DriverManagerConnectionProviderImpl {
+    private static final AtomicInteger borrowedConnections = new AtomicInteger();
+    private static volatile boolean lastReturnedReadOnly;
+    private static volatile boolean lastReturnedClosed;
+    private static volatile boolean failReadOnlyReset;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        borrowedConnections.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ReadOnlyTrackingHandler(connection));
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        ReadOnlyTrackingHandler handler = (ReadOnlyTrackingHandler) Proxy.getInvocationHandler(connection);
+        lastReturnedReadOnly = handler.readOnly;
+        lastReturnedClosed = handler.connection.isClosed();
+        borrowedConnections.decrementAndGet();
+        super.closeConnection(handler.connection);
+    }
+
+    static int getBorrowedConnections() {
+        return borrowedConnections.get();
+    }
+
+    static boolean isLastReturnedReadOnly() {
+        return lastReturnedReadOnly;
+    }
+
+    static boolean isLastReturnedClosed() {
+        return lastReturnedClosed;
+    }
+
+    static void setFailReadOnlyReset(boolean fail) {
+        failReadOnlyReset = fail;
+    }
+
+    private static class ReadOnlyTrackingHandler implements InvocationHandler {
+        private final Connection connection;
+        private boolean readOnly;
+
+        ReadOnlyTrackingHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "setReadOnly":
+                    if (failReadOnlyReset && !(boolean) args[0]) {
+                        throw new SQLException("Read-only reset error");
+                    }
+                    readOnly = (boolean) args[0];
+                    return null;
+                case "isReadOnly":
+                    return readOnly;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
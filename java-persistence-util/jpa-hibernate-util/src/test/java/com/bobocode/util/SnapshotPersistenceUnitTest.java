@@ -0,0 +1,61 @@
+package com.bobocode.util;
+
+import com.bobocode.model.Account;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotPersistenceUnitTest {
+    private static SnapshotPersistenceUnit persistenceUnit;
+    private static EntityManagerUtil emUtil;
+
+    @BeforeAll
+    static void setup() {
+        persistenceUnit = SnapshotPersistenceUnit.create("SnapshotH2");
+        emUtil = new EntityManagerUtil(persistenceUnit.getEntityManagerFactory());
+    }
+
+    @AfterAll
+    static void destroy() {
+        persistenceUnit.close();
+    }
+
+    @Test
+    @DisplayName("Reset database removes the rows and keeps the generated schema")
+    void resetDatabaseRemovesRows() {
+        Account account = TestDataGenerator.generateAccount();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(account));
+
+        persistenceUnit.resetDatabase();
+        Account foundAccount = emUtil.performReturningWithinTx(entityManager ->
+                entityManager.find(Account.class, account.getId()));
+        emUtil.performWithinTx(entityManager -> entityManager.persist(TestDataGenerator.generateAccount()));
+        long accountCount = emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery("select count(a) from Account a", Long.class).getSingleResult());
+
+        assertThat(foundAccount).isNull();
+        assertThat(accountCount).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Sequence ids keep growing across database resets")
+    void sequenceIdsKeepGrowingAcrossResets() {
+        List<Long> ids = new ArrayList<>();
+        for (int reset = 0; reset < 3; reset++) {
+            persistenceUnit.resetDatabase();
+            for (int i = 0; i < 3; i++) {
+                Note note = new Note("note " + i);
+                emUtil.performWithinTx(entityManager -> entityManager.persist(note));
+                ids.add(note.getId());
+            }
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates().allMatch(id -> id > 0);
+    }
+}
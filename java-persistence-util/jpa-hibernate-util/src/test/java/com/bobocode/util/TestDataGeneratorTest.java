@@ -0,0 +1,38 @@
+package com.bobocode.util;
+
+import com.bobocode.model.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestDataGeneratorTest {
+    private static final long SEED = 42;
+    private static final int ACCOUNT_COUNT = 1_000;
+
+    @Test
+    @DisplayName("Seeded accounts are the same in sequential and parallel streams")
+    void seededAccountsAreDeterministic() {
+        List<Account> sequential = TestDataGenerator.generateAccounts(SEED, ACCOUNT_COUNT).toList();
+        List<Account> sequentialAgain = TestDataGenerator.generateAccounts(SEED, ACCOUNT_COUNT).toList();
+        List<Account> parallel = TestDataGenerator.generateAccounts(SEED, ACCOUNT_COUNT).parallel().toList();
+
+        assertThat(sequentialAgain)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("creationTime")
+                .containsExactlyElementsOf(sequential);
+        assertThat(parallel)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("creationTime")
+                .containsExactlyElementsOf(sequential);
+    }
+
+    @Test
+    @DisplayName("Birthdays of seeded accounts are relative to the reference date")
+    void birthdaysAreRelativeToReferenceDate() {
+        List<Account> accounts = TestDataGenerator.generateAccounts(SEED, ACCOUNT_COUNT).toList();
+
+        assertThat(accounts).extracting(Account::getBirthday)
+                .allSatisfy(birthday -> assertThat(birthday).isBefore(TestDataGenerator.REFERENCE_TIME.toLocalDate()));
+    }
+}
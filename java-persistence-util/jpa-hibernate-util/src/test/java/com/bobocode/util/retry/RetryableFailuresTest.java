@@ -0,0 +1,52 @@
+package com.bobocode.util.retry;
+
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.StaleObjectStateException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryableFailuresTest {
+
+    @Test
+    @DisplayName("Optimistic lock failures are retryable")
+    void optimisticLockFailuresAreRetryable() {
+        assertThat(RetryableFailures.isRetryable(new OptimisticLockException())).isTrue();
+        assertThat(RetryableFailures.isRetryable(new StaleObjectStateException("Account", 1L))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Serialization failure is found in the cause chain")
+    void serializationFailureIsFoundInCauseChain() {
+        SQLException serializationFailure = new SQLException("could not serialize access", "40001");
+        RuntimeException failure = new PersistenceException("commit failed",
+                new IllegalStateException("flush failed", serializationFailure));
+
+        assertThat(RetryableFailures.isRetryable(failure)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deadlock is found in the next exceptions of a batch failure")
+    void deadlockIsFoundInNextExceptions() {
+        BatchUpdateException batchFailure = new BatchUpdateException("batch entry 0 failed", "22000", new int[0]);
+        batchFailure.setNextException(new SQLException("value too long", "22001"));
+        batchFailure.setNextException(new SQLException("deadlock detected", "40P01"));
+
+        assertThat(RetryableFailures.isRetryable(new PersistenceException(batchFailure))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Other failures are not retryable")
+    void otherFailuresAreNotRetryable() {
+        SQLException uniqueViolation = new SQLException("duplicate key", "23505");
+
+        assertThat(RetryableFailures.isRetryable(new PersistenceException(uniqueViolation))).isFalse();
+        assertThat(RetryableFailures.isRetryable(new IllegalStateException("no cause"))).isFalse();
+        assertThat(RetryableFailures.isRetryable(new SQLException("no state"))).isFalse();
+    }
+}
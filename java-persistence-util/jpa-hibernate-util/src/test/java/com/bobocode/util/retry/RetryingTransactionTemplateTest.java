@@ -0,0 +1,160 @@
+package com.bobocode.util.retry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RetryingTransactionTemplateTest {
+    private static final RetryConfig FAST_RETRIES = fastRetries(5);
+
+    private final List<EntityManager> entityManagers = new ArrayList<>();
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    @DisplayName("Unit of work is retried in a new entity manager after an optimistic lock failure")
+    void recoversAfterOptimisticLockFailure() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(this::createEntityManager, FAST_RETRIES);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = template.execute(entityManager -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockException("stale account");
+            }
+            return "committed";
+        });
+
+        assertThat(result).isEqualTo("committed");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(entityManagers).hasSize(3);
+        entityManagers.forEach(entityManager -> Mockito.verify(entityManager).close());
+        Mockito.verify(entityManagers.get(0).getTransaction()).rollback();
+        Mockito.verify(entityManagers.get(2).getTransaction()).commit();
+        assertThat(template.getStats()).isEqualTo(new RetryStats(1, 2, 1, 0));
+    }
+
+    @Test
+    @DisplayName("Last failure is thrown when max attempts are used up")
+    void givesUpAfterMaxAttempts() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(this::createEntityManager,
+                fastRetries(3));
+        AtomicInteger attempts = new AtomicInteger();
+        PersistenceException failure = new PersistenceException(new SQLException("deadlock detected", "40P01"));
+
+        assertThatExceptionOfType(PersistenceException.class)
+                .isThrownBy(() -> template.executeWithoutResult(entityManager -> {
+                    attempts.incrementAndGet();
+                    throw failure;
+                }))
+                .isSameAs(failure);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(template.getStats()).isEqualTo(new RetryStats(1, 2, 0, 1));
+    }
+
+    @Test
+    @DisplayName("No retry is started after the deadline")
+    void givesUpAfterDeadline() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(this::createEntityManager,
+                RetryConfig.builder()
+                        .maxAttempts(Integer.MAX_VALUE)
+                        .initialBackoff(Duration.ofMillis(20))
+                        .maxBackoff(Duration.ofMillis(20))
+                        .deadline(Duration.ofMillis(200))
+                        .build());
+        AtomicInteger attempts = new AtomicInteger();
+        createEntityManager(); // the first mock is slow to create, keep it out of the measured time
+        long start = System.nanoTime();
+
+        assertThatExceptionOfType(OptimisticLockException.class)
+                .isThrownBy(() -> template.executeWithoutResult(entityManager -> {
+                    attempts.incrementAndGet();
+                    throw new OptimisticLockException();
+                }));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        assertThat(attempts.get()).isGreaterThan(1);
+        assertThat(template.getStats().getExhaustedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Non-retryable failure is thrown after the first attempt")
+    void nonRetryableFailureIsNotRetried() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(this::createEntityManager, FAST_RETRIES);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatExceptionOfType(PersistenceException.class)
+                .isThrownBy(() -> template.executeWithoutResult(entityManager -> {
+                    attempts.incrementAndGet();
+                    throw new PersistenceException(new SQLException("duplicate key", "23505"));
+                }));
+        assertThat(attempts.get()).isEqualTo(1);
+        Mockito.verify(entityManagers.get(0).getTransaction()).rollback();
+        assertThat(template.getStats()).isEqualTo(new RetryStats(1, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Interrupt during backoff stops retrying and keeps the interrupt status")
+    void interruptDuringBackoffRethrowsFailure() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(this::createEntityManager, FAST_RETRIES);
+        AtomicInteger attempts = new AtomicInteger();
+        OptimisticLockException failure = new OptimisticLockException();
+
+        assertThatExceptionOfType(OptimisticLockException.class)
+                .isThrownBy(() -> template.executeWithoutResult(entityManager -> {
+                    attempts.incrementAndGet();
+                    Thread.currentThread().interrupt();
+                    throw failure;
+                }))
+                .isSameAs(failure)
+                .satisfies(e -> assertThat(e.getSuppressed()).singleElement().isInstanceOf(InterruptedException.class));
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(Thread.currentThread().isInterrupted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Invalid config is rejected")
+    void invalidConfigIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new RetryingTransactionTemplate(this::createEntityManager,
+                RetryConfig.builder().maxAttempts(0).build()));
+        assertThatIllegalArgumentException().isThrownBy(() -> new RetryingTransactionTemplate(this::createEntityManager,
+                RetryConfig.builder().initialBackoff(Duration.ZERO).build()));
+        assertThatIllegalArgumentException().isThrownBy(() -> new RetryingTransactionTemplate(this::createEntityManager,
+                RetryConfig.builder().deadline(Duration.ofMillis(-1)).build()));
+    }
+
+    private static RetryConfig fastRetries(int maxAttempts) {
+        return RetryConfig.builder()
+                .maxAttempts(maxAttempts)
+                .initialBackoff(Duration.ofMillis(1))
+                .maxBackoff(Duration.ofMillis(2))
+                .build();
+    }
+
+    private EntityManager createEntityManager() {
+        EntityManager entityManager = Mockito.mock(EntityManager.class);
+        EntityTransaction transaction = Mockito.mock(EntityTransaction.class);
+        Mockito.when(entityManager.getTransaction()).thenReturn(transaction);
+        Mockito.when(transaction.isActive()).thenReturn(true);
+        entityManagers.add(entityManager);
+        return entityManager;
+    }
+}
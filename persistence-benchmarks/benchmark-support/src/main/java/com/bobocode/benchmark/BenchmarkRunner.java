@@ -0,0 +1,45 @@
+package com.bobocode.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * {@link BenchmarkRunner} runs JMH benchmarks once per thread count listed in the {@code jmh.threads} system property
+ * (e.g. {@code -Djmh.threads=1,4,16}), so the same benchmarks are measured under different contention levels.
+ * Without the property the benchmarks run once, with the thread count of their {@code @Threads} annotation or of the
+ * {@code -t} option. All program arguments are regular JMH command line options,
+ * e.g. {@code ProductDao -p tableSize=1000 -prof gc}.
+ */
+public class BenchmarkRunner {
+    static final String THREADS_PROPERTY = "jmh.threads";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        int[] threadCounts = parseThreadCounts(System.getProperty(THREADS_PROPERTY, ""));
+        if (threadCounts.length == 0) {
+            new Runner(commandLineOptions).run();
+            return;
+        }
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    private static int[] parseThreadCounts(String threadCounts) {
+        return Arrays.stream(threadCounts.split(","))
+                .map(String::trim)
+                .filter(count -> !count.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
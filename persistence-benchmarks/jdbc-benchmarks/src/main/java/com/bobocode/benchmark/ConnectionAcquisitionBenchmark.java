@@ -0,0 +1,62 @@
+package com.bobocode.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening a connection and running a trivial query with plain and pooled connections. Use
+ * {@code -Djmh.threads=1,4,16} to see how the pool behaves under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionAcquisitionBenchmark {
+    @Param({ProductDatabase.H2})
+    private String database;
+
+    @Param({ProductDatabase.PLAIN, ProductDatabase.POOLED})
+    private String connectionMode;
+
+    private DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dataSource = ProductDatabase.createDataSource(database, connectionMode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProductDatabase.close(dataSource);
+    }
+
+    @Benchmark
+    public int selectOne() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.model.Product;
+import com.bobocode.util.metrics.InstrumentedDataSource;
+import com.bobocode.util.metrics.JdbcMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of {@link InstrumentedDataSource} on top of a pooled H2 data source: a single-row lookup
+ * that is dominated by JDBC overhead rather than by the query, and a 1000-row scan that exercises the counting
+ * result set proxy. Compare {@code instrumented=false} with {@code instrumented=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentedDataSourceBenchmark {
+    @Param({"1000"})
+    private int tableSize;
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    @Param({ProductDatabase.H2})
+    private String database;
+
+    private DataSource pooledDataSource;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        pooledDataSource = ProductDatabase.createDataSource(database, ProductDatabase.POOLED);
+        ProductDatabase.recreateTable(pooledDataSource, tableSize);
+        DataSource dataSource = instrumented
+                ? new InstrumentedDataSource(pooledDataSource, new JdbcMetrics(),
+                InstrumentedDataSource.DEFAULT_SLOW_QUERY_THRESHOLD)
+                : pooledDataSource;
+        productDao = new ProductDaoImpl(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProductDatabase.close(pooledDataSource);
+    }
+
+    @Benchmark
+    public Product findOne() {
+        return productDao.findOne(ProductDatabase.randomId(tableSize));
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return productDao.findAll();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares inserting {@code productCount} products one by one with {@link ProductDao#save(Product)} against
+ * {@link ProductDao#saveAll(java.util.Collection, int)} and {@link ProductDao#loadAll(java.util.stream.Stream)}. Run
+ * with {@code -p database=postgres} to measure {@code COPY}, H2 falls back to batched inserts. The table is recreated
+ * before every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductBulkInsertBenchmark {
+    @Param({"10000"})
+    private int productCount;
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    @Param({ProductDatabase.H2})
+    private String database;
+
+    private DataSource dataSource;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dataSource = ProductDatabase.createDataSource(database, ProductDatabase.POOLED);
+        productDao = new ProductDaoImpl(dataSource);
+    }
+
+    @Setup(Level.Iteration)
+    public void recreateTable() throws SQLException {
+        ProductDatabase.recreateTable(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProductDatabase.close(dataSource);
+    }
+
+    @Benchmark
+    public List<Product> saveOneByOne() {
+        List<Product> products = ProductDatabase.generateProducts(productCount);
+        products.forEach(productDao::save);
+        return products;
+    }
+
+    @Benchmark
+    public List<Product> saveAll() {
+        List<Product> products = ProductDatabase.generateProducts(productCount);
+        productDao.saveAll(products, batchSize);
+        return products;
+    }
+
+    @Benchmark
+    public long loadAll() {
+        return productDao.loadAll(ProductDatabase.generateProducts(productCount).stream());
+    }
+}
@@ -0,0 +1,95 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single {@link ProductDao} operations against a table that is preloaded with {@code tableSize} rows, both
+ * with plain connections and with a connection pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductDaoBenchmark {
+    @Param({"1000", "100000"})
+    private int tableSize;
+
+    @Param({ProductDatabase.H2})
+    private String database;
+
+    @Param({ProductDatabase.PLAIN, ProductDatabase.POOLED})
+    private String connectionMode;
+
+    private DataSource dataSource;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = ProductDatabase.createDataSource(database, connectionMode);
+        ProductDatabase.recreateTable(dataSource, tableSize);
+        productDao = new ProductDaoImpl(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProductDatabase.close(dataSource);
+    }
+
+    @Benchmark
+    public Product save() {
+        Product product = ProductDatabase.generateProduct();
+        productDao.save(product);
+        return product;
+    }
+
+    @Benchmark
+    public Product findOne() {
+        return productDao.findOne(ProductDatabase.randomId(tableSize));
+    }
+
+    @Benchmark
+    public Product update() {
+        Product product = productDao.findOne(ProductDatabase.randomId(tableSize));
+        product.setPrice(ProductDatabase.generateProduct().getPrice());
+        productDao.update(product);
+        return product;
+    }
+
+    @Benchmark
+    public void saveAndRemove() {
+        Product product = ProductDatabase.generateProduct();
+        productDao.save(product);
+        productDao.remove(product);
+    }
+
+    /**
+     * Reads the whole table, so only the smaller table sizes give meaningful per-call numbers.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Product> findAll() {
+        return productDao.findAll();
+    }
+}
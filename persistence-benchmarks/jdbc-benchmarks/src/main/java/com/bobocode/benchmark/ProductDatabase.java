@@ -0,0 +1,94 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.model.Product;
+import com.bobocode.util.FileReader;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.pool.PoolConfig;
+import com.bobocode.util.pool.PooledDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link ProductDatabase} prepares a {@code products} table for benchmarks. The {@code database} benchmark parameter
+ * selects a fresh in-memory H2 database ({@code h2}) or the local PostgreSQL database from
+ * {@link JdbcUtil#createDefaultPostgresDataSource()} ({@code postgres}).
+ */
+class ProductDatabase {
+    static final String H2 = "h2";
+    static final String POSTGRES = "postgres";
+    static final String PLAIN = "plain";
+    static final String POOLED = "pooled";
+
+    private static final String CREATE_TABLE_SQL_FILE = "db/products.sql";
+
+    static DataSource createDataSource(String database) {
+        return switch (database) {
+            case H2 -> JdbcUtil.createInMemoryH2DataSource(
+                    String.format("jdbc:h2:mem:bench_%s;DB_CLOSE_DELAY=-1", UUID.randomUUID()), "bench", "bench");
+            case POSTGRES -> JdbcUtil.createDefaultPostgresDataSource();
+            default -> throw new IllegalArgumentException("Unknown database: " + database);
+        };
+    }
+
+    static DataSource createDataSource(String database, String connectionMode) {
+        return createDataSource(database, connectionMode, PoolConfig.defaultConfig());
+    }
+
+    static DataSource createDataSource(String database, String connectionMode, PoolConfig poolConfig) {
+        DataSource dataSource = createDataSource(database);
+        return switch (connectionMode) {
+            case PLAIN -> dataSource;
+            case POOLED -> JdbcUtil.createPooledDataSource(dataSource, poolConfig);
+            default -> throw new IllegalArgumentException("Unknown connection mode: " + connectionMode);
+        };
+    }
+
+    static void recreateTable(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(FileReader.readWholeFileFromResources(CREATE_TABLE_SQL_FILE));
+        }
+    }
+
+    static void recreateTable(DataSource dataSource, int rowCount) throws SQLException {
+        recreateTable(dataSource);
+        new ProductDaoImpl(dataSource).saveAll(generateProducts(rowCount));
+    }
+
+    static void close(DataSource dataSource) {
+        if (dataSource instanceof PooledDataSource pooledDataSource) {
+            pooledDataSource.close();
+        }
+    }
+
+    static List<Product> generateProducts(int count) {
+        return Stream.generate(ProductDatabase::generateProduct)
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    static Product generateProduct() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Product.builder()
+                .name("product-" + random.nextInt(1_000_000))
+                .producer("producer-" + random.nextInt(1_000))
+                .price(BigDecimal.valueOf(random.nextInt(1, 100_000), 2))
+                .expirationDate(LocalDate.now().plusDays(random.nextInt(1, 1_000)))
+                .build();
+    }
+
+    static long randomId(int rowCount) {
+        return ThreadLocalRandom.current().nextLong(1, rowCount + 1);
+    }
+}
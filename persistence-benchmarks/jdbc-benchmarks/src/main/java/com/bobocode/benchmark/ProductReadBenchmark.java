@@ -0,0 +1,75 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares reading the whole table into a list with {@link ProductDao#findAll()} against streaming it with
+ * {@link ProductDao#streamAll(int)}. Run with {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductReadBenchmark {
+    @Param({"100000"})
+    private int tableSize;
+
+    @Param({"100", "1000"})
+    private int fetchSize;
+
+    @Param({ProductDatabase.H2})
+    private String database;
+
+    private DataSource dataSource;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = ProductDatabase.createDataSource(database, ProductDatabase.POOLED);
+        ProductDatabase.recreateTable(dataSource, tableSize);
+        productDao = new ProductDaoImpl(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProductDatabase.close(dataSource);
+    }
+
+    @Benchmark
+    public BigDecimal findAll() {
+        return productDao.findAll().stream()
+                .map(Product::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal streamAll() {
+        try (Stream<Product> products = productDao.streamAll(fetchSize)) {
+            return products.map(Product::getPrice)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.model.Product;
+import com.bobocode.util.mapper.BeanRowMapper;
+import com.bobocode.util.mapper.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans {@code tableSize} products and maps every row either by column name through the Lombok builder (the way
+ * {@code ProductDaoImpl} used to do it) or with a compiled {@link BeanRowMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RowMapperBenchmark {
+    private static final String SELECT_ALL_SQL = "SELECT * FROM products";
+    private static final RowMapper<Product> BY_NAME_MAPPER = resultSet -> Product.builder()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .producer(resultSet.getString("producer"))
+            .price(resultSet.getBigDecimal("price"))
+            .expirationDate(resultSet.getTimestamp("expiration_date").toLocalDateTime().toLocalDate())
+            .creationTime(resultSet.getTimestamp("creation_time").toLocalDateTime())
+            .build();
+
+    @Param({"1000000"})
+    private int tableSize;
+
+    @Param({"1000"})
+    private int fetchSize;
+
+    @Param({ProductDatabase.H2})
+    private String database;
+
+    private DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = ProductDatabase.createDataSource(database, ProductDatabase.POOLED);
+        ProductDatabase.recreateTable(dataSource, tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProductDatabase.close(dataSource);
+    }
+
+    @Benchmark
+    public void mapByColumnName(Blackhole blackhole) throws SQLException {
+        scan(BY_NAME_MAPPER, blackhole);
+    }
+
+    @Benchmark
+    public void mapWithCompiledMapper(Blackhole blackhole) throws SQLException {
+        scan(null, blackhole);
+    }
+
+    private void scan(RowMapper<Product> rowMapper, Blackhole blackhole) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    RowMapper<Product> mapper = rowMapper != null
+                            ? rowMapper
+                            : BeanRowMapper.of(Product.class).compile(resultSet.getMetaData());
+                    while (resultSet.next()) {
+                        blackhole.consume(mapper.mapRow(resultSet));
+                    }
+                }
+            }
+            connection.commit();
+        }
+    }
+}
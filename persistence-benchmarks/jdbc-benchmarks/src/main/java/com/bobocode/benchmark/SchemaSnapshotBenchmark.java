@@ -0,0 +1,74 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.util.snapshot.ClonedDatabase;
+import com.bobocode.util.snapshot.SchemaSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares preparing a fresh test database by running the DDL and saving {@code rowCount} seed products through the
+ * DAO against cloning a {@link SchemaSnapshot} of the same database. Every operation creates and drops one database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaSnapshotBenchmark {
+    @Param({"0", "1000", "10000"})
+    private int rowCount;
+
+    private DataSource templateDataSource;
+    private SchemaSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        templateDataSource = ProductDatabase.createDataSource(ProductDatabase.H2);
+        ProductDatabase.recreateTable(templateDataSource, rowCount);
+        snapshot = SchemaSnapshot.take(templateDataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        snapshot.close();
+        shutdown(templateDataSource);
+    }
+
+    @Benchmark
+    public void rebuild() throws SQLException {
+        DataSource dataSource = ProductDatabase.createDataSource(ProductDatabase.H2);
+        ProductDatabase.recreateTable(dataSource, rowCount);
+        shutdown(dataSource);
+    }
+
+    @Benchmark
+    public void cloneSnapshot() throws SQLException {
+        try (ClonedDatabase clone = snapshot.createClone();
+             Connection connection = clone.getDataSource().getConnection()) {
+            connection.isValid(1);
+        }
+    }
+
+    private static void shutdown(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("SET DB_CLOSE_DELAY 0");
+        }
+    }
+}
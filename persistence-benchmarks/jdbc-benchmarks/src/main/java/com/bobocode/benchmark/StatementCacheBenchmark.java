@@ -0,0 +1,66 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.model.Product;
+import com.bobocode.util.pool.PoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ProductDao#findOne(Long)} on pooled connections with the prepared statement cache disabled
+ * ({@code statementCacheSize=0}) and enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCacheBenchmark {
+    @Param({"1000"})
+    private int tableSize;
+
+    @Param({"0", "32"})
+    private int statementCacheSize;
+
+    @Param({ProductDatabase.H2})
+    private String database;
+
+    private DataSource dataSource;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = ProductDatabase.createDataSource(database, ProductDatabase.POOLED, PoolConfig.builder()
+                .statementCacheSize(statementCacheSize)
+                .build());
+        ProductDatabase.recreateTable(dataSource, tableSize);
+        productDao = new ProductDaoImpl(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProductDatabase.close(dataSource);
+    }
+
+    @Benchmark
+    public Product findOne() {
+        return productDao.findOne(ProductDatabase.randomId(tableSize));
+    }
+}
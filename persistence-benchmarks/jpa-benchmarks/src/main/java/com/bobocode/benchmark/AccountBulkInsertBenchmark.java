@@ -0,0 +1,93 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDao;
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import com.bobocode.util.TestDataGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares storing {@code accountCount} accounts one by one with {@link AccountDao#save(Account)} against
+ * {@link AccountDao#saveAll(java.util.Collection, int)}, with identity and pooled sequence id generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBulkInsertBenchmark {
+    @Param({"1000"})
+    private int accountCount;
+
+    @Param({"50"})
+    private int batchSize;
+
+    @Param({"SingleAccountEntityH2", "SingleAccountEntitySequenceH2"})
+    private String persistenceUnitName;
+
+    private EntityManagerFactory entityManagerFactory;
+    private AccountDao accountDao;
+    private List<Account> accountTemplates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(persistenceUnitName);
+        accountDao = new AccountDaoImpl(entityManagerFactory);
+        accountTemplates = TestDataGenerator.generateAccountList(accountCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public List<Account> saveOneByOne() {
+        List<Account> accounts = newAccounts();
+        accounts.forEach(accountDao::save);
+        return accounts;
+    }
+
+    @Benchmark
+    public List<Account> saveAll() {
+        List<Account> accounts = newAccounts();
+        accountDao.saveAll(accounts, batchSize);
+        return accounts;
+    }
+
+    private List<Account> newAccounts() {
+        return accountTemplates.stream()
+                .map(AccountBulkInsertBenchmark::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    private static Account copyOf(Account template) {
+        Account account = new Account();
+        account.setFirstName(template.getFirstName());
+        account.setLastName(template.getLastName());
+        account.setEmail(template.getEmail());
+        account.setBirthday(template.getBirthday());
+        account.setGender(template.getGender());
+        account.setCreationTime(template.getCreationTime());
+        account.setBalance(template.getBalance());
+        return account;
+    }
+}
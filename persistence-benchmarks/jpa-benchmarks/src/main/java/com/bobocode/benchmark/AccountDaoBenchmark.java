@@ -0,0 +1,96 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDao;
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import com.bobocode.util.TestDataGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AccountDao} operations against a table that is preloaded with {@code tableSize} accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountDaoBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "SingleAccountEntityH2";
+
+    @Param({"1000"})
+    private int tableSize;
+
+    private EntityManagerFactory entityManagerFactory;
+    private AccountDao accountDao;
+    private List<Account> storedAccounts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME);
+        accountDao = new AccountDaoImpl(entityManagerFactory);
+        storedAccounts = TestDataGenerator.generateAccountList(tableSize);
+        accountDao.saveAll(storedAccounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Account save() {
+        Account account = TestDataGenerator.generateAccount();
+        accountDao.save(account);
+        return account;
+    }
+
+    @Benchmark
+    public Account findById() {
+        return accountDao.findById(randomStoredAccount().getId());
+    }
+
+    @Benchmark
+    public Account findByEmail() {
+        return accountDao.findByEmail(randomStoredAccount().getEmail());
+    }
+
+    @Benchmark
+    public Account update() {
+        Account account = accountDao.findById(randomStoredAccount().getId());
+        account.setBalance(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(200_000), 2));
+        accountDao.update(account);
+        return account;
+    }
+
+    /**
+     * Reads the whole table, so only the smaller table sizes give meaningful per-call numbers.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Account> findAll() {
+        return accountDao.findAll();
+    }
+
+    private Account randomStoredAccount() {
+        return storedAccounts.get(ThreadLocalRandom.current().nextInt(storedAccounts.size()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDao;
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares reading one page of accounts at the {@code offset} position with OFFSET paging and with
+ * {@link AccountDao#findPage(Long, int)} keyset paging, and reading the whole table with
+ * {@link AccountDao#findAll()} and {@link AccountDao#streamAll(int)}. The table is filled with plain SQL, so account
+ * ids are {@code 1..tableSize} and the page that starts after id {@code offset} is the same page in both cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountPagingBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "SingleAccountEntityH2";
+    private static final String INSERT_ACCOUNTS_SQL = "INSERT INTO account"
+            + "(first_name, last_name, email, birthday, gender, creation_time, balance) "
+            + "SELECT 'First' || x, 'Last' || x, 'account' || x || '@bobocode.com', DATE '1990-01-01', "
+            + "CASE WHEN MOD(x, 2) = 0 THEN 'MALE' ELSE 'FEMALE' END, CURRENT_TIMESTAMP, MOD(x, 2000) "
+            + "FROM SYSTEM_RANGE(1, ?)";
+
+    @Param({"100000"})
+    private int tableSize;
+
+    @Param({"0", "10000", "90000"})
+    private int offset;
+
+    @Param({"50"})
+    private int pageSize;
+
+    private EntityManagerFactory entityManagerFactory;
+    private AccountDao accountDao;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME);
+        accountDao = new AccountDaoImpl(entityManagerFactory);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.createNativeQuery(INSERT_ACCOUNTS_SQL)
+                    .setParameter(1, tableSize)
+                    .executeUpdate();
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public List<Account> offsetPage() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select a from Account a order by a.id", Account.class)
+                    .setFirstResult(offset)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<Account> keysetPage() {
+        return accountDao.findPage((long) offset, pageSize);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int findAll() {
+        return accountDao.findAll().size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long streamAll() {
+        try (Stream<Account> accounts = accountDao.streamAll(500)) {
+            return accounts.count();
+        }
+    }
+}
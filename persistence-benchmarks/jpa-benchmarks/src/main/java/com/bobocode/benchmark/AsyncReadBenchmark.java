@@ -0,0 +1,97 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.TestDataGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Fans out {@code concurrency} account reads with {@link EntityManagerUtil#performReturningWithinTxAsync} and waits
+ * for all of them. The reads run on a pool of {@code concurrency} platform threads, or on one virtual thread each, and
+ * in both cases no more than {@code maxConcurrency} of them hold a connection at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncReadBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "SingleAccountEntityH2";
+    private static final String PLATFORM = "platform";
+    private static final String VIRTUAL = "virtual";
+
+    @Param({"1000"})
+    private int tableSize;
+
+    @Param({"1000"})
+    private int concurrency;
+
+    @Param({"20"})
+    private int maxConcurrency;
+
+    @Param({PLATFORM, VIRTUAL})
+    private String threads;
+
+    private EntityManagerFactory entityManagerFactory;
+    private ExecutorService executor;
+    private EntityManagerUtil entityManagerUtil;
+    private List<Account> storedAccounts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME);
+        storedAccounts = TestDataGenerator.generateAccountList(tableSize);
+        new AccountDaoImpl(entityManagerFactory).saveAll(storedAccounts);
+        executor = switch (threads) {
+            case PLATFORM -> Executors.newFixedThreadPool(concurrency);
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            default -> throw new IllegalArgumentException("Unknown threads: " + threads);
+        };
+        entityManagerUtil = new EntityManagerUtil(entityManagerFactory, executor, maxConcurrency);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public List<Account> fanOutFindById() {
+        List<CompletableFuture<Account>> futures = IntStream.range(0, concurrency)
+                .mapToObj(i -> randomStoredAccount().getId())
+                .map(id -> entityManagerUtil.performReturningWithinTxAsync(
+                        entityManager -> entityManager.find(Account.class, id)))
+                .toList();
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    private Account randomStoredAccount() {
+        return storedAccounts.get(ThreadLocalRandom.current().nextInt(storedAccounts.size()));
+    }
+}
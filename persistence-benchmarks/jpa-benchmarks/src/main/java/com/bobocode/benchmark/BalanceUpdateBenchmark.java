@@ -0,0 +1,138 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDao;
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.exception.AccountDaoException;
+import com.bobocode.model.Account;
+import com.bobocode.util.TestDataGenerator;
+import com.bobocode.util.retry.RetryConfig;
+import com.bobocode.util.retry.RetryableFailures;
+import com.bobocode.util.retry.RetryingTransactionTemplate;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 64 writers add to the balances of {@code hotAccountCount} accounts, either with
+ * {@link AccountDao#adjustBalance(Long, BigDecimal)}, by loading the account, changing the balance and letting the
+ * transaction flush it, or by reading the account, changing the detached copy and merging it with
+ * {@link AccountDao#update(Account)}. Versioned load-modify-write updates conflict and are retried, and the retry rate
+ * is reported as the {@code retries} secondary result, next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(BalanceUpdateBenchmark.WRITER_COUNT)
+public class BalanceUpdateBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "SingleAccountEntityH2";
+    static final int WRITER_COUNT = 64;
+    private static final int MAX_ATTEMPTS = 100;
+    private static final BigDecimal DELTA = BigDecimal.ONE.setScale(2);
+
+    @Param({"16"})
+    private int hotAccountCount;
+
+    private EntityManagerFactory entityManagerFactory;
+    private AccountDao accountDao;
+    private RetryingTransactionTemplate transactionTemplate;
+    private List<Long> hotAccountIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // the built-in Hibernate pool fails instead of waiting when it is exhausted, so there is a connection per writer
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME,
+                Map.of("hibernate.connection.pool_size", String.valueOf(WRITER_COUNT)));
+        accountDao = new AccountDaoImpl(entityManagerFactory);
+        List<Account> accounts = TestDataGenerator.generateAccountList(hotAccountCount);
+        accountDao.saveAll(accounts);
+        hotAccountIds = accounts.stream().map(Account::getId).toList();
+        // 64 writers on a few rows conflict a lot, so give them enough attempts to get through
+        transactionTemplate = new RetryingTransactionTemplate(entityManagerFactory, RetryConfig.builder()
+                .maxAttempts(MAX_ATTEMPTS)
+                .deadline(Duration.ofMinutes(1))
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public void adjustBalance() {
+        accountDao.adjustBalance(randomHotAccountId(), DELTA);
+    }
+
+    @Benchmark
+    public void loadModifyWrite(RetryCounter counter) {
+        Long id = randomHotAccountId();
+        counter.attempts = 0;
+        transactionTemplate.executeWithoutResult(entityManager -> {
+            counter.attempts++;
+            Account account = entityManager.find(Account.class, id);
+            account.setBalance(account.getBalance().add(DELTA));
+        });
+        counter.retries += counter.attempts - 1;
+    }
+
+    @Benchmark
+    public void loadModifyMerge(RetryCounter counter) {
+        Long id = randomHotAccountId();
+        for (int attempt = 1; ; attempt++) {
+            Account account = accountDao.findById(id);
+            account.setBalance(account.getBalance().add(DELTA));
+            try {
+                accountDao.update(account);
+                counter.retries += attempt - 1;
+                return;
+            } catch (AccountDaoException e) {
+                if (attempt == MAX_ATTEMPTS || !RetryableFailures.isRetryable(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Long randomHotAccountId() {
+        return hotAccountIds.get(ThreadLocalRandom.current().nextInt(hotAccountIds.size()));
+    }
+
+    /**
+     * Counts the retried attempts of a writer. JMH reports them as a rate, so retries per operation is the ratio of
+     * {@code retries} to the primary result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RetryCounter {
+        public long retries;
+        private int attempts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retries = 0;
+        }
+    }
+}
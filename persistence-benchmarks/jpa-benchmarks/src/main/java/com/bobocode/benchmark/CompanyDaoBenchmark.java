@@ -0,0 +1,85 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.CompanyDao;
+import com.bobocode.dao.CompanyDaoImpl;
+import com.bobocode.model.Company;
+import com.bobocode.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CompanyDao#findByIdFetchProducts(Long)} for companies with {@code productsPerCompany} products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompanyDaoBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "CompanyProducts";
+
+    @Param({"100"})
+    private int companyCount;
+
+    @Param({"10", "100"})
+    private int productsPerCompany;
+
+    private EntityManagerFactory entityManagerFactory;
+    private CompanyDao companyDao;
+    private List<Long> companyIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME);
+        companyDao = new CompanyDaoImpl(entityManagerFactory);
+        companyIds = new ArrayList<>(companyCount);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < companyCount; i++) {
+                Company company = new Company();
+                company.setName("Company #" + i);
+                entityManager.persist(company);
+                for (int j = 0; j < productsPerCompany; j++) {
+                    Product product = new Product();
+                    product.setName("Product #" + j);
+                    company.addProduct(product);
+                    entityManager.persist(product);
+                }
+                companyIds.add(company.getId());
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Company findByIdFetchProducts() {
+        return companyDao.findByIdFetchProducts(companyIds.get(ThreadLocalRandom.current().nextInt(companyCount)));
+    }
+}
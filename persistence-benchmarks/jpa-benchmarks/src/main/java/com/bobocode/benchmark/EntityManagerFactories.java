@@ -0,0 +1,28 @@
+package com.bobocode.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link EntityManagerFactories} creates benchmark {@link EntityManagerFactory} instances from the persistence units of
+ * the exercise modules. Every factory gets its own in-memory H2 database and SQL logging is turned off, so the
+ * numbers are not affected by console output.
+ */
+class EntityManagerFactories {
+    static EntityManagerFactory createInMemory(String persistenceUnitName) {
+        return createInMemory(persistenceUnitName, Map.of());
+    }
+
+    static EntityManagerFactory createInMemory(String persistenceUnitName, Map<String, String> properties) {
+        Map<String, String> benchmarkProperties = new HashMap<>(properties);
+        benchmarkProperties.putIfAbsent("hibernate.connection.url",
+                String.format("jdbc:h2:mem:bench_%s;DB_CLOSE_DELAY=-1", UUID.randomUUID()));
+        benchmarkProperties.putIfAbsent("hibernate.show_sql", "false");
+        benchmarkProperties.putIfAbsent("hibernate.format_sql", "false");
+        return Persistence.createEntityManagerFactory(persistenceUnitName, benchmarkProperties);
+    }
+}
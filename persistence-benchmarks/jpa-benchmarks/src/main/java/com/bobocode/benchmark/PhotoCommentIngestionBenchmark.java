@@ -0,0 +1,78 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.PhotoDao;
+import com.bobocode.dao.PhotoDaoImpl;
+import com.bobocode.model.Photo;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to store {@code commentCount} comments spread over {@code photoCount} photos, either
+ * one {@link PhotoDao#addComment(long, String)} call per comment or a single batched
+ * {@link PhotoDao#addComments(Map)} call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhotoCommentIngestionBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "PhotoComments";
+
+    @Param({"10"})
+    private int photoCount;
+
+    @Param({"1000"})
+    private int commentCount;
+
+    private EntityManagerFactory entityManagerFactory;
+    private PhotoDao photoDao;
+    private Map<Long, List<String>> commentsByPhotoId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME);
+        photoDao = new PhotoDaoImpl(entityManagerFactory);
+        commentsByPhotoId = new LinkedHashMap<>();
+        for (int i = 0; i < photoCount; i++) {
+            Photo photo = new Photo();
+            photo.setUrl("https://photos.bobocode.com/" + i);
+            photoDao.save(photo);
+            commentsByPhotoId.put(photo.getId(), Collections.nCopies(commentCount / photoCount, "Nice shot!"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public void addCommentOneByOne() {
+        commentsByPhotoId.forEach((photoId, comments) -> comments.forEach(comment -> photoDao.addComment(photoId, comment)));
+    }
+
+    @Benchmark
+    public void addCommentsInBatches() {
+        photoDao.addComments(commentsByPhotoId);
+    }
+}
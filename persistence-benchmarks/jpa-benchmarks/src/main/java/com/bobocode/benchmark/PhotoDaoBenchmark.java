@@ -0,0 +1,76 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.PhotoDao;
+import com.bobocode.dao.PhotoDaoImpl;
+import com.bobocode.model.Photo;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PhotoDao} operations against {@code photoCount} stored photos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhotoDaoBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "PhotoComments";
+
+    @Param({"1000"})
+    private int photoCount;
+
+    private EntityManagerFactory entityManagerFactory;
+    private PhotoDao photoDao;
+    private long firstPhotoId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME);
+        photoDao = new PhotoDaoImpl(entityManagerFactory);
+        for (int i = 0; i < photoCount; i++) {
+            Photo photo = new Photo();
+            photo.setUrl("https://photos.bobocode.com/" + i);
+            photo.setDescription("Photo #" + i);
+            photoDao.save(photo);
+            if (i == 0) {
+                firstPhotoId = photo.getId();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Photo findById() {
+        return photoDao.findById(randomPhotoId());
+    }
+
+    @Benchmark
+    public void addComment() {
+        photoDao.addComment(randomPhotoId(), "Nice shot!");
+    }
+
+    private long randomPhotoId() {
+        return firstPhotoId + ThreadLocalRandom.current().nextInt(photoCount);
+    }
+}
@@ -0,0 +1,163 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.PhotoDao;
+import com.bobocode.dao.PhotoDaoImpl;
+import com.bobocode.model.Photo;
+import com.bobocode.model.PhotoComment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ways to read a feed page of {@code pageSize} photos with their comments: a comments query per photo
+ * (N+1), lazy loading that is batched by {@code @BatchSize}, and {@link PhotoDao#findAllWithComments(int)}. The
+ * average number of JDBC statements per operation is reported as the {@code statementsPerOp} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhotoFeedBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "PhotoComments";
+
+    @Param({"1000"})
+    private int photoCount;
+
+    @Param({"5"})
+    private int commentsPerPhoto;
+
+    @Param({"50"})
+    private int pageSize;
+
+    private EntityManagerFactory entityManagerFactory;
+    private PhotoDao photoDao;
+    private Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME,
+                Map.of("hibernate.generate_statistics", "true"));
+        photoDao = new PhotoDaoImpl(entityManagerFactory);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < photoCount; i++) {
+                Photo photo = new Photo();
+                photo.setUrl("https://photos.bobocode.com/" + i);
+                for (int j = 0; j < commentsPerPhoto; j++) {
+                    PhotoComment comment = new PhotoComment();
+                    comment.setText("Comment #" + j);
+                    comment.setCreatedOn(LocalDateTime.now());
+                    photo.addComment(comment);
+                }
+                entityManager.persist(photo);
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public int queryPerPhoto(StatementCounter counter) {
+        counter.operations++;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return selectPage(entityManager).stream()
+                    .mapToInt(photo -> entityManager.createQuery(
+                                    "SELECT c FROM PhotoComment c WHERE c.photo = :photo", PhotoComment.class)
+                            .setParameter("photo", photo)
+                            .getResultList()
+                            .size())
+                    .sum();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public int batchedLazyLoading(StatementCounter counter) {
+        counter.operations++;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return selectPage(entityManager).stream()
+                    .mapToInt(photo -> photo.getComments().size())
+                    .sum();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public int findAllWithComments(StatementCounter counter) {
+        counter.operations++;
+        return photoDao.findAllWithComments(pageSize).stream()
+                .mapToInt(photo -> photo.getComments().size())
+                .sum();
+    }
+
+    private List<Photo> selectPage(EntityManager entityManager) {
+        return entityManager.createQuery("SELECT p FROM Photo p ORDER BY p.id", Photo.class)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    /**
+     * Counts the operations of an iteration, and reports how many JDBC statements Hibernate prepared per operation.
+     * JMH sums event counters over the iterations, so the value of an iteration is divided by the iteration count,
+     * and the reported sum is the average. Statistics are shared by all threads, so it assumes a single thread.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementCounter {
+        private Statistics statistics;
+        private int iterationCount;
+        private long statementsAtStart;
+        private long operations;
+
+        @Setup(Level.Iteration)
+        public void reset(PhotoFeedBenchmark benchmark, IterationParams iterationParams) {
+            statistics = benchmark.statistics;
+            iterationCount = iterationParams.getCount();
+            statementsAtStart = statistics.getPrepareStatementCount();
+            operations = 0;
+        }
+
+        public double statementsPerOp() {
+            if (operations == 0) {
+                return 0;
+            }
+            long statements = statistics.getPrepareStatementCount() - statementsAtStart;
+            return (double) statements / operations / iterationCount;
+        }
+    }
+}
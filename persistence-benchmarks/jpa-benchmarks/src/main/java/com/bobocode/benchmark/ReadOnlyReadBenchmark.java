@@ -0,0 +1,75 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.TestDataGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads all {@code tableSize} accounts with {@link EntityManagerUtil#performReturningWithinTx},
+ * {@link EntityManagerUtil#readWithinTx} and {@link EntityManagerUtil#readStateless}. Run it with {@code -prof gc} to
+ * see the allocated heap per read next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyReadBenchmark {
+    private static final String PERSISTENCE_UNIT_NAME = "SingleAccountEntityH2";
+    private static final String SELECT_ALL_ACCOUNTS = "SELECT a FROM Account a";
+
+    @Param({"100000"})
+    private int tableSize;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManagerUtil entityManagerUtil;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = EntityManagerFactories.createInMemory(PERSISTENCE_UNIT_NAME);
+        entityManagerUtil = new EntityManagerUtil(entityManagerFactory);
+        new AccountDaoImpl(entityManagerFactory).saveAll(TestDataGenerator.generateAccountList(tableSize));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public List<Account> readWithinWriteTx() {
+        return entityManagerUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery(SELECT_ALL_ACCOUNTS, Account.class).getResultList());
+    }
+
+    @Benchmark
+    public List<Account> readWithinReadOnlyTx() {
+        return entityManagerUtil.readWithinTx(entityManager ->
+                entityManager.createQuery(SELECT_ALL_ACCOUNTS, Account.class).getResultList());
+    }
+
+    @Benchmark
+    public List<Account> readStateless() {
+        return entityManagerUtil.readStateless(session ->
+                session.createQuery(SELECT_ALL_ACCOUNTS, Account.class).getResultList());
+    }
+}
@@ -0,0 +1,51 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.model.Account;
+import com.bobocode.util.TestDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast {@link TestDataGenerator} produces {@code accountCount} accounts: sequentially from a seeded
+ * stream, in parallel into a list from a seed, and sequentially into a list of random accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestDataGeneratorBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"10000"})
+    private int accountCount;
+
+    @Benchmark
+    public long generateSeededStream() {
+        return TestDataGenerator.generateAccounts(SEED, accountCount)
+                .mapToLong(account -> account.getEmail().length())
+                .sum();
+    }
+
+    @Benchmark
+    public List<Account> generateSeededParallelList() {
+        return TestDataGenerator.generateAccountList(SEED, accountCount);
+    }
+
+    @Benchmark
+    public List<Account> generateRandomList() {
+        return TestDataGenerator.generateAccountList(accountCount);
+    }
+}